@@ -1,23 +1,39 @@
 package org.example;
 
 import net.sf.jsqlparser.JSQLParserException;
-import net.sf.jsqlparser.parser.CCJSqlParserUtil;
-import net.sf.jsqlparser.statement.Statement;
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 import org.example.pipeline.ConversionContext;
 import org.example.pipeline.ConversionResult;
 import org.example.pipeline.DialectFactory;
+import org.example.pipeline.IndexBuildPlanner;
+import org.example.pipeline.LoadWave;
+import org.example.pipeline.ParallelConversionPipeline;
+import org.example.pipeline.ParseBudget;
+import org.example.pipeline.RawStatementConverter;
+import org.example.pipeline.SchemaMetadata;
+import org.example.pipeline.SchemaPrescanner;
 import org.example.pipeline.StatementConversionRegistry;
-import org.example.pipeline.special.SpecialStatementHandler;
+import org.example.pipeline.StatementShapeCache;
+import org.example.pipeline.dialect.DialectOptions;
 import org.example.pipeline.dialect.DialectProfile;
 import org.example.pipeline.dialect.DatabaseDialect;
-import org.example.pipeline.SqlPreprocessor;
+import org.example.pipeline.output.BinaryCopyFiles;
+import org.example.pipeline.output.JdbcOutputSink;
+import org.example.pipeline.output.OutputSink;
+import org.example.pipeline.output.OutputSinks;
+import org.example.pipeline.output.ShardedOutputFiles;
+import org.example.pipeline.output.StreamOutputSink;
 
 import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -25,58 +41,192 @@ import java.util.List;
  */
 public class App {
 
+    private static final String STANDARD_STREAM = "-";
+
+    /**
+     * 参数：{@code -d/--dialect <名称>} 等同 target.dialect；{@code --pipe} 等同 source.file=- 与 output.file=-，
+     * 即从 stdin 读取、向 stdout 写出，诊断信息一律输出到 stderr。
+     */
     public static void main(String[] args) throws JSQLParserException, IOException {
-        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
-        InputStream inputStream = contextClassLoader.getResourceAsStream("source-mysql-ddl.txt");
-        if (inputStream == null) {
-            throw new RuntimeException();
-        }
-        String sqlContent = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
-        sqlContent = sqlContent.replaceAll("`","");
+        applyArguments(args);
+        StatementSource statements = openSource();
 
         String targetDialectName = System.getProperty("target.dialect", "postgresql");
 //        String targetDialectName = System.getProperty("target.dialect", "gauss");
-        DialectProfile targetProfile = DialectFactory.fromName(targetDialectName);
+        String shardDir = System.getProperty("output.shard-dir");
+        boolean sharded = shardDir != null && !shardDir.isBlank();
+        boolean dependencyOrder = "dependency".equalsIgnoreCase(System.getProperty("output.table-order"));
+        String jdbcUrl = System.getProperty("output.jdbc-url");
+        boolean jdbc = jdbcUrl != null && !jdbcUrl.isBlank();
+        if (jdbc && sharded) {
+            // 分片目录交给外部加载器并行导入，与直接导入只能二选一
+            throw new IllegalArgumentException("output.jdbc-url 不能与 output.shard-dir 同时指定");
+        }
+        DialectOptions options = DialectOptions.fromSystemProperties();
+        if (jdbc && System.getProperty("data.format") == null
+                && DialectFactory.fromName(targetDialectName, options).supportsCopy()) {
+            // 直接导入时 INSERT 数据默认改走 COPY
+            options = options.toBuilder().dataFormat(DialectOptions.DataFormat.COPY).build();
+        }
+        if (sharded || dependencyOrder) {
+            // 各表数据并行导入或表结构重新排序时，索引与外键必须推迟到全部数据之后
+            options = options.toBuilder().layout(DialectOptions.Layout.BULK_LOAD).build();
+        }
+        DialectProfile targetProfile = DialectFactory.fromName(targetDialectName, options);
+        if (jdbc && targetProfile.emitsBinaryCopyData()) {
+            // 二进制数据以 psql \copy 命令引用 .bin 文件，JDBC 导入无法执行
+            throw new IllegalArgumentException("output.jdbc-url 不支持 data.format=binary，请改用 copy 或 insert");
+        }
         DatabaseDialect targetDialect = targetProfile.getDialect();
-        System.out.println("当前目标方言: " + targetDialect.getName());
+        System.err.println("当前目标方言: " + targetDialect.getName());
 
-        ConversionContext conversionContext = new ConversionContext(targetProfile);
-        StatementConversionRegistry registry = StatementConversionRegistry.defaultRegistry();
-        ConversionResult conversionResult = new ConversionResult();
+        ConversionContext conversionContext = new ConversionContext(targetProfile, loadSchema());
+        RawStatementConverter converter = new RawStatementConverter(StatementConversionRegistry.defaultRegistry(),
+                !"false".equalsIgnoreCase(System.getProperty("insert.fast-path")), ParseBudget.fromSystemProperties(),
+                StatementShapeCache.fromSystemProperties());
 
-        List<String> statements = SqlStatementSplitter.splitStatements(sqlContent);
-        if (statements.isEmpty()) {
-            System.out.println("未解析到可用 SQL 语句");
-            return;
-        }
-        for (String originalSql : statements) {
-            String rawSql = SqlPreprocessor.sanitize(originalSql);
-            if (rawSql == null || rawSql.trim().isEmpty()) {
-                continue;
+        String outputFile = System.getProperty("output.file");
+        boolean toStdout = STANDARD_STREAM.equals(outputFile);
+        File destFile = outputFile == null || outputFile.isBlank() || toStdout
+                ? new File(System.getProperty("user.dir"), "target.sql") : new File(outputFile);
+        try (statements) {
+            if (!statements.hasNext()) {
+                System.err.println("未解析到可用 SQL 语句");
+                return;
+            }
+            BinaryCopyFiles binaryFiles = null;
+            if (targetProfile.emitsBinaryCopyData()) {
+                binaryFiles = BinaryCopyFiles.open(Paths.get(System.getProperty("data.binary-dir",
+                        new File(System.getProperty("user.dir"), "target-data").getPath())));
+                System.err.println("二进制 COPY 数据输出目录: " + binaryFiles.getDirectory().toAbsolutePath());
             }
-            try {
-                Statement statement = CCJSqlParserUtil.parse(rawSql);
-                registry.process(statement, conversionContext, conversionResult);
-            } catch (Exception ex) {
-                if (SpecialStatementHandler.handle(rawSql, conversionContext, conversionResult)) {
-                    continue;
+            if (sharded) {
+                ShardedOutputFiles shards = ShardedOutputFiles.open(Paths.get(shardDir),
+                        Long.getLong("output.shard-bytes", 0L), targetProfile.loadSessionSettings(),
+                        targetProfile.emitsUnloggedLoad());
+                destFile = shards.getDirectory().resolve(ShardedOutputFiles.MANIFEST).toFile();
+                try (ConversionResult conversionResult = new ConversionResult(shards, binaryFiles)) {
+                    if (dependencyOrder) {
+                        conversionResult.orderSchemaByDependencies(conversionContext.getSchemaMetadata());
+                    }
+                    IndexBuildPlanner indexPlanner = IndexBuildPlanner.fromSystemProperties();
+                    if (indexPlanner.isEnabled()) {
+                        conversionResult.planIndexBuilds(indexPlanner, conversionContext.getLoadStatistics());
+                    }
+                    convertAll(statements, converter, conversionContext, conversionResult);
+                    List<List<String>> waves = new ArrayList<>();
+                    List<List<String>> cyclicGroups = new ArrayList<>();
+                    for (LoadWave wave : conversionContext.getSchemaMetadata().loadWaves()) {
+                        waves.add(wave.getTables());
+                        cyclicGroups.addAll(wave.getCyclicGroups());
+                    }
+                    shards.setLoadWaves(waves, cyclicGroups);
                 }
-                System.out.println("解析失败，原样输出: " + abbreviate(rawSql) + "，原因: " + ex.getMessage());
-                conversionResult.appendStatement(rawSql);
+            } else {
+                OutputSink sink = jdbc ? JdbcOutputSink.fromSystemProperties(jdbcUrl)
+                        : toStdout ? new StreamOutputSink(new FileOutputStream(FileDescriptor.out))
+                        : OutputSinks.forFile(destFile.toPath(), System.getProperty("output.sink", "channel"));
+                try (ConversionResult conversionResult = new ConversionResult(sink, binaryFiles,
+                        targetProfile.getOptions().getLayout())) {
+                    if (targetProfile.emitsUnloggedLoad()) {
+                        conversionResult.beginLoadTransaction(targetProfile.loadSessionSettings());
+                    }
+                    if (dependencyOrder) {
+                        conversionResult.orderSchemaByDependencies(conversionContext.getSchemaMetadata());
+                    }
+                    convertAll(statements, converter, conversionContext, conversionResult);
+                }
+            }
+        }
+        if (!converter.getParseOutliers().isEmpty()) {
+            System.err.println("解析异常语句统计:");
+            converter.getParseOutliers().report().forEach(line -> System.err.println("  " + line));
+        }
+        if (converter.getShapeCache().getLookups() > 0) {
+            System.err.println("语句形状缓存: " + converter.getShapeCache().report());
+        }
+        if (jdbc) {
+            System.err.println("已导入目标库: " + jdbcUrl);
+        } else if (toStdout && !sharded) {
+            System.err.println("已写出到 stdout");
+        } else {
+            System.err.println("file saved to :" + destFile.getAbsolutePath());
+        }
+
+    }
+
+    private static void applyArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (("-d".equals(args[i]) || "--dialect".equals(args[i])) && i + 1 < args.length) {
+                System.setProperty("target.dialect", args[++i]);
+            } else if ("--pipe".equals(args[i])) {
+                System.setProperty("source.file", STANDARD_STREAM);
+                System.setProperty("output.file", STANDARD_STREAM);
+            } else {
+                throw new IllegalArgumentException("无法识别的参数: " + args[i]);
             }
         }
+    }
 
-        File destFile = new File(System.getProperty("user.dir"), "target.sql");
-        FileUtils.writeStringToFile(destFile, conversionResult.asSql(), StandardCharsets.UTF_8);
-        System.out.println("file saved to :" + destFile.getAbsolutePath());
+    private static void convertAll(StatementSource statements, RawStatementConverter converter,
+                                   ConversionContext conversionContext, ConversionResult conversionResult) {
+        int workers = Integer.getInteger("convert.workers", 1);
+        if (workers > 1) {
+            new ParallelConversionPipeline(converter, conversionContext, workers).run(statements, conversionResult);
+        } else {
+            converter.convertAll(statements, conversionContext, conversionResult);
+        }
+    }
+
+    /**
+     * schema.mode=prescan 时先单独扫描一遍建表语句，得到冻结的表结构快照，第二遍转换无需按建表顺序等待。
+     */
+    private static SchemaMetadata loadSchema() throws IOException {
+        if (!"prescan".equalsIgnoreCase(System.getProperty("schema.mode"))) {
+            return new SchemaMetadata();
+        }
+        if (STANDARD_STREAM.equals(System.getProperty("source.file"))) {
+            throw new IllegalStateException("从 stdin 读取时无法预扫描表结构，请去掉 schema.mode=prescan");
+        }
+        try (StatementSource statements = openSchemaSource()) {
+            SchemaMetadata schemaMetadata = SchemaPrescanner.scan(statements);
+            System.err.println("预扫描表结构完成，共 " + schemaMetadata.size() + " 张表");
+            return schemaMetadata;
+        }
+    }
 
+    /**
+     * 预扫描用的输入：内存映射时只解码可能是 CREATE/ALTER TABLE 的语句，INSERT 等数据语句不解码。
+     */
+    private static StatementSource openSchemaSource() throws IOException {
+        String sourceFile = System.getProperty("source.file");
+        if (sourceFile != null && !sourceFile.isBlank() && "mmap".equalsIgnoreCase(System.getProperty("input.mode"))) {
+            return MappedSqlFile.open(Paths.get(sourceFile)).statements(StatementSlice::mayMutateSchema);
+        }
+        return openSource();
     }
 
-    private static String abbreviate(String sql) {
-        String singleLine = sql.replaceAll("\\s+", " ").trim();
-        if (singleLine.length() <= 120) {
-            return singleLine;
+    /**
+     * 默认读取 classpath 下的 source-mysql-ddl.txt；指定 source.file 时读取该文件，
+     * 且 input.mode=mmap 时以内存映射方式按字节扫描；source.file=- 时从 stdin 流式读取。
+     */
+    private static StatementSource openSource() throws IOException {
+        String sourceFile = System.getProperty("source.file");
+        if (STANDARD_STREAM.equals(sourceFile)) {
+            return SqlStatementSplitter.iterate(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        }
+        if (sourceFile == null || sourceFile.isBlank()) {
+            ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+            InputStream inputStream = contextClassLoader.getResourceAsStream("source-mysql-ddl.txt");
+            if (inputStream == null) {
+                throw new RuntimeException();
+            }
+            return SqlStatementSplitter.iterate(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        }
+        Path sourcePath = Paths.get(sourceFile);
+        if ("mmap".equalsIgnoreCase(System.getProperty("input.mode"))) {
+            return MappedSqlFile.open(sourcePath).statements();
         }
-        return singleLine.substring(0, 117) + "...";
+        return SqlStatementSplitter.iterate(Files.newBufferedReader(sourcePath, StandardCharsets.UTF_8));
     }
 }
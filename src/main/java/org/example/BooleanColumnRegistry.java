@@ -7,63 +7,70 @@ import java.util.*;
  */
 public final class BooleanColumnRegistry {
 
-    private static final Set<String> GLOBAL_COLUMNS = new HashSet<>(List.of(
+    private static final Set<String> GLOBAL_COLUMNS = Set.of(
             "is_force_update_password"
-    ));
+    );
 
-    private static final Map<String, Set<String>> TABLE_SPECIFIC_COLUMNS = new HashMap<>();
+    /**
+     * 类加载时构建完成后只读，多线程查询无需加锁。
+     */
+    private static final Map<String, Set<String>> TABLE_SPECIFIC_COLUMNS = buildTableSpecificColumns();
 
-    static {
+    private static Map<String, Set<String>> buildTableSpecificColumns() {
+        Map<String, Set<String>> columns = new HashMap<>();
         // 系统服务
-        registerTableColumn("sys_user", "is_force_update_password");
+        registerTableColumn(columns, "sys_user", "is_force_update_password");
         // 工作流
-        registerTableColumn("act_hi_caseactinst", "required_");
-        registerTableColumn("act_hi_detail", "initial_");
-        registerTableColumn("act_ge_bytearray", "generated_");
-        registerTableColumn("act_re_procdef", "has_start_form_key_");
-        registerTableColumn("act_re_procdef", "startable_");
-        registerTableColumn("bpm_de_model", "status");
-        registerTableColumn("bpm_de_model", "global_mark");
-        registerTableColumn("bpm_de_model", "batch_support");
-        registerTableColumn("bpm_de_model", "application_advice_support");
-        registerTableColumn("bpm_de_model", "applicant_assign_support");
-        registerTableColumn("bpm_event", "global_mark");
-        registerTableColumn("bpm_event", "global_trigger_mark");
-        registerTableColumn("bpm_event", "global_trigger_mark");
-        registerTableColumn("enable", "global_trigger_mark");
-        registerTableColumn("bpm_proc_button", "global_mark");
-        registerTableColumn("bpm_proc_button", "custom_mark");
-        registerTableColumn("bpm_proc_button", "message_required");
-        registerTableColumn("bpm_proc_button", "edited");
-        registerTableColumn("bpm_proc_button", "selected");
-        registerTableColumn("bpm_proc_def", "approve_batch");
-        registerTableColumn("bpm_proc_def", "global_mark");
-        registerTableColumn("bpm_proc_def", "enable");
-        registerTableColumn("bpm_proc_def", "batch_support");
-        registerTableColumn("bpm_proc_def", "application_advice_support");
-        registerTableColumn("bpm_proc_def", "applicant_assign_support");
-        registerTableColumn("bpm_re_node", "can_save");
-        registerTableColumn("bpm_re_node", "feedback_rule");
-        registerTableColumn("bpm_re_node", "revoke_rule_next_todo");
-        registerTableColumn("bpm_re_node", "revoke_rule_permit_preemption");
-        registerTableColumn("bpm_re_node", "rejected_permit_direct_send");
-        registerTableColumn("bpm_re_node", "signature_rule_permit_assigned");
-        registerTableColumn("bpm_re_node", "cc_rule_permit_assigned");
-        registerTableColumn("bpm_re_node", "cc_assigned_required");
-        registerTableColumn("bpm_re_node", "cc_assigned_scoped");
-        registerTableColumn("bpm_re_node", "empty_approve_skip_rule");
-        registerTableColumn("bpm_re_node", "same_approve_skip_rule");
-        registerTableColumn("act_ru_case_execution", "required_");
-        registerTableColumn("act_ru_case_sentry_part", "satisfied_");
-        registerTableColumn("act_ru_execution", "is_active_");
-        registerTableColumn("act_ru_execution", "is_concurrent_");
-        registerTableColumn("act_ru_execution", "is_scope_");
-        registerTableColumn("act_ru_execution", "is_event_scope_");
-        registerTableColumn("act_ru_job", "exclusive_");
-        registerTableColumn("act_ru_variable", "is_concurrent_local_");
-        registerTableColumn("bpm_re_node", "multi_reject");
-        registerTableColumn("bpm_re_node", "enable_signature");
+        registerTableColumn(columns, "act_hi_caseactinst", "required_");
+        registerTableColumn(columns, "act_hi_detail", "initial_");
+        registerTableColumn(columns, "act_ge_bytearray", "generated_");
+        registerTableColumn(columns, "act_re_procdef", "has_start_form_key_");
+        registerTableColumn(columns, "act_re_procdef", "startable_");
+        registerTableColumn(columns, "bpm_de_model", "status");
+        registerTableColumn(columns, "bpm_de_model", "global_mark");
+        registerTableColumn(columns, "bpm_de_model", "batch_support");
+        registerTableColumn(columns, "bpm_de_model", "application_advice_support");
+        registerTableColumn(columns, "bpm_de_model", "applicant_assign_support");
+        registerTableColumn(columns, "bpm_event", "global_mark");
+        registerTableColumn(columns, "bpm_event", "global_trigger_mark");
+        registerTableColumn(columns, "bpm_event", "global_trigger_mark");
+        registerTableColumn(columns, "enable", "global_trigger_mark");
+        registerTableColumn(columns, "bpm_proc_button", "global_mark");
+        registerTableColumn(columns, "bpm_proc_button", "custom_mark");
+        registerTableColumn(columns, "bpm_proc_button", "message_required");
+        registerTableColumn(columns, "bpm_proc_button", "edited");
+        registerTableColumn(columns, "bpm_proc_button", "selected");
+        registerTableColumn(columns, "bpm_proc_def", "approve_batch");
+        registerTableColumn(columns, "bpm_proc_def", "global_mark");
+        registerTableColumn(columns, "bpm_proc_def", "enable");
+        registerTableColumn(columns, "bpm_proc_def", "batch_support");
+        registerTableColumn(columns, "bpm_proc_def", "application_advice_support");
+        registerTableColumn(columns, "bpm_proc_def", "applicant_assign_support");
+        registerTableColumn(columns, "bpm_re_node", "can_save");
+        registerTableColumn(columns, "bpm_re_node", "feedback_rule");
+        registerTableColumn(columns, "bpm_re_node", "revoke_rule_next_todo");
+        registerTableColumn(columns, "bpm_re_node", "revoke_rule_permit_preemption");
+        registerTableColumn(columns, "bpm_re_node", "rejected_permit_direct_send");
+        registerTableColumn(columns, "bpm_re_node", "signature_rule_permit_assigned");
+        registerTableColumn(columns, "bpm_re_node", "cc_rule_permit_assigned");
+        registerTableColumn(columns, "bpm_re_node", "cc_assigned_required");
+        registerTableColumn(columns, "bpm_re_node", "cc_assigned_scoped");
+        registerTableColumn(columns, "bpm_re_node", "empty_approve_skip_rule");
+        registerTableColumn(columns, "bpm_re_node", "same_approve_skip_rule");
+        registerTableColumn(columns, "act_ru_case_execution", "required_");
+        registerTableColumn(columns, "act_ru_case_sentry_part", "satisfied_");
+        registerTableColumn(columns, "act_ru_execution", "is_active_");
+        registerTableColumn(columns, "act_ru_execution", "is_concurrent_");
+        registerTableColumn(columns, "act_ru_execution", "is_scope_");
+        registerTableColumn(columns, "act_ru_execution", "is_event_scope_");
+        registerTableColumn(columns, "act_ru_job", "exclusive_");
+        registerTableColumn(columns, "act_ru_variable", "is_concurrent_local_");
+        registerTableColumn(columns, "bpm_re_node", "multi_reject");
+        registerTableColumn(columns, "bpm_re_node", "enable_signature");
 
+        Map<String, Set<String>> frozen = new HashMap<>();
+        columns.forEach((table, names) -> frozen.put(table, Set.copyOf(names)));
+        return Map.copyOf(frozen);
     }
 
     private BooleanColumnRegistry() {
@@ -88,7 +95,7 @@ public final class BooleanColumnRegistry {
     }
 
     public static Set<String> listedColumns() {
-        return Collections.unmodifiableSet(GLOBAL_COLUMNS);
+        return GLOBAL_COLUMNS;
     }
 
     private static boolean matchesTableSpecific(String normalizedTableName, String normalizedColumnName) {
@@ -107,9 +114,9 @@ public final class BooleanColumnRegistry {
         return false;
     }
 
-    private static void registerTableColumn(String tableName, String columnName) {
+    private static void registerTableColumn(Map<String, Set<String>> columns, String tableName, String columnName) {
         String normalizedTable = normalizeTableName(tableName);
-        TABLE_SPECIFIC_COLUMNS
+        columns
                 .computeIfAbsent(normalizedTable, key -> new HashSet<>())
                 .add(normalizeColumn(columnName));
     }
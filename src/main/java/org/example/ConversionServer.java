@@ -0,0 +1,269 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.pipeline.DialectFactory;
+import org.example.pipeline.StatementConversionRegistry;
+import org.example.pipeline.dialect.DialectOptions;
+import org.example.pipeline.output.SpillingOutputSink;
+import org.example.pipeline.output.WriterOutputSink;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 常驻的本地 HTTP 转换服务，避免每个文件都付出 JVM 启动、类加载与 JIT 预热的开销。
+ * <p>
+ * {@code POST /convert?dialect=gauss&data.format=copy} 的请求体为 MySQL 脚本（UTF-8），
+ * 转换完成后以分块传输写回（结果超过 16MB 时暂存到临时文件），转换失败时返回 4xx/5xx；可选参数与系统属性同名：dialect、data.format、output.layout、
+ * insert.batch-rows、insert.batch-bytes、load.unlogged。{@code GET /health} 返回 ok。
+ * 所有请求共享同一个语句处理器注册表，相同参数复用同一个 {@link SqlConverter}；启动时用内置语料预热各方言。
+ */
+public final class ConversionServer {
+
+    static final String WARMUP_RESOURCE = "source-mysql-ddl.txt";
+    private static final List<String> WARMUP_DIALECTS = List.of(DialectFactory.POSTGRESQL, DialectFactory.GAUSS);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final StatementConversionRegistry registry = StatementConversionRegistry.defaultRegistry();
+    private final Map<String, SqlConverter> converters = new ConcurrentHashMap<>();
+
+    private ConversionServer(InetSocketAddress address, int threads) throws IOException {
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newFixedThreadPool(Math.max(threads, 1), runnable -> {
+            Thread thread = new Thread(runnable, "conversion-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/convert", this::handleConvert);
+        server.createContext("/health", exchange -> respond(exchange, 200, "ok\n"));
+    }
+
+    /**
+     * 在指定地址启动服务（端口为 0 时随机分配），返回前完成预热。
+     *
+     * @param warmupRounds 每种方言用内置语料转换的轮数，0 表示不预热
+     */
+    public static ConversionServer start(InetSocketAddress address, int threads, int warmupRounds) throws IOException {
+        ConversionServer conversionServer = new ConversionServer(address, threads);
+        conversionServer.warmUp(warmupRounds);
+        conversionServer.server.start();
+        return conversionServer;
+    }
+
+    /**
+     * 从系统属性读取：server.host（默认 127.0.0.1）、server.port（默认 8765）、
+     * server.threads（默认可用处理器数）、server.warmup-rounds（默认 20）。
+     */
+    public static void main(String[] args) throws IOException {
+        InetSocketAddress address = new InetSocketAddress(System.getProperty("server.host", "127.0.0.1"),
+                Integer.getInteger("server.port", 8765));
+        long start = System.nanoTime();
+        ConversionServer conversionServer = start(address,
+                Integer.getInteger("server.threads", Runtime.getRuntime().availableProcessors()),
+                Integer.getInteger("server.warmup-rounds", 20));
+        System.err.println("转换服务已启动: http://" + address.getHostString() + ":" + conversionServer.getPort()
+                + "/convert，预热耗时 " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    int cachedConverters() {
+        return converters.size();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void warmUp(int rounds) throws IOException {
+        if (rounds <= 0) {
+            return;
+        }
+        String corpus;
+        try (InputStream inputStream = ConversionServer.class.getClassLoader().getResourceAsStream(WARMUP_RESOURCE)) {
+            if (inputStream == null) {
+                return;
+            }
+            corpus = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        for (int round = 0; round < rounds; round++) {
+            for (String dialect : WARMUP_DIALECTS) {
+                converter(Map.of("dialect", dialect)).convert(new StringReader(corpus), Writer.nullWriter());
+            }
+        }
+    }
+
+    /**
+     * 先完整转换到暂存区再写响应头，转换失败时返回 4xx/5xx 而不是截断的 200：
+     * 参数无效或读取请求体失败为 400，其余转换失败为 500。
+     */
+    private void handleConvert(HttpExchange exchange) throws IOException {
+        try (exchange; SpillingOutputSink converted = new SpillingOutputSink()) {
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                respond(exchange, 405, "仅支持 POST\n");
+                return;
+            }
+            SqlConverter converter;
+            try {
+                converter = converter(parseQuery(exchange.getRequestURI().getRawQuery()));
+            } catch (IllegalArgumentException ex) {
+                respond(exchange, 400, ex.getMessage() + "\n");
+                return;
+            }
+            try (Reader reader = new InputStreamReader(new RequestBody(exchange.getRequestBody()), StandardCharsets.UTF_8)) {
+                converter.convert(reader, new Writer() {
+                    @Override
+                    public void write(char[] buffer, int offset, int length) throws IOException {
+                        converted.write(CharBuffer.wrap(buffer, offset, length));
+                    }
+
+                    @Override
+                    public void flush() {
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+                });
+            } catch (RequestBodyException ex) {
+                respond(exchange, 400, "读取请求体失败: " + ex.getCause().getMessage() + "\n");
+                return;
+            } catch (IOException | RuntimeException ex) {
+                respond(exchange, 500, "转换失败: " + ex + "\n");
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/sql; charset=utf-8");
+            exchange.sendResponseHeaders(200, 0);
+            try (WriterOutputSink response = new WriterOutputSink(
+                    new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+                converted.transferTo(response);
+            }
+        }
+    }
+
+    /**
+     * 相同参数的请求复用同一个转换器，全部转换器共享语句处理器注册表。
+     * 缓存键使用合并别名后的方言名称与解析后的选项，无法识别的方言直接拒绝，缓存项数量有界。
+     */
+    private SqlConverter converter(Map<String, String> parameters) {
+        String requested = parameters.getOrDefault("dialect", DialectFactory.POSTGRESQL);
+        String dialect = DialectFactory.canonicalName(requested);
+        if (dialect == null) {
+            throw new IllegalArgumentException("不支持的方言: " + requested + "，可选值: "
+                    + DialectFactory.POSTGRESQL + ", " + DialectFactory.GAUSS);
+        }
+        DialectOptions options = options(parameters);
+        String key = dialect + "|" + options.getDataFormat() + "|" + options.getLayout() + "|" + options.getInsertBatchRows()
+                + "|" + options.getInsertBatchBytes() + "|" + options.isUnloggedLoad();
+        return converters.computeIfAbsent(key, k -> SqlConverter.builder()
+                .dialect(dialect)
+                .options(options)
+                .registry(registry)
+                .build());
+    }
+
+    static DialectOptions options(Map<String, String> parameters) {
+        DialectOptions.Builder builder = DialectOptions.builder();
+        try {
+            String dataFormat = parameters.get("data.format");
+            if (dataFormat != null && !dataFormat.isBlank()) {
+                builder.dataFormat(DialectOptions.parseDataFormat("data.format", dataFormat));
+            }
+            String layout = parameters.get("output.layout");
+            if (layout != null && !layout.isBlank()) {
+                builder.layout(DialectOptions.parseLayout("output.layout", layout));
+            }
+            builder.insertBatchRows(Integer.parseInt(parameters.getOrDefault("insert.batch-rows", "0")));
+            builder.insertBatchBytes(Long.parseLong(parameters.getOrDefault("insert.batch-bytes", "0")));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("参数无效: " + ex.getMessage(), ex);
+        }
+        builder.unloggedLoad(Boolean.parseBoolean(parameters.get("load.unlogged")));
+        DialectOptions options = builder.build();
+        if (options.getDataFormat() == DialectOptions.DataFormat.BINARY) {
+            throw new IllegalArgumentException("转换服务不支持二进制 COPY 输出");
+        }
+        return options;
+    }
+
+    static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            parameters.put(name, value);
+        }
+        return parameters;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    /**
+     * 请求体，读取失败时包装为 {@link RequestBodyException}，与转换本身的失败区分开。
+     */
+    private static final class RequestBody extends FilterInputStream {
+        RequestBody(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (IOException ex) {
+                throw new RequestBodyException(ex);
+            }
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            try {
+                return super.read(buffer, offset, length);
+            } catch (IOException ex) {
+                throw new RequestBodyException(ex);
+            }
+        }
+    }
+
+    private static final class RequestBodyException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        RequestBodyException(IOException cause) {
+            super(cause);
+        }
+    }
+}
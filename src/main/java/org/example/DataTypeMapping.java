@@ -1,7 +1,9 @@
 package org.example;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * 参考
@@ -10,33 +12,37 @@ import java.util.Locale;
  * https://www.postgresql.org/docs/11/datatype-numeric.html#DATATYPE-INT
  */
 public class DataTypeMapping {
-    public static final HashMap<String, String> MYSQL_TYPE_TO_POSTGRE_TYPE
-            = new HashMap<String, String>();
+    /**
+     * 只读映射，类加载完成后不再变化，可被多线程并发读取。
+     */
+    public static final Map<String, String> MYSQL_TYPE_TO_POSTGRE_TYPE = buildMapping();
 
-    static {
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("bigint", "bigint");
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("int", "int");
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("tinyint", "smallint");
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("smallint", "smallint");
+    private static Map<String, String> buildMapping() {
+        Map<String, String> mapping = new HashMap<>();
+        mapping.put("bigint", "bigint");
+        mapping.put("int", "int");
+        mapping.put("tinyint", "smallint");
+        mapping.put("smallint", "smallint");
 
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("varchar", "varchar");
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("char", "char");
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("text", "text");
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("tinytext", "text");
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("mediumtext", "text");
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("longtext", "text");
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("blob", "bytea");
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("mediumblob", "bytea");
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("longblob", "bytea");
+        mapping.put("varchar", "varchar");
+        mapping.put("char", "char");
+        mapping.put("text", "text");
+        mapping.put("tinytext", "text");
+        mapping.put("mediumtext", "text");
+        mapping.put("longtext", "text");
+        mapping.put("blob", "bytea");
+        mapping.put("mediumblob", "bytea");
+        mapping.put("longblob", "bytea");
 
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("datetime", "timestamp");
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("timestamp", "timestamp");
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("date", "date");
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("time", "time");
+        mapping.put("datetime", "timestamp");
+        mapping.put("timestamp", "timestamp");
+        mapping.put("date", "date");
+        mapping.put("time", "time");
 
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("decimal", "numeric");
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("double", "DOUBLE PRECISION");
-        MYSQL_TYPE_TO_POSTGRE_TYPE.put("float", "real");
+        mapping.put("decimal", "numeric");
+        mapping.put("double", "DOUBLE PRECISION");
+        mapping.put("float", "real");
+        return Collections.unmodifiableMap(mapping);
     }
 
     public static String lookup(String mysqlType) {
@@ -1,20 +1,23 @@
 package org.example;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * https://www.postgresql.org/docs/11/functions-datetime.html#FUNCTIONS-DATETIME-CURRENT
  */
 public class DefaultValueMapping {
-    public static final HashMap<String, String> MYSQL_DEFAULT_TO_POSTGRE_DEFAULT
-            = new HashMap<String, String>();
+    public static final Map<String, String> MYSQL_DEFAULT_TO_POSTGRE_DEFAULT = buildMapping();
 
-    static {
-        MYSQL_DEFAULT_TO_POSTGRE_DEFAULT.put("NULL", "NULL");
-        MYSQL_DEFAULT_TO_POSTGRE_DEFAULT.put("CURRENT_TIMESTAMP", "CURRENT_TIMESTAMP");
-        MYSQL_DEFAULT_TO_POSTGRE_DEFAULT.put("CURRENT_DATE", "CURRENT_DATE");
-        MYSQL_DEFAULT_TO_POSTGRE_DEFAULT.put("CURRENT_TIME", "CURRENT_TIME");
+    private static Map<String, String> buildMapping() {
+        Map<String, String> mapping = new HashMap<>();
+        mapping.put("NULL", "NULL");
+        mapping.put("CURRENT_TIMESTAMP", "CURRENT_TIMESTAMP");
+        mapping.put("CURRENT_DATE", "CURRENT_DATE");
+        mapping.put("CURRENT_TIME", "CURRENT_TIME");
+        return Collections.unmodifiableMap(mapping);
     }
 
     public static String lookup(String mysqlDefault) {
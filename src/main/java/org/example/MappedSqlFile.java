@@ -0,0 +1,304 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * 以内存映射方式读取 UTF-8 SQL 文件，直接在字节上识别语句边界并返回 {@link StatementSlice}。
+ * 分号、引号、反引号与注释符都是 ASCII，不会出现在多字节字符内部，因此字节级扫描与字符级规则一致；
+ * 纯注释或空白的语句（如 mysqldump 的 {@code /*!40101 ... *}{@code /;}）不会被解码。
+ */
+public final class MappedSqlFile implements Closeable {
+
+    static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+    private static final String[] INTRODUCERS = {"_binary", "_utf8mb4"};
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final int segmentSize;
+    private final long size;
+
+    private MappedSqlFile(FileChannel channel, int segmentSize) throws IOException {
+        this.channel = channel;
+        this.segmentSize = segmentSize;
+        this.size = channel.size();
+        int count = (int) ((size + segmentSize - 1) / segmentSize);
+        this.segments = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long position = (long) i * segmentSize;
+            long length = Math.min(segmentSize, size - position);
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        }
+    }
+
+    public static MappedSqlFile open(Path path) throws IOException {
+        return open(path, DEFAULT_SEGMENT_SIZE);
+    }
+
+    static MappedSqlFile open(Path path, int segmentSize) throws IOException {
+        return new MappedSqlFile(FileChannel.open(path, StandardOpenOption.READ), segmentSize);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * 顺序扫描语句区间。
+     */
+    public Iterator<StatementSlice> slices() {
+        return new SliceIterator();
+    }
+
+    /**
+     * 逐条解码后的语句，关闭时一并关闭映射文件。
+     */
+    public StatementSource statements() {
+        return statements(slice -> true);
+    }
+
+    /**
+     * 只解码满足 filter 的语句，其余区间直接跳过；关闭时一并关闭映射文件。
+     */
+    public StatementSource statements(Predicate<StatementSlice> filter) {
+        Iterator<StatementSlice> slices = slices();
+        return new StatementSource() {
+            private StatementSlice next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && slices.hasNext()) {
+                    StatementSlice slice = slices.next();
+                    if (filter.test(slice)) {
+                        next = slice;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                StatementSlice slice = next;
+                next = null;
+                return slice.decode();
+            }
+
+            @Override
+            public void close() throws IOException {
+                MappedSqlFile.this.close();
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    byte byteAt(long position) {
+        return segments[(int) (position / segmentSize)].get((int) (position % segmentSize));
+    }
+
+    String decode(long offset, int length) {
+        byte[] bytes = new byte[length];
+        int copied = 0;
+        while (copied < length) {
+            long position = offset + copied;
+            int segmentIndex = (int) (position / segmentSize);
+            int segmentOffset = (int) (position % segmentSize);
+            int chunk = Math.min(length - copied, segments[segmentIndex].limit() - segmentOffset);
+            segments[segmentIndex].get(segmentOffset, bytes, copied, chunk);
+            copied += chunk;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private final class SliceIterator implements Iterator<StatementSlice> {
+
+        private long position;
+        private StatementSlice next;
+
+        private boolean inSingleQuote;
+        private boolean inDoubleQuote;
+        private boolean inBacktick;
+        private boolean inLineComment;
+        private boolean inBlockComment;
+        private boolean blockCommentStar;
+        private boolean pendingDash;
+        private boolean pendingSlash;
+        private int backslashRun;
+
+        private long contentStart = -1;
+        private long contentEnd;
+        private boolean requiresNormalization;
+        private boolean requiresRewrite;
+
+        /**
+         * 在当前映射段内逐字节推进，跨段或产出语句时才重新定位段。
+         */
+        @Override
+        public boolean hasNext() {
+            while (next == null && position < size) {
+                MappedByteBuffer segment = segments[(int) (position / segmentSize)];
+                long base = position - position % segmentSize;
+                int local = (int) (position - base);
+                int limit = segment.limit();
+                while (local < limit && next == null) {
+                    step(segment.get(local), base + local);
+                    local++;
+                }
+                position = base + local;
+                if (position == size) {
+                    finish();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public StatementSlice next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            StatementSlice slice = next;
+            next = null;
+            return slice;
+        }
+
+        private void step(byte b, long at) {
+            if (inLineComment) {
+                if (b == '\n') {
+                    inLineComment = false;
+                }
+                return;
+            }
+            if (inBlockComment) {
+                if (b == '/' && blockCommentStar) {
+                    inBlockComment = false;
+                }
+                blockCommentStar = b == '*';
+                return;
+            }
+            if (pendingDash || pendingSlash) {
+                boolean dash = pendingDash;
+                pendingDash = false;
+                pendingSlash = false;
+                if (dash ? b == '-' : b == '*') {
+                    if (dash) {
+                        inLineComment = true;
+                    } else {
+                        inBlockComment = true;
+                        blockCommentStar = false;
+                    }
+                    if (contentStart >= 0) {
+                        requiresNormalization = true;
+                    }
+                    return;
+                }
+                content(at - 1, (byte) (dash ? '-' : '/'));
+            }
+
+            if (b == '\'' && !inDoubleQuote && !inBacktick && backslashRun % 2 == 0) {
+                inSingleQuote = !inSingleQuote;
+            } else if (b == '"' && !inSingleQuote && !inBacktick && backslashRun % 2 == 0) {
+                inDoubleQuote = !inDoubleQuote;
+            } else if (b == '`' && !inSingleQuote && !inDoubleQuote) {
+                inBacktick = !inBacktick;
+                requiresRewrite = true;
+            }
+
+            if (!inSingleQuote && !inDoubleQuote && !inBacktick) {
+                if (b == '-') {
+                    pendingDash = true;
+                    backslashRun = 0;
+                    return;
+                } else if (b == '#') {
+                    inLineComment = true;
+                    backslashRun = 0;
+                    if (contentStart >= 0) {
+                        requiresNormalization = true;
+                    }
+                    return;
+                } else if (b == '/') {
+                    pendingSlash = true;
+                    backslashRun = 0;
+                    return;
+                } else if (b == ';') {
+                    backslashRun = 0;
+                    emit();
+                    return;
+                } else if (b == '_' && !requiresRewrite && introducerAt(at)) {
+                    requiresRewrite = true;
+                }
+            }
+            content(at, b);
+        }
+
+        private void content(long at, byte b) {
+            backslashRun = b == '\\' ? backslashRun + 1 : 0;
+            if (b == '\r' && contentStart >= 0) {
+                requiresNormalization = true;
+            }
+            if ((b & 0xFF) <= ' ') {
+                return;
+            }
+            if (contentStart < 0) {
+                contentStart = at;
+            }
+            contentEnd = at + 1;
+        }
+
+        private void finish() {
+            if (pendingDash || pendingSlash) {
+                content(size - 1, (byte) (pendingDash ? '-' : '/'));
+                pendingDash = false;
+                pendingSlash = false;
+            }
+            emit();
+        }
+
+        private void emit() {
+            if (contentStart >= 0) {
+                long length = contentEnd - contentStart;
+                if (length > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("单条语句超过 2GB，无法解码: offset=" + contentStart);
+                }
+                next = new StatementSlice(MappedSqlFile.this, contentStart, (int) length, requiresNormalization,
+                        requiresRewrite);
+            }
+            contentStart = -1;
+            requiresNormalization = false;
+            requiresRewrite = false;
+        }
+
+        /**
+         * 字面量外的 _binary/_utf8mb4 只做保守判断，真正删除与否由解码时的字符扫描决定。
+         */
+        private boolean introducerAt(long at) {
+            for (String introducer : INTRODUCERS) {
+                if (at + introducer.length() > size) {
+                    continue;
+                }
+                int i = 1;
+                while (i < introducer.length() && (byteAt(at + i) | 0x20) == introducer.charAt(i)) {
+                    i++;
+                }
+                if (i == introducer.length()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.example;
+
+import org.example.pipeline.ConversionContext;
+import org.example.pipeline.ConversionResult;
+import org.example.pipeline.DialectFactory;
+import org.example.pipeline.ParallelConversionPipeline;
+import org.example.pipeline.ParseBudget;
+import org.example.pipeline.RawStatementConverter;
+import org.example.pipeline.StatementConversionRegistry;
+import org.example.pipeline.StatementShapeCache;
+import org.example.pipeline.dialect.DialectOptions;
+import org.example.pipeline.dialect.DialectProfile;
+import org.example.pipeline.output.WriterOutputSink;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 可嵌入的转换入口：从 Reader/InputStream 流式读取 MySQL 脚本，转换后写入 Writer/OutputStream，不读写临时文件。
+ * <p>
+ * 实例不可变，可重复使用并被多个线程同时调用；每次调用使用独立的 {@link ConversionContext}（表结构互不影响），
+ * 语句处理器与解析器在调用之间共享且无状态。调用方负责关闭传入的流。
+ * 二进制 COPY 需要单独的数据文件，不支持。
+ */
+public final class SqlConverter {
+
+    private final String dialectName;
+    private final DialectOptions options;
+    private final RawStatementConverter converter;
+    private final int workers;
+
+    private SqlConverter(Builder builder) {
+        this.dialectName = builder.dialectName;
+        this.options = builder.options;
+        this.converter = new RawStatementConverter(builder.registry, builder.insertFastPath, builder.parseBudget,
+                new StatementShapeCache(builder.statementCacheSize));
+        this.workers = builder.workers;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 按默认选项转换为指定方言（名称同 {@link DialectFactory#fromName(String)}）。
+     */
+    public static SqlConverter forDialect(String dialectName) {
+        return builder().dialect(dialectName).build();
+    }
+
+    /**
+     * 转换 input 中的全部语句写入 output，返回读取的非空语句数；结束时 flush output 但不关闭。
+     */
+    public long convert(Reader input, Writer output) throws IOException {
+        DialectProfile profile = DialectFactory.fromName(dialectName, options);
+        ConversionContext context = new ConversionContext(profile);
+        WriterOutputSink sink = new WriterOutputSink(output) {
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        CountingSource statements = new CountingSource(SqlStatementSplitter.iterate(input));
+        try (ConversionResult result = new ConversionResult(sink, null, options.getLayout())) {
+            if (profile.emitsUnloggedLoad()) {
+                result.beginLoadTransaction(profile.loadSessionSettings());
+            }
+            if (workers > 1) {
+                new ParallelConversionPipeline(converter, context, workers).run(statements, result);
+            } else {
+                converter.convertAll(statements, context, result);
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        return statements.count;
+    }
+
+    /**
+     * 以 UTF-8 读写字节流。
+     */
+    public long convert(InputStream input, OutputStream output) throws IOException {
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        long count = convert(new InputStreamReader(input, StandardCharsets.UTF_8), writer);
+        writer.flush();
+        return count;
+    }
+
+    public String convert(String sql) {
+        StringWriter output = new StringWriter();
+        try {
+            convert(new StringReader(sql), output);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return output.toString();
+    }
+
+    public String getDialectName() {
+        return dialectName;
+    }
+
+    public DialectOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * 统计已读取语句数的输入源，不关闭调用方的 Reader。
+     */
+    private static final class CountingSource implements StatementSource {
+        private final SqlStatementIterator delegate;
+        private long count;
+
+        CountingSource(SqlStatementIterator delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public String next() {
+            String statement = delegate.next();
+            if (!statement.isBlank()) {
+                count++;
+            }
+            return statement;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    public static final class Builder {
+        private String dialectName = "postgresql";
+        private DialectOptions options = DialectOptions.defaults();
+        private StatementConversionRegistry registry = StatementConversionRegistry.defaultRegistry();
+        private boolean insertFastPath = true;
+        private ParseBudget parseBudget = ParseBudget.defaults();
+        private int statementCacheSize = 4096;
+        private int workers = 1;
+
+        private Builder() {
+        }
+
+        public Builder dialect(String dialectName) {
+            this.dialectName = dialectName == null ? "postgresql" : dialectName;
+            return this;
+        }
+
+        public Builder options(DialectOptions options) {
+            if (options != null && options.getDataFormat() == DialectOptions.DataFormat.BINARY) {
+                throw new IllegalArgumentException("SqlConverter 不支持二进制 COPY 输出");
+            }
+            this.options = options == null ? DialectOptions.defaults() : options;
+            return this;
+        }
+
+        /**
+         * 自定义语句处理器，其中的 Processor 须无状态，以便并发调用。
+         */
+        public Builder registry(StatementConversionRegistry registry) {
+            this.registry = registry;
+            return this;
+        }
+
+        public Builder insertFastPath(boolean insertFastPath) {
+            this.insertFastPath = insertFastPath;
+            return this;
+        }
+
+        public Builder parseBudget(ParseBudget parseBudget) {
+            this.parseBudget = parseBudget == null ? ParseBudget.defaults() : parseBudget;
+            return this;
+        }
+
+        /**
+         * UPDATE/DELETE 形状缓存的模板数上限，默认 4096，0 表示关闭；缓存在调用之间共享。
+         * 自定义 registry 对 UPDATE/DELETE 的转换若随字面量取值变化（布尔列除外），应关闭缓存。
+         */
+        public Builder statementCacheSize(int statementCacheSize) {
+            this.statementCacheSize = Math.max(statementCacheSize, 0);
+            return this;
+        }
+
+        /**
+         * 单次调用内部的并行转换线程数，默认 1。
+         */
+        public Builder workers(int workers) {
+            this.workers = Math.max(workers, 1);
+            return this;
+        }
+
+        public SqlConverter build() {
+            return new SqlConverter(this);
+        }
+    }
+}
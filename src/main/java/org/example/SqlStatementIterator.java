@@ -0,0 +1,67 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.NoSuchElementException;
+
+/**
+ * 从 {@link Reader} 中按需读取并逐条产出 SQL 语句，内存占用只与单条最大语句及缓冲区大小相关。
+ */
+public final class SqlStatementIterator implements StatementSource {
+
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private final SqlStatementScanner scanner = new SqlStatementScanner();
+    private boolean endOfInput;
+
+    public SqlStatementIterator(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    public SqlStatementIterator(Reader reader, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!scanner.hasCompleted() && !endOfInput) {
+            fill();
+        }
+        return scanner.hasCompleted();
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return scanner.poll();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void fill() {
+        int read;
+        try {
+            read = reader.read(buffer, 0, buffer.length);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if (read < 0) {
+            endOfInput = true;
+            scanner.finish();
+            return;
+        }
+        scanner.accept(buffer, 0, read);
+    }
+}
@@ -0,0 +1,188 @@
+package org.example;
+
+import org.example.pipeline.SqlPreprocessor;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 逐字符推进的 SQL 语句切分状态机，与 {@link SqlStatementSplitter} 的规则一致：
+ * 按分号切分、忽略引号/反引号内的分号，并剔除注释。
+ * 同一遍扫描中去掉字面量外的标识符反引号与 _binary、_utf8mb4 字符集前缀（见 {@link SqlPreprocessor}），
+ * 字符串内容保持原样，后续无需再做预处理。
+ * 引号、注释与换行归一化的状态跨越多次 {@link #accept(char)} 调用保持，适合分块读取的场景。
+ */
+public final class SqlStatementScanner {
+
+    private final Deque<String> completed = new ArrayDeque<>();
+    private final StringBuilder current = new StringBuilder();
+
+    private boolean inSingleQuote;
+    private boolean inDoubleQuote;
+    private boolean inBacktick;
+    private boolean inLineComment;
+    private boolean inBlockComment;
+    private boolean blockCommentStar;
+    private boolean pendingCarriageReturn;
+    private boolean pendingDash;
+    private boolean pendingSlash;
+    private int backslashRun;
+
+    /**
+     * 输入一个原始字符，\r\n 会被归一化为 \n。
+     */
+    public void accept(char c) {
+        if (pendingCarriageReturn) {
+            pendingCarriageReturn = false;
+            if (c == '\n') {
+                process('\n');
+                return;
+            }
+            process('\r');
+        }
+        if (c == '\r') {
+            pendingCarriageReturn = true;
+            return;
+        }
+        process(c);
+    }
+
+    public void accept(char[] chars, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            accept(chars[i]);
+        }
+    }
+
+    public void accept(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            accept(text.charAt(i));
+        }
+    }
+
+    /**
+     * 输入结束，输出尚未以分号结尾的最后一条语句。
+     */
+    public void finish() {
+        if (pendingCarriageReturn) {
+            pendingCarriageReturn = false;
+            process('\r');
+        }
+        flushPendingCommentStart();
+        if (current.length() > 0) {
+            completed.add(current.toString().trim());
+            current.setLength(0);
+        }
+    }
+
+    public boolean hasCompleted() {
+        return !completed.isEmpty();
+    }
+
+    /**
+     * @return 最早完成的一条语句，若没有则返回 null
+     */
+    public String poll() {
+        return completed.poll();
+    }
+
+    /**
+     * @return 当前尚未完成的语句已缓冲的字符数
+     */
+    public int pendingLength() {
+        return current.length();
+    }
+
+    private void process(char c) {
+        if (inLineComment) {
+            if (c == '\n') {
+                inLineComment = false;
+            }
+            return;
+        }
+        if (inBlockComment) {
+            if (c == '/' && blockCommentStar) {
+                inBlockComment = false;
+            }
+            blockCommentStar = c == '*';
+            return;
+        }
+        if (pendingDash) {
+            pendingDash = false;
+            if (c == '-') {
+                inLineComment = true;
+                return;
+            }
+            appendChar('-');
+        } else if (pendingSlash) {
+            pendingSlash = false;
+            if (c == '*') {
+                inBlockComment = true;
+                blockCommentStar = false;
+                return;
+            }
+            appendChar('/');
+        }
+
+        if (c == '\'' && !inDoubleQuote && !inBacktick && !isEscaped()) {
+            if (!inSingleQuote) {
+                SqlPreprocessor.dropIntroducer(current, c);
+            }
+            inSingleQuote = !inSingleQuote;
+        } else if (c == '"' && !inSingleQuote && !inBacktick && !isEscaped()) {
+            if (!inDoubleQuote) {
+                SqlPreprocessor.dropIntroducer(current, c);
+            }
+            inDoubleQuote = !inDoubleQuote;
+        } else if (c == '`' && !inSingleQuote && !inDoubleQuote) {
+            inBacktick = !inBacktick;
+            backslashRun = 0;
+            return;
+        } else if ((c == 'x' || c == 'X') && !inSingleQuote && !inDoubleQuote && !inBacktick) {
+            SqlPreprocessor.dropIntroducer(current, c);
+        }
+
+        if (!inSingleQuote && !inDoubleQuote && !inBacktick) {
+            if (c == '-') {
+                pendingDash = true;
+                backslashRun = 0;
+                return;
+            } else if (c == '#') {
+                inLineComment = true;
+                backslashRun = 0;
+                return;
+            } else if (c == '/') {
+                pendingSlash = true;
+                backslashRun = 0;
+                return;
+            }
+            if (c == ';') {
+                backslashRun = 0;
+                if (current.length() > 0) {
+                    completed.add(current.toString().trim());
+                    current.setLength(0);
+                }
+                return;
+            }
+        }
+        appendChar(c);
+    }
+
+    private void flushPendingCommentStart() {
+        if (pendingDash) {
+            pendingDash = false;
+            appendChar('-');
+        } else if (pendingSlash) {
+            pendingSlash = false;
+            appendChar('/');
+        }
+    }
+
+    private void appendChar(char c) {
+        backslashRun = c == '\\' ? backslashRun + 1 : 0;
+        current.append(c);
+    }
+
+    private boolean isEscaped() {
+        return backslashRun % 2 == 1;
+    }
+}
@@ -1,10 +1,21 @@
 package org.example;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 简单 SQL 语句拆分器，按分号切分并忽略字符串/注释内的分号。
+ * 既支持一次性切分整段文本，也支持从 Reader/Channel 流式读取。
  */
 public final class SqlStatementSplitter {
 
@@ -12,93 +23,41 @@ public final class SqlStatementSplitter {
     }
 
     public static List<String> splitStatements(String sqlContent) {
-        String normalized = sqlContent.replace("\r\n", "\n");
+        SqlStatementScanner scanner = new SqlStatementScanner();
+        scanner.accept(sqlContent);
+        scanner.finish();
         List<String> statements = new ArrayList<>();
-        StringBuilder current = new StringBuilder();
-
-        boolean inSingleQuote = false;
-        boolean inDoubleQuote = false;
-        boolean inBacktick = false;
-
-        for (int i = 0; i < normalized.length(); i++) {
-            char c = normalized.charAt(i);
-
-            if (c == '\'' && !inDoubleQuote && !inBacktick && !isEscaped(normalized, i)) {
-                inSingleQuote = !inSingleQuote;
-            } else if (c == '"' && !inSingleQuote && !inBacktick && !isEscaped(normalized, i)) {
-                inDoubleQuote = !inDoubleQuote;
-            } else if (c == '`' && !inSingleQuote && !inDoubleQuote) {
-                inBacktick = !inBacktick;
-            }
-
-            if (!inSingleQuote && !inDoubleQuote && !inBacktick) {
-                if (c == '-' && lookAhead(normalized, i, "--")) {
-                    i = skipLineComment(normalized, i + 2);
-                    continue;
-                } else if (c == '#') {
-                    i = skipLineComment(normalized, i + 1);
-                    continue;
-                } else if (c == '/' && lookAhead(normalized, i, "/*")) {
-                    i = skipBlockComment(normalized, i + 2);
-                    continue;
-                }
-            }
-
-            if (c == ';' && !inSingleQuote && !inDoubleQuote && !inBacktick) {
-                if (current.length() > 0) {
-                    statements.add(current.toString().trim());
-                    current.setLength(0);
-                }
-                continue;
-            }
-
-            current.append(c);
-        }
-
-        if (current.length() > 0) {
-            statements.add(current.toString().trim());
+        String statement;
+        while ((statement = scanner.poll()) != null) {
+            statements.add(statement);
         }
         return statements;
     }
 
-    private static boolean isEscaped(String text, int index) {
-        int backslashCount = 0;
-        int cursor = index - 1;
-        while (cursor >= 0 && text.charAt(cursor) == '\\') {
-            backslashCount++;
-            cursor--;
-        }
-        return backslashCount % 2 == 1;
+    /**
+     * 流式切分，调用方负责关闭返回的迭代器（同时关闭底层 Reader）。
+     */
+    public static SqlStatementIterator iterate(Reader reader) {
+        return new SqlStatementIterator(reader);
     }
 
-    private static boolean lookAhead(String text, int index, String target) {
-        int end = index + target.length();
-        if (end > text.length()) {
-            return false;
-        }
-        return text.substring(index, end).equals(target);
+    public static SqlStatementIterator iterate(ReadableByteChannel channel, Charset charset) {
+        return new SqlStatementIterator(Channels.newReader(channel, charset.newDecoder(), -1));
     }
 
-    private static int skipLineComment(String text, int index) {
-        int cursor = index;
-        while (cursor < text.length()) {
-            char c = text.charAt(cursor);
-            if (c == '\n') {
-                return cursor;
+    /**
+     * 以 Stream 形式逐条产出语句，关闭 Stream 时关闭底层 Reader。
+     */
+    public static Stream<String> stream(Reader reader) {
+        SqlStatementIterator iterator = iterate(reader);
+        Spliterator<String> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                iterator.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
             }
-            cursor++;
-        }
-        return cursor - 1;
-    }
-
-    private static int skipBlockComment(String text, int index) {
-        int cursor = index;
-        while (cursor < text.length() - 1) {
-            if (text.charAt(cursor) == '*' && text.charAt(cursor + 1) == '/') {
-                return cursor + 1;
-            }
-            cursor++;
-        }
-        return text.length() - 1;
+        });
     }
 }
@@ -0,0 +1,118 @@
+package org.example;
+
+import java.util.Locale;
+
+/**
+ * 映射文件中一条语句所在的字节区间，按需解码为字符串。
+ */
+public final class StatementSlice {
+
+    private final MappedSqlFile file;
+    private final long offset;
+    private final int length;
+    private final boolean requiresNormalization;
+    private final boolean requiresRewrite;
+
+    StatementSlice(MappedSqlFile file, long offset, int length, boolean requiresNormalization,
+                   boolean requiresRewrite) {
+        this.file = file;
+        this.offset = offset;
+        this.length = length;
+        this.requiresNormalization = requiresNormalization;
+        this.requiresRewrite = requiresRewrite;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return 区间内是否夹带注释或 \r，需要按字符规则再清理一次
+     */
+    public boolean requiresNormalization() {
+        return requiresNormalization;
+    }
+
+    /**
+     * @return 字面量外是否含反引号或字符集前缀，解码时需去掉
+     */
+    public boolean requiresRewrite() {
+        return requiresRewrite;
+    }
+
+    /**
+     * 比较开头的 ASCII 关键字（忽略大小写），无需解码整条语句。
+     */
+    public boolean startsWithKeyword(String keyword) {
+        if (keyword.length() > length) {
+            return false;
+        }
+        String upper = keyword.toUpperCase(Locale.ROOT);
+        for (int i = 0; i < upper.length(); i++) {
+            int b = file.byteAt(offset + i) & 0xFF;
+            if (b >= 'a' && b <= 'z') {
+                b -= 'a' - 'A';
+            }
+            if (b != upper.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 依次比较开头的若干 ASCII 关键字（忽略大小写，关键字之间允许空白），无需解码整条语句。
+     */
+    public boolean startsWithKeywords(String... keywords) {
+        long cursor = 0;
+        for (String keyword : keywords) {
+            while (cursor < length && isWhitespace(file.byteAt(offset + cursor))) {
+                cursor++;
+            }
+            if (cursor + keyword.length() > length) {
+                return false;
+            }
+            for (int i = 0; i < keyword.length(); i++) {
+                if (Character.toUpperCase((char) (file.byteAt(offset + cursor + i) & 0xFF))
+                        != Character.toUpperCase(keyword.charAt(i))) {
+                    return false;
+                }
+            }
+            cursor += keyword.length();
+            if (cursor < length && !isWhitespace(file.byteAt(offset + cursor))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 是否可能是 CREATE TABLE / ALTER TABLE；夹带注释的语句无法只看字节判断，保守地返回 true。
+     */
+    public boolean mayMutateSchema() {
+        return requiresNormalization || startsWithKeywords("CREATE", "TABLE") || startsWithKeywords("ALTER", "TABLE");
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f';
+    }
+
+    /**
+     * 解码为与 {@link SqlStatementSplitter} 相同结果的语句文本。
+     */
+    public String decode() {
+        String text = file.decode(offset, length);
+        if (!requiresNormalization && !requiresRewrite) {
+            return text;
+        }
+        SqlStatementScanner scanner = new SqlStatementScanner();
+        scanner.accept(text);
+        scanner.finish();
+        String statement = scanner.poll();
+        return statement == null ? "" : statement;
+    }
+}
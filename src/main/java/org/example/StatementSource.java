@@ -0,0 +1,10 @@
+package org.example;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * 逐条产出待转换 SQL 语句的输入源，关闭时释放底层文件/流。
+ */
+public interface StatementSource extends Iterator<String>, Closeable {
+}
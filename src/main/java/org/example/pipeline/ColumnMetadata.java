@@ -4,24 +4,32 @@ import net.sf.jsqlparser.statement.create.table.ColumnDefinition;
 import org.example.BooleanColumnRegistry;
 import org.example.DataTypeMapping;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
 /**
  * 用于记录列的基本特征，便于 INSERT/UPDATE 转换。
  */
-public class ColumnMetadata {
+public final class ColumnMetadata {
 
     private final String tableName;
     private final String columnName;
     private final String sourceDataType;
     private final List<String> arguments;
+    private final boolean booleanLike;
+    private final boolean binaryLike;
+    private final String targetDataType;
 
     public ColumnMetadata(String tableName, String columnName, String sourceDataType, List<String> arguments) {
         this.tableName = tableName;
         this.columnName = columnName;
         this.sourceDataType = sourceDataType;
-        this.arguments = arguments;
+        this.arguments = arguments == null ? null : Collections.unmodifiableList(new ArrayList<>(arguments));
+        this.booleanLike = resolveBooleanLike();
+        this.binaryLike = resolveBinaryLike();
+        this.targetDataType = resolveTargetDataType();
     }
 
     public String getTableName() {
@@ -48,6 +56,21 @@ public class ColumnMetadata {
     }
 
     public boolean isBooleanLike() {
+        return booleanLike;
+    }
+
+    public boolean isBinaryLike() {
+        return binaryLike;
+    }
+
+    /**
+     * PostgreSQL 目标列的基础类型（不含长度/精度，小写），与建表转换的类型映射一致；无法映射时为 null。
+     */
+    public String getTargetDataType() {
+        return targetDataType;
+    }
+
+    private boolean resolveBooleanLike() {
         if (BooleanColumnRegistry.isBooleanColumn(tableName, columnName)) {
             return true;
         }
@@ -55,11 +78,19 @@ public class ColumnMetadata {
         return "boolean".equals(type);
     }
 
-    public boolean isBinaryLike() {
+    private boolean resolveBinaryLike() {
         if (sourceDataType == null) {
             return false;
         }
         String mapped = DataTypeMapping.lookup(sourceDataType);
         return mapped != null && mapped.equalsIgnoreCase("bytea");
     }
+
+    private String resolveTargetDataType() {
+        if (booleanLike) {
+            return "boolean";
+        }
+        String mapped = DataTypeMapping.lookup(sourceDataType);
+        return mapped == null ? null : mapped.toLowerCase(Locale.ROOT);
+    }
 }
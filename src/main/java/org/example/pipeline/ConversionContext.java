@@ -10,10 +10,15 @@ public class ConversionContext {
 
     private final DialectProfile dialectProfile;
     private final SchemaMetadata schemaMetadata;
+    private final TableLoadStatistics loadStatistics = new TableLoadStatistics();
 
     public ConversionContext(DialectProfile dialectProfile) {
+        this(dialectProfile, new SchemaMetadata());
+    }
+
+    public ConversionContext(DialectProfile dialectProfile, SchemaMetadata schemaMetadata) {
         this.dialectProfile = dialectProfile;
-        this.schemaMetadata = new SchemaMetadata();
+        this.schemaMetadata = schemaMetadata;
     }
 
     public DatabaseDialect getTargetDialect() {
@@ -27,4 +32,11 @@ public class ConversionContext {
     public SchemaMetadata getSchemaMetadata() {
         return schemaMetadata;
     }
+
+    /**
+     * 各表转换出的数据行数与数据量。
+     */
+    public TableLoadStatistics getLoadStatistics() {
+        return loadStatistics;
+    }
 }
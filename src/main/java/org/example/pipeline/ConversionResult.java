@@ -1,28 +1,557 @@
 package org.example.pipeline;
 
+import org.example.pipeline.dialect.DialectOptions;
+import org.example.pipeline.output.BinaryCopySink;
+import org.example.pipeline.output.InMemoryOutputSink;
+import org.example.pipeline.output.OutputSink;
+import org.example.pipeline.output.ShardedOutputFiles;
+import org.example.pipeline.output.SpillingOutputSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
 /**
  * 累积转换后的 SQL 文本，保持原始顺序。
+ * 默认保存在内存中；传入文件类 {@link OutputSink} 时边转换边写出。
+ * <p>
+ * 数据行按 {@link RowBlock} 追加（如 COPY ... FROM STDIN、分批 INSERT），格式相同的连续数据行合并为一块，
+ * 超过块的行数/字节上限、遇到其它输出或不同格式时先写出块尾。二进制 COPY 元组写入单独的 {@link BinaryCopySink}，
+ * 同表同列清单的连续元组写入同一文件，SQL 文本中在数据所在位置写入导入该文件的 \copy 命令。
+ * <p>
+ * 每段输出带有所属的 {@link OutputSection}。批量导入布局下表结构直接写出，数据段暂存（过大时溢写临时文件），
+ * 其余段落去重后暂存，在 {@link #close()} 或 {@link #asSql()} 时依次写出；默认布局下仅 {@link OutputSection#LOGGING} 推迟到末尾。
+ * 按表拆分输出（{@link ShardedOutputFiles}）时表结构、各表数据与收尾段落分别写入不同文件。
+ * 调用 {@link #planIndexBuilds(IndexBuildPlanner, TableLoadStatistics)} 后二级索引不再写入 post-data，而是按估算代价分配到并行通道文件。
+ * 调用 {@link #orderSchemaByDependencies(SchemaMetadata)} 后表结构按表暂存，结束时按外键依赖的拓扑顺序写出。
  */
-public class ConversionResult {
+public class ConversionResult implements Closeable {
+
+    private final OutputSink sink;
+    private final BinaryCopySink binarySink;
+    private final List<Segment> captured;
+    private final SpillingOutputSink deferredData;
+    private final Map<OutputSection, Set<String>> deferred;
+    private final ShardedOutputFiles shards;
+    private SchemaMetadata schemaOrder;
+    private Map<String, StringBuilder> heldSchema;
+    private IndexBuildPlanner indexPlanner;
+    private TableLoadStatistics loadStatistics;
+    private Map<String, String> plannedIndexes;
+    private List<IndexBuildLane> indexBuildLanes = List.of();
+    private String dataTable;
+    private OutputSink dataSink;
+    private boolean loadTransaction;
+    private RowBlock openBlock;
+    private String openBinary;
+    private int openRows;
+    private long openBytes;
+
+    public ConversionResult() {
+        this(new InMemoryOutputSink());
+    }
+
+    public ConversionResult(OutputSink sink) {
+        this(sink, null, DialectOptions.Layout.SCRIPT);
+    }
+
+    public ConversionResult(OutputSink sink, BinaryCopySink binarySink) {
+        this(sink, binarySink, DialectOptions.Layout.SCRIPT);
+    }
+
+    public ConversionResult(OutputSink sink, BinaryCopySink binarySink, DialectOptions.Layout layout) {
+        this.sink = sink;
+        this.binarySink = binarySink;
+        this.captured = null;
+        this.deferredData = layout == DialectOptions.Layout.BULK_LOAD ? new SpillingOutputSink() : null;
+        this.deferred = new EnumMap<>(OutputSection.class);
+        this.shards = null;
+    }
+
+    /**
+     * 按表拆分输出：表结构写入 schema 文件，数据按所属表写入各自文件，收尾段落在关闭时写入 post-data 文件。
+     */
+    public ConversionResult(ShardedOutputFiles shards, BinaryCopySink binarySink) {
+        this.sink = shards.schema();
+        this.binarySink = binarySink;
+        this.captured = null;
+        this.deferredData = null;
+        this.deferred = new EnumMap<>(OutputSection.class);
+        this.shards = shards;
+    }
+
+    private ConversionResult(OutputSink sink, BinaryCopySink binarySink, List<Segment> captured) {
+        this.sink = sink;
+        this.binarySink = binarySink;
+        this.captured = captured;
+        this.deferredData = null;
+        this.deferred = null;
+        this.shards = null;
+    }
+
+    /**
+     * 只记录输出片段、不直接写出的结果，随后通过 {@link #replayInto(ConversionResult)} 按顺序回放，
+     * 供多线程转换时单条语句使用，回放时数据块仍可跨语句合并。
+     */
+    public static ConversionResult capturing() {
+        return new ConversionResult(null, null, new ArrayList<>());
+    }
+
+    /**
+     * 表结构按所属表暂存，结束时先写出不属于任何表的语句，再按 {@link SchemaMetadata#loadWaves()} 的顺序写出各表，
+     * 被引用的表先于引用它的表创建。仅批量导入布局与按表拆分输出支持（数据段此时已与表结构分开）。
+     */
+    public void orderSchemaByDependencies(SchemaMetadata schemaMetadata) {
+        if (deferredData == null && shards == null) {
+            throw new IllegalStateException("仅批量导入布局或按表拆分输出支持按依赖顺序输出表结构");
+        }
+        this.schemaOrder = schemaMetadata;
+        this.heldSchema = new LinkedHashMap<>();
+        heldSchema.put("", new StringBuilder());
+    }
 
-    private final StringBuilder builder = new StringBuilder();
+    /**
+     * 暂存全部建索引语句（及所属表），结束时按各表转换出的数据量分配到并行通道，每个通道写入单独的文件并以建议的会话设置开头。
+     * 仅按表拆分输出支持。
+     */
+    public void planIndexBuilds(IndexBuildPlanner planner, TableLoadStatistics statistics) {
+        if (shards == null) {
+            throw new IllegalStateException("仅按表拆分输出支持生成索引构建计划");
+        }
+        this.indexPlanner = planner;
+        this.loadStatistics = statistics;
+        this.plannedIndexes = new LinkedHashMap<>();
+    }
+
+    /**
+     * 结束后生成的索引构建通道，未生成计划时为空。
+     */
+    public List<IndexBuildLane> getIndexBuildLanes() {
+        return indexBuildLanes;
+    }
 
     public void appendStatement(String sql) {
+        appendStatement(OutputSection.DATA, sql);
+    }
+
+    public void appendStatement(OutputSection section, String sql) {
+        appendStatement(section, null, sql);
+    }
+
+    /**
+     * @param tableName 语句所属的表，按表拆分输出时据此选择数据文件，可为 null
+     */
+    public void appendStatement(OutputSection section, String tableName, String sql) {
         if (sql == null || sql.isBlank()) {
             return;
         }
-        builder.append(sql.stripTrailing());
-        if (!sql.stripTrailing().endsWith(";")) {
-            builder.append(";");
-        }
-        builder.append("\n");
+        String trimmed = sql.stripTrailing();
+        appendRaw(section, tableName, trimmed.endsWith(";") ? trimmed + "\n" : trimmed + ";\n");
     }
 
     public void appendRaw(String raw) {
-        builder.append(raw);
+        appendRaw(OutputSection.DATA, raw);
+    }
+
+    public void appendRaw(OutputSection section, String raw) {
+        appendRaw(section, null, raw);
+    }
+
+    public void appendRaw(OutputSection section, String tableName, String raw) {
+        if (raw == null || raw.isEmpty()) {
+            return;
+        }
+        if (captured != null) {
+            capture(section, tableName, raw);
+            return;
+        }
+        boolean sectioned = deferredData != null || shards != null;
+        if (section == OutputSection.INDEXES && plannedIndexes != null) {
+            plannedIndexes.putIfAbsent(raw, tableName);
+        } else if (section.isAlwaysDeferred() || (sectioned && section.isPostData())) {
+            deferred.computeIfAbsent(section, key -> new LinkedHashSet<>()).add(raw);
+        } else if (sectioned && section == OutputSection.SCHEMA) {
+            if (heldSchema != null) {
+                String key = tableName == null ? "" : TableMetadata.normalizeName(tableName);
+                heldSchema.computeIfAbsent(key, k -> new StringBuilder()).append(raw);
+            } else {
+                writeTo(sink, raw);
+            }
+        } else {
+            selectDataTable(tableName);
+            closeRows();
+            write(raw);
+        }
+    }
+
+    /**
+     * 在输出开头写入会话设置并开启事务，表结构与数据在同一个大事务中导入，
+     * 结束时在 {@link OutputSection#LOGGING} 及之后的段落之前提交。
+     */
+    public void beginLoadTransaction(List<String> sessionSettings) {
+        if (captured != null) {
+            throw new IllegalStateException("capturing 结果不支持开启导入事务");
+        }
+        for (String setting : sessionSettings) {
+            writeTo(sink, setting + ";\n");
+        }
+        writeTo(sink, "BEGIN;\n");
+        loadTransaction = true;
+    }
+
+    /**
+     * 追加一行数据（text 的 [start, end) 区间）：与当前打开的块格式相同且未超上限时续写，否则先结束当前块再写入块头。
+     */
+    public void appendRow(RowBlock block, CharSequence text, int start, int end) {
+        if (captured != null) {
+            Segment last = captured.isEmpty() ? null : captured.get(captured.size() - 1);
+            if (last == null || !block.equals(last.block)) {
+                last = new Segment(block);
+                captured.add(last);
+            }
+            last.addRow(text, start, end);
+            return;
+        }
+        selectDataTable(block.getTableName());
+        long rowBytes = block.getMaxBytes() > 0 ? RowBlock.utf8Length(text, start, end) : 0;
+        if (!block.equals(openBlock) || !block.accepts(openRows, openBytes, rowBytes)) {
+            closeRows();
+            write(block.getHeader());
+            openBlock = block;
+            openRows = 0;
+            openBytes = block.getMaxBytes() > 0 ? RowBlock.utf8Length(block.getHeader(), 0, block.getHeader().length()) : 0;
+        }
+        if (openRows > 0) {
+            write(block.getSeparator());
+            openBytes += block.getSeparator().length();
+        }
+        write(text.subSequence(start, end));
+        openRows++;
+        openBytes += rowBytes;
     }
 
+    /**
+     * 追加一批二进制 COPY 元组：与上一批同表同列清单且中间没有其它输出时续写同一文件，
+     * 否则开始新文件，并在数据段写入导入该文件的命令，保持与前后语句的执行顺序。
+     */
+    public void appendBinaryRows(String tableName, List<String> columnNames, byte[] tuples) {
+        if (captured != null) {
+            captured.add(new Segment(tableName, columnNames, tuples));
+            return;
+        }
+        if (binarySink == null) {
+            throw new IllegalStateException("未配置二进制 COPY 输出");
+        }
+        selectDataTable(tableName);
+        String key = tableName + " (" + String.join(", ", columnNames) + ")";
+        try {
+            if (!key.equals(openBinary)) {
+                closeRows();
+                write(binarySink.begin(tableName, columnNames) + "\n");
+                openBinary = key;
+            }
+            binarySink.write(tuples);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * 是否可以接收二进制 COPY 元组。
+     */
+    public boolean acceptsBinaryRows() {
+        return captured != null || binarySink != null;
+    }
+
+    public void replayInto(ConversionResult target) {
+        if (captured == null) {
+            throw new IllegalStateException("仅 capturing() 创建的结果可回放");
+        }
+        for (Segment segment : captured) {
+            if (segment.tuples != null) {
+                target.appendBinaryRows(segment.tableName, segment.columnNames, segment.tuples);
+            } else if (segment.block == null) {
+                target.appendRaw(segment.section, segment.tableName, segment.text.toString());
+            } else {
+                int start = 0;
+                for (int i = 0; i < segment.rowCount; i++) {
+                    target.appendRow(segment.block, segment.text, start, segment.rowEnds[i]);
+                    start = segment.rowEnds[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * capturing() 结果恰好只有一段属于 tableName 的数据段原样文本时返回它，否则返回 null。
+     */
+    String capturedStatement(String tableName) {
+        if (captured == null || captured.size() != 1) {
+            return null;
+        }
+        Segment segment = captured.get(0);
+        return segment.isRaw() && segment.section == OutputSection.DATA && Objects.equals(segment.tableName, tableName)
+                ? segment.text.toString() : null;
+    }
+
+    /**
+     * 仅内存输出可回读全部 SQL，回读前会结束当前打开的数据块。
+     */
     public String asSql() {
-        return builder.toString();
+        if (sink instanceof InMemoryOutputSink) {
+            finish();
+            return ((InMemoryOutputSink) sink).asString();
+        }
+        throw new IllegalStateException("输出已写入 " + (sink == null ? "capturing" : sink.getClass().getSimpleName()) + "，无法回读");
+    }
+
+    public void flush() {
+        if (sink == null) {
+            return;
+        }
+        try {
+            sink.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (sink == null) {
+            return;
+        }
+        try {
+            finish();
+            if (shards != null) {
+                shards.close();
+            } else {
+                sink.close();
+            }
+        } finally {
+            try {
+                if (deferredData != null) {
+                    deferredData.close();
+                }
+            } finally {
+                if (binarySink != null) {
+                    binarySink.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * 结束当前数据块；批量导入布局下依次写出暂存的表结构与数据段，提交导入事务后写出收尾段落。
+     */
+    private void finish() {
+        closeRows();
+        if (deferred == null) {
+            return;
+        }
+        writeHeldSchema();
+        if (deferredData != null) {
+            try {
+                deferredData.transferTo(sink);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        if (loadTransaction) {
+            writeTo(sink, "COMMIT;\n");
+            loadTransaction = false;
+        }
+        writeIndexLanes();
+        OutputSink postData = shards != null ? shards.postData() : sink;
+        for (OutputSection section : OutputSection.values()) {
+            Set<String> statements = deferred.remove(section);
+            if (statements != null) {
+                for (String statement : statements) {
+                    writeTo(postData, statement);
+                }
+            }
+        }
+    }
+
+    private void writeIndexLanes() {
+        if (plannedIndexes == null) {
+            return;
+        }
+        Map<String, String> indexes = plannedIndexes;
+        plannedIndexes = null;
+        indexBuildLanes = indexPlanner.plan(indexes, loadStatistics);
+        for (IndexBuildLane lane : indexBuildLanes) {
+            OutputSink laneSink;
+            try {
+                laneSink = shards.newIndexLane();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            for (String setting : lane.getSessionSettings()) {
+                writeTo(laneSink, setting + ";\n");
+            }
+            for (String statement : lane.getStatements()) {
+                writeTo(laneSink, statement);
+            }
+        }
+    }
+
+    private void writeHeldSchema() {
+        if (heldSchema == null) {
+            return;
+        }
+        Map<String, StringBuilder> held = heldSchema;
+        heldSchema = null;
+        writeTo(sink, held.remove(""));
+        for (LoadWave wave : schemaOrder.loadWaves()) {
+            for (String table : wave.getTables()) {
+                StringBuilder text = held.remove(table);
+                if (text != null) {
+                    writeTo(sink, text);
+                }
+            }
+        }
+        // 未登记到表结构中的表（如只有 ALTER 语句）保持原有顺序
+        for (StringBuilder text : held.values()) {
+            writeTo(sink, text);
+        }
+    }
+
+    /**
+     * 按表拆分输出时切换当前数据文件：换表或当前文件达到上限时先结束打开的数据块。
+     */
+    private void selectDataTable(String tableName) {
+        if (shards == null) {
+            return;
+        }
+        if (!Objects.equals(tableName, dataTable)) {
+            closeRows();
+            dataTable = tableName;
+            dataSink = null;
+        }
+        if (shards.isFull(tableName)) {
+            closeRows();
+            try {
+                shards.roll(tableName);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            dataSink = null;
+        }
+    }
+
+    private void closeRows() {
+        openBinary = null;
+        if (openBlock == null) {
+            return;
+        }
+        String footer = openBlock.getFooter();
+        openBlock = null;
+        write(footer);
+    }
+
+    /**
+     * 写入数据段：按表拆分时写入当前表的数据文件，批量导入布局下进入暂存区，否则直接写出。
+     */
+    private void write(CharSequence text) {
+        if (captured != null) {
+            capture(OutputSection.DATA, null, text);
+            return;
+        }
+        if (shards != null) {
+            if (dataSink == null) {
+                try {
+                    dataSink = shards.data(dataTable);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            writeTo(dataSink, text);
+            return;
+        }
+        writeTo(deferredData != null ? deferredData : sink, text);
+    }
+
+    /**
+     * 相邻的同段落文本合并为一个片段；收尾段落逐条记录，回放后仍可按语句去重。
+     */
+    private void capture(OutputSection section, String tableName, CharSequence text) {
+        Segment last = captured.isEmpty() ? null : captured.get(captured.size() - 1);
+        if (last == null || !last.isRaw() || last.section != section || section.isPostData()
+                || !Objects.equals(last.tableName, tableName)) {
+            last = new Segment(section, tableName);
+            captured.add(last);
+        }
+        last.text.append(text);
+    }
+
+    private static void writeTo(OutputSink target, CharSequence text) {
+        try {
+            target.write(text);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * 回放片段：某一段落（及所属表）的原样文本（block 为 null）、同一格式的若干数据行，或一批二进制 COPY 元组。
+     */
+    private static final class Segment {
+        private final OutputSection section;
+        private final RowBlock block;
+        private final StringBuilder text;
+        private int[] rowEnds;
+        private int rowCount;
+        private final String tableName;
+        private final List<String> columnNames;
+        private final byte[] tuples;
+
+        Segment(RowBlock block) {
+            this(OutputSection.DATA, block, block.getTableName());
+        }
+
+        Segment(OutputSection section, String tableName) {
+            this(section, null, tableName);
+        }
+
+        private Segment(OutputSection section, RowBlock block, String tableName) {
+            this.section = section;
+            this.block = block;
+            this.text = new StringBuilder();
+            this.rowEnds = block == null ? null : new int[8];
+            this.tableName = tableName;
+            this.columnNames = null;
+            this.tuples = null;
+        }
+
+        Segment(String tableName, List<String> columnNames, byte[] tuples) {
+            this.section = OutputSection.DATA;
+            this.block = null;
+            this.text = null;
+            this.tableName = tableName;
+            this.columnNames = columnNames;
+            this.tuples = tuples;
+        }
+
+        boolean isRaw() {
+            return block == null && tuples == null;
+        }
+
+        void addRow(CharSequence row, int start, int end) {
+            text.append(row, start, end);
+            if (rowCount == rowEnds.length) {
+                rowEnds = Arrays.copyOf(rowEnds, rowCount * 2);
+            }
+            rowEnds[rowCount++] = text.length();
+        }
     }
 }
@@ -1,5 +1,6 @@
 package org.example.pipeline;
 
+import org.example.pipeline.dialect.DialectOptions;
 import org.example.pipeline.dialect.DialectProfile;
 import org.example.pipeline.dialect.gauss.GaussMySqlDialectProfile;
 import org.example.pipeline.dialect.postgres.PostgreSqlDialectProfile;
@@ -11,19 +12,40 @@ import java.util.Locale;
  */
 public final class DialectFactory {
 
+    public static final String POSTGRESQL = "postgresql";
+    public static final String GAUSS = "gauss";
+
     private DialectFactory() {
     }
 
     public static DialectProfile fromName(String dialectName) {
+        return fromName(dialectName, DialectOptions.defaults());
+    }
+
+    /**
+     * 无法识别的名称按 PostgreSQL 处理；需要拒绝未知名称时先调用 {@link #canonicalName(String)}。
+     */
+    public static DialectProfile fromName(String dialectName, DialectOptions options) {
+        if (GAUSS.equals(canonicalName(dialectName))) {
+            return new GaussMySqlDialectProfile(options);
+        }
+        return new PostgreSqlDialectProfile(options);
+    }
+
+    /**
+     * 合并别名后的方言名称（postgresql 或 gauss），无法识别时返回 null。
+     */
+    public static String canonicalName(String dialectName) {
         String normalized = dialectName == null ? "" : dialectName.trim().toLowerCase(Locale.ROOT);
         switch (normalized) {
             case "gauss":
             case "gauss-mysql":
-                return new GaussMySqlDialectProfile();
+                return GAUSS;
             case "postgres":
             case "postgresql":
+                return POSTGRESQL;
             default:
-                return new PostgreSqlDialectProfile();
+                return null;
         }
     }
 }
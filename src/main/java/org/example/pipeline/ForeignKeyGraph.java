@@ -0,0 +1,162 @@
+package org.example.pipeline;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 表之间的外键依赖图（子表 → 被引用的父表），按强连通分量缩点后拓扑分层为 {@link LoadWave}。
+ * 引用未登记的表、引用自身的外键不影响分层。
+ */
+public final class ForeignKeyGraph {
+
+    private final Map<String, Set<String>> parents = new TreeMap<>();
+
+    public static ForeignKeyGraph from(Collection<TableMetadata> tables) {
+        ForeignKeyGraph graph = new ForeignKeyGraph();
+        for (TableMetadata table : tables) {
+            graph.addTable(table.getTableName());
+        }
+        for (TableMetadata table : tables) {
+            for (String referenced : table.getReferencedTables()) {
+                graph.addReference(table.getTableName(), referenced);
+            }
+        }
+        return graph;
+    }
+
+    public void addTable(String table) {
+        parents.computeIfAbsent(table, key -> new TreeSet<>());
+    }
+
+    /**
+     * 记录 child 的外键引用 parent，两张表都需已登记。
+     */
+    public void addReference(String child, String parent) {
+        if (!child.equals(parent) && parents.containsKey(child) && parents.containsKey(parent)) {
+            parents.get(child).add(parent);
+        }
+    }
+
+    /**
+     * 分层：不引用其它表的表在第 0 批，其余表在其所有父表所在批次之后的下一批；环组整体视为一个节点。
+     */
+    public List<LoadWave> waves() {
+        List<List<String>> components = stronglyConnectedComponents();
+        Map<String, Integer> componentOf = new HashMap<>();
+        for (int i = 0; i < components.size(); i++) {
+            for (String table : components.get(i)) {
+                componentOf.put(table, i);
+            }
+        }
+        // Tarjan 算法按逆拓扑序输出分量：父表所在分量总是先于子表分量完成
+        int[] level = new int[components.size()];
+        int maxLevel = -1;
+        for (int i = 0; i < components.size(); i++) {
+            for (String table : components.get(i)) {
+                for (String parent : parents.get(table)) {
+                    int parentComponent = componentOf.get(parent);
+                    if (parentComponent != i) {
+                        level[i] = Math.max(level[i], level[parentComponent] + 1);
+                    }
+                }
+            }
+            maxLevel = Math.max(maxLevel, level[i]);
+        }
+        List<LoadWave> waves = new ArrayList<>();
+        for (int wave = 0; wave <= maxLevel; wave++) {
+            Set<String> tables = new TreeSet<>();
+            List<List<String>> cyclicGroups = new ArrayList<>();
+            for (int i = 0; i < components.size(); i++) {
+                if (level[i] != wave) {
+                    continue;
+                }
+                tables.addAll(components.get(i));
+                if (components.get(i).size() > 1) {
+                    cyclicGroups.add(new ArrayList<>(new TreeSet<>(components.get(i))));
+                }
+            }
+            cyclicGroups.sort((a, b) -> a.get(0).compareTo(b.get(0)));
+            waves.add(new LoadWave(wave, new ArrayList<>(tables), cyclicGroups));
+        }
+        return waves;
+    }
+
+    /**
+     * 按拓扑顺序（父表在前）排列的全部表，同批次内按名称排序。
+     */
+    public List<String> orderedTables() {
+        List<String> ordered = new ArrayList<>();
+        for (LoadWave wave : waves()) {
+            ordered.addAll(wave.getTables());
+        }
+        return ordered;
+    }
+
+    /**
+     * 非递归的 Tarjan 强连通分量算法，避免长外键链导致栈溢出。
+     */
+    private List<List<String>> stronglyConnectedComponents() {
+        Map<String, Integer> index = new HashMap<>();
+        Map<String, Integer> lowLink = new HashMap<>();
+        Set<String> onStack = new TreeSet<>();
+        Deque<String> stack = new ArrayDeque<>();
+        List<List<String>> components = new ArrayList<>();
+        int counter = 0;
+        for (String root : parents.keySet()) {
+            if (index.containsKey(root)) {
+                continue;
+            }
+            Deque<Object[]> work = new ArrayDeque<>();
+            work.push(new Object[]{root, new ArrayList<>(parents.get(root)).iterator()});
+            index.put(root, counter);
+            lowLink.put(root, counter);
+            counter++;
+            stack.push(root);
+            onStack.add(root);
+            while (!work.isEmpty()) {
+                Object[] frame = work.peek();
+                String node = (String) frame[0];
+                @SuppressWarnings("unchecked")
+                java.util.Iterator<String> edges = (java.util.Iterator<String>) frame[1];
+                if (edges.hasNext()) {
+                    String parent = edges.next();
+                    if (!index.containsKey(parent)) {
+                        index.put(parent, counter);
+                        lowLink.put(parent, counter);
+                        counter++;
+                        stack.push(parent);
+                        onStack.add(parent);
+                        work.push(new Object[]{parent, new ArrayList<>(parents.get(parent)).iterator()});
+                    } else if (onStack.contains(parent)) {
+                        lowLink.put(node, Math.min(lowLink.get(node), index.get(parent)));
+                    }
+                    continue;
+                }
+                work.pop();
+                if (!work.isEmpty()) {
+                    String caller = (String) work.peek()[0];
+                    lowLink.put(caller, Math.min(lowLink.get(caller), lowLink.get(node)));
+                }
+                if (lowLink.get(node).equals(index.get(node))) {
+                    List<String> component = new ArrayList<>();
+                    String member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                    } while (!member.equals(node));
+                    components.add(component);
+                }
+            }
+        }
+        return components;
+    }
+}
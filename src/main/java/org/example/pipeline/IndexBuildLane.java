@@ -0,0 +1,58 @@
+package org.example.pipeline;
+
+import java.util.List;
+
+/**
+ * 索引构建计划中的一条并行通道：按顺序执行的建索引语句及建议的会话设置。
+ */
+public final class IndexBuildLane {
+
+    private final int index;
+    private final List<String> statements;
+    private final long estimatedCost;
+    private final long maintenanceWorkMemMb;
+    private final int maxParallelMaintenanceWorkers;
+
+    public IndexBuildLane(int index, List<String> statements, long estimatedCost, long maintenanceWorkMemMb,
+                          int maxParallelMaintenanceWorkers) {
+        this.index = index;
+        this.statements = List.copyOf(statements);
+        this.estimatedCost = estimatedCost;
+        this.maintenanceWorkMemMb = maintenanceWorkMemMb;
+        this.maxParallelMaintenanceWorkers = maxParallelMaintenanceWorkers;
+    }
+
+    /**
+     * 通道序号，从 1 开始。
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public List<String> getStatements() {
+        return statements;
+    }
+
+    /**
+     * 通道内各索引估算代价之和（近似需要扫描与排序的字节数）。
+     */
+    public long getEstimatedCost() {
+        return estimatedCost;
+    }
+
+    public long getMaintenanceWorkMemMb() {
+        return maintenanceWorkMemMb;
+    }
+
+    public int getMaxParallelMaintenanceWorkers() {
+        return maxParallelMaintenanceWorkers;
+    }
+
+    /**
+     * 通道开头执行的会话设置。
+     */
+    public List<String> getSessionSettings() {
+        return List.of("SET maintenance_work_mem = '" + maintenanceWorkMemMb + "MB'",
+                "SET max_parallel_maintenance_workers = " + maxParallelMaintenanceWorkers);
+    }
+}
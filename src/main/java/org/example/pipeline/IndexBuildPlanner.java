@@ -0,0 +1,117 @@
+package org.example.pipeline;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 把导入后需要创建的索引分配到若干并行通道：每个索引的代价按所属表转换出的数据量与行数估算，
+ * 按代价从大到小依次放入当前总代价最小的通道（LPT），使各通道耗时大致均衡。
+ * <p>
+ * 每个通道建议的 maintenance_work_mem 取通道内最大索引的估算数据量，介于 64MB 与内存预算均分值之间；
+ * max_parallel_maintenance_workers 取均分到通道的 CPU 数减一（领头进程也参与排序），
+ * 且每个参与进程至少分到 32MB，小于 8MB 的表不启用并行。
+ */
+public final class IndexBuildPlanner {
+
+    static final long MB = 1024L * 1024L;
+    private static final long ROW_OVERHEAD_BYTES = 32;
+    private static final long MIN_WORK_MEM_MB = 64;
+    private static final long WORK_MEM_PER_PARTICIPANT_MB = 32;
+    private static final long MIN_PARALLEL_BYTES = 8 * MB;
+    private static final Pattern INDEX_TABLE = Pattern.compile("(?i)\\bON\\s+(?:ONLY\\s+)?([^\\s(]+)");
+
+    private final int lanes;
+    private final long memoryBudgetMb;
+    private final int cpus;
+
+    /**
+     * @param lanes          并行通道数，0 表示不生成计划
+     * @param memoryBudgetMb 全部通道可用的 maintenance_work_mem 总和（MB）
+     * @param cpus           可用于建索引的 CPU 数
+     */
+    public IndexBuildPlanner(int lanes, long memoryBudgetMb, int cpus) {
+        this.lanes = Math.max(lanes, 0);
+        this.memoryBudgetMb = Math.max(memoryBudgetMb, MIN_WORK_MEM_MB);
+        this.cpus = Math.max(cpus, 1);
+    }
+
+    /**
+     * 从 JVM 系统属性读取：index.build-lanes（默认 0），index.build-memory-mb（默认 1024），
+     * index.build-cpus（默认可用处理器数）。
+     */
+    public static IndexBuildPlanner fromSystemProperties() {
+        return new IndexBuildPlanner(Integer.getInteger("index.build-lanes", 0),
+                Long.getLong("index.build-memory-mb", 1024L),
+                Integer.getInteger("index.build-cpus", Runtime.getRuntime().availableProcessors()));
+    }
+
+    public boolean isEnabled() {
+        return lanes > 0;
+    }
+
+    public int getLanes() {
+        return lanes;
+    }
+
+    /**
+     * @param indexes 建索引语句 → 所属表（可为 null），保持输出顺序
+     * @return 非空的通道，序号从 1 开始
+     */
+    public List<IndexBuildLane> plan(Map<String, String> indexes, TableLoadStatistics statistics) {
+        List<Map.Entry<String, Long>> costs = new ArrayList<>();
+        for (Map.Entry<String, String> index : indexes.entrySet()) {
+            String table = index.getValue() != null ? index.getValue() : tableOf(index.getKey());
+            long cost = statistics.getBytes(table) + statistics.getRows(table) * ROW_OVERHEAD_BYTES;
+            costs.add(Map.entry(index.getKey(), cost));
+        }
+        // 稳定排序：代价相同的索引保持原有顺序
+        costs.sort(Comparator.comparing(Map.Entry<String, Long>::getValue).reversed());
+
+        int laneCount = Math.max(Math.min(lanes, costs.size()), 1);
+        List<List<String>> statements = new ArrayList<>();
+        long[] totals = new long[laneCount];
+        long[] largest = new long[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            statements.add(new ArrayList<>());
+        }
+        for (Map.Entry<String, Long> cost : costs) {
+            int target = 0;
+            for (int i = 1; i < laneCount; i++) {
+                if (totals[i] < totals[target]) {
+                    target = i;
+                }
+            }
+            statements.get(target).add(cost.getKey());
+            totals[target] += cost.getValue();
+            largest[target] = Math.max(largest[target], cost.getValue());
+        }
+
+        long laneBudgetMb = Math.max(memoryBudgetMb / laneCount, MIN_WORK_MEM_MB);
+        int laneCpus = Math.max(cpus / laneCount, 1);
+        List<IndexBuildLane> plan = new ArrayList<>();
+        for (int i = 0; i < laneCount; i++) {
+            if (statements.get(i).isEmpty()) {
+                continue;
+            }
+            long workMemMb = Math.min(Math.max((largest[i] + MB - 1) / MB, MIN_WORK_MEM_MB), laneBudgetMb);
+            int workers = 0;
+            if (largest[i] >= MIN_PARALLEL_BYTES) {
+                workers = (int) Math.max(Math.min(laneCpus - 1, workMemMb / WORK_MEM_PER_PARTICIPANT_MB - 1), 0);
+            }
+            plan.add(new IndexBuildLane(plan.size() + 1, statements.get(i), totals[i], workMemMb, workers));
+        }
+        return plan;
+    }
+
+    /**
+     * 未标明所属表的 CREATE INDEX 语句从 ON 子句中取表名。
+     */
+    static String tableOf(String createIndexSql) {
+        Matcher matcher = INDEX_TABLE.matcher(createIndexSql);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+}
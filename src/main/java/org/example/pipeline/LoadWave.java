@@ -0,0 +1,46 @@
+package org.example.pipeline;
+
+import java.util.List;
+
+/**
+ * 一批可以并行建表与导入的表：它们外键引用的表都在之前的批次中。
+ * 外键互相引用（强连通）的表归为同一个环组，放在同一批次，组内外键需在数据导入后添加或设为 DEFERRABLE。
+ */
+public final class LoadWave {
+
+    private final int index;
+    private final List<String> tables;
+    private final List<List<String>> cyclicGroups;
+
+    public LoadWave(int index, List<String> tables, List<List<String>> cyclicGroups) {
+        this.index = index;
+        this.tables = List.copyOf(tables);
+        this.cyclicGroups = List.copyOf(cyclicGroups);
+    }
+
+    /**
+     * 批次序号，从 0 开始。
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * 本批次的表（规范化表名，按名称排序）。
+     */
+    public List<String> getTables() {
+        return tables;
+    }
+
+    /**
+     * 本批次中外键成环的表组，每组至少两张表。
+     */
+    public List<List<String>> getCyclicGroups() {
+        return cyclicGroups;
+    }
+
+    @Override
+    public String toString() {
+        return "wave " + index + ": " + tables + (cyclicGroups.isEmpty() ? "" : " cyclic " + cyclicGroups);
+    }
+}
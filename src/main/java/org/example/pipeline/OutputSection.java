@@ -0,0 +1,50 @@
+package org.example.pipeline;
+
+/**
+ * 转换结果所属的段落。默认布局下按转换顺序原样输出（{@link #LOGGING} 除外，始终放在末尾）；
+ * 批量导入布局下按枚举顺序输出：表结构、数据、SET LOGGED、二级索引、外键、外键校验、统计信息收集。
+ */
+public enum OutputSection {
+    /**
+     * 建表、加列、删表等表结构语句。
+     */
+    SCHEMA,
+    /**
+     * INSERT/COPY/UPDATE 等数据语句及其它无法归类的语句。
+     */
+    DATA,
+    /**
+     * UNLOGGED 导入结束后的 ALTER TABLE ... SET LOGGED，须在全部数据之后执行。
+     */
+    LOGGING,
+    /**
+     * 二级索引（含唯一索引）。
+     */
+    INDEXES,
+    /**
+     * 外键约束，支持时以 NOT VALID 方式添加。
+     */
+    FOREIGN_KEYS,
+    /**
+     * VALIDATE CONSTRAINT。
+     */
+    VALIDATION,
+    /**
+     * 每张表的 ANALYZE。
+     */
+    ANALYZE;
+
+    /**
+     * 是否属于数据导入之后的收尾段落。
+     */
+    public boolean isPostData() {
+        return compareTo(DATA) > 0;
+    }
+
+    /**
+     * 默认布局下是否也推迟到末尾输出。
+     */
+    public boolean isAlwaysDeferred() {
+        return this == LOGGING;
+    }
+}
@@ -0,0 +1,216 @@
+package org.example.pipeline;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 多线程转换流水线：读取线程编号分发 → 多个 worker 并行预处理、解析与转换 → 写出线程按输入顺序落盘。
+ * <p>
+ * 建表语句会注册 {@link SchemaMetadata}，因此它要等待之前的语句全部转换完成；
+ * 其后的语句则要等待最近一条建表语句转换完成，保证 INSERT/UPDATE 能看到所需的表结构。
+ * 若上下文持有预扫描得到的冻结快照，则所有语句互不依赖，完全并行转换。
+ * 在途语句数量（队列 + 重排缓冲）受 {@code capacity} 限制，内存占用与输入规模无关。
+ */
+public class ParallelConversionPipeline {
+
+    private static final long NONE = -1L;
+
+    private final RawStatementConverter converter;
+    private final ConversionContext context;
+    private final int workers;
+    private final int capacity;
+
+    public ParallelConversionPipeline(RawStatementConverter converter, ConversionContext context, int workers) {
+        this(converter, context, workers, workers * 64);
+    }
+
+    public ParallelConversionPipeline(RawStatementConverter converter, ConversionContext context,
+                                      int workers, int capacity) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive: " + workers);
+        }
+        if (capacity < workers) {
+            throw new IllegalArgumentException("capacity must not be less than workers: " + capacity);
+        }
+        this.converter = converter;
+        this.context = context;
+        this.workers = workers;
+        this.capacity = capacity;
+    }
+
+    public void run(Iterator<String> statements, ConversionResult target) {
+        BlockingQueue<Task> pending = new ArrayBlockingQueue<>(capacity);
+        BlockingQueue<Task> converted = new LinkedBlockingQueue<>();
+        Semaphore inFlight = new Semaphore(capacity);
+        Progress progress = new Progress();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread[] workerThreads = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            workerThreads[i] = new Thread(() -> work(pending, converted, progress, failure),
+                    "sql-convert-worker-" + i);
+            workerThreads[i].setDaemon(true);
+            workerThreads[i].start();
+        }
+        Thread writer = new Thread(() -> write(converted, inFlight, target, failure), "sql-convert-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        boolean frozenSchema = context.getSchemaMetadata().isFrozen();
+        long sequence = 0;
+        try {
+            long lastSchemaChange = NONE;
+            while (statements.hasNext() && failure.get() == null) {
+                String sql = statements.next();
+                boolean schemaChange = !frozenSchema && RawStatementConverter.mutatesSchema(sql);
+                inFlight.acquire();
+                pending.put(new Task(sequence, sql, schemaChange ? sequence - 1 : lastSchemaChange));
+                if (schemaChange) {
+                    lastSchemaChange = sequence;
+                }
+                sequence++;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, ex);
+        } catch (RuntimeException | Error ex) {
+            failure.compareAndSet(null, ex);
+        } finally {
+            shutdown(pending, converted, workerThreads, writer, failure);
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        if (error != null) {
+            throw new IllegalStateException("并行转换被中断", error);
+        }
+    }
+
+    private void work(BlockingQueue<Task> pending, BlockingQueue<Task> converted,
+                      Progress progress, AtomicReference<Throwable> failure) {
+        try {
+            while (true) {
+                Task task = pending.take();
+                if (task.isPoison()) {
+                    return;
+                }
+                try {
+                    RawStatementConverter.ParsedStatement parsed = converter.prepare(task.sql);
+                    progress.awaitConverted(task.dependsOn);
+                    ConversionResult local = ConversionResult.capturing();
+                    converter.convert(parsed, context, local);
+                    task.output = local;
+                } catch (RuntimeException | Error ex) {
+                    failure.compareAndSet(null, ex);
+                }
+                progress.markConverted(task.sequence);
+                converted.put(task);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(BlockingQueue<Task> converted, Semaphore inFlight,
+                       ConversionResult target, AtomicReference<Throwable> failure) {
+        Map<Long, Task> reorder = new HashMap<>();
+        long next = 0;
+        try {
+            while (true) {
+                Task task = converted.take();
+                if (task.isPoison()) {
+                    return;
+                }
+                reorder.put(task.sequence, task);
+                Task ready;
+                while ((ready = reorder.remove(next)) != null) {
+                    if (failure.get() == null && ready.output != null) {
+                        try {
+                            ready.output.replayInto(target);
+                        } catch (RuntimeException | Error ex) {
+                            failure.compareAndSet(null, ex);
+                        }
+                    }
+                    next++;
+                    inFlight.release();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void shutdown(BlockingQueue<Task> pending, BlockingQueue<Task> converted, Thread[] workerThreads,
+                          Thread writer, AtomicReference<Throwable> failure) {
+        try {
+            for (int i = 0; i < workerThreads.length; i++) {
+                pending.put(Task.POISON);
+            }
+            for (Thread workerThread : workerThreads) {
+                workerThread.join();
+            }
+            converted.put(Task.POISON);
+            writer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, ex);
+            for (Thread workerThread : workerThreads) {
+                workerThread.interrupt();
+            }
+            writer.interrupt();
+        }
+    }
+
+    /**
+     * 记录已连续转换完成的最大序号，供依赖方等待。
+     */
+    private static final class Progress {
+        private final TreeSet<Long> outOfOrder = new TreeSet<>();
+        private long watermark = NONE;
+
+        synchronized void markConverted(long sequence) {
+            outOfOrder.add(sequence);
+            while (!outOfOrder.isEmpty() && outOfOrder.first() == watermark + 1) {
+                watermark = outOfOrder.pollFirst();
+            }
+            notifyAll();
+        }
+
+        synchronized void awaitConverted(long sequence) throws InterruptedException {
+            while (watermark < sequence) {
+                wait();
+            }
+        }
+    }
+
+    private static final class Task {
+        static final Task POISON = new Task(NONE, null, NONE);
+
+        final long sequence;
+        final String sql;
+        final long dependsOn;
+        ConversionResult output;
+
+        Task(long sequence, String sql, long dependsOn) {
+            this.sequence = sequence;
+            this.sql = sql;
+            this.dependsOn = dependsOn;
+        }
+
+        boolean isPoison() {
+            return this == POISON;
+        }
+    }
+}
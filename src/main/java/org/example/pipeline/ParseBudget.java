@@ -0,0 +1,157 @@
+package org.example.pipeline;
+
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.statement.Statement;
+
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 单条语句的解析预算：超过长度上限的语句不交给 JSQLParser，解析耗时超过时限即取消。
+ * <p>
+ * JSQLParser 自带的超时只约束单次尝试，失败后还会以复杂模式重试一次；这里把两次尝试合计在同一时限内。
+ * 开启批量解析时，连续的短 DML 语句拼成一段一次解析，再按顺序对应回各条语句。
+ */
+public final class ParseBudget {
+
+    /**
+     * 与 JSQLParser 默认的 timeOut 特性一致。
+     */
+    static final long DEFAULT_TIMEOUT_MILLIS = 6000;
+
+    static final int DEFAULT_BATCH_MAX_CHARS = 512;
+
+    private static final ParseBudget DEFAULTS = new ParseBudget(DEFAULT_TIMEOUT_MILLIS, 0, 1000);
+    private static final String[] BATCHABLE_KEYWORDS = {"UPDATE", "DELETE", "INSERT", "REPLACE"};
+
+    private final long timeoutMillis;
+    private final int maxChars;
+    private final long slowMillis;
+    private final int batchSize;
+    private final int batchMaxChars;
+
+    /**
+     * @param timeoutMillis 单条语句的解析时限（毫秒）
+     * @param maxChars      交给 JSQLParser 的最大语句长度，0 表示不限
+     * @param slowMillis    解析耗时达到该值即记为慢语句，0 表示不记录
+     */
+    public ParseBudget(long timeoutMillis, int maxChars, long slowMillis) {
+        this(timeoutMillis, maxChars, slowMillis, 1, DEFAULT_BATCH_MAX_CHARS);
+    }
+
+    private ParseBudget(long timeoutMillis, int maxChars, long slowMillis, int batchSize, int batchMaxChars) {
+        this.timeoutMillis = Math.max(timeoutMillis, 1);
+        this.maxChars = Math.max(maxChars, 0);
+        this.slowMillis = Math.max(slowMillis, 0);
+        this.batchSize = Math.max(batchSize, 1);
+        this.batchMaxChars = Math.max(batchMaxChars, 1);
+    }
+
+    /**
+     * @param batchSize     一次解析的最多语句数，1 表示不批量解析
+     * @param batchMaxChars 参与批量解析的单条语句最大长度
+     */
+    public ParseBudget withBatching(int batchSize, int batchMaxChars) {
+        return new ParseBudget(timeoutMillis, maxChars, slowMillis, batchSize, batchMaxChars);
+    }
+
+    public static ParseBudget defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * 从 JVM 系统属性读取：parse.timeout-ms（默认 6000），parse.max-chars（默认 0，不限），
+     * parse.slow-ms（默认 1000），parse.batch-size（默认 1，不批量），parse.batch-max-chars（默认 512）。
+     */
+    public static ParseBudget fromSystemProperties() {
+        return new ParseBudget(Long.getLong("parse.timeout-ms", DEFAULT_TIMEOUT_MILLIS),
+                Integer.getInteger("parse.max-chars", 0),
+                Long.getLong("parse.slow-ms", 1000L),
+                Integer.getInteger("parse.batch-size", 1),
+                Integer.getInteger("parse.batch-max-chars", DEFAULT_BATCH_MAX_CHARS));
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public int getMaxChars() {
+        return maxChars;
+    }
+
+    public long getSlowMillis() {
+        return slowMillis;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public boolean isBatching() {
+        return batchSize > 1;
+    }
+
+    /**
+     * 只有较短的 UPDATE/DELETE/INSERT/REPLACE 参与批量解析，其语法不会跨越语句边界。
+     */
+    public boolean isBatchable(String sql) {
+        if (!isBatching() || sql.length() > batchMaxChars) {
+            return false;
+        }
+        int start = 0;
+        while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+            start++;
+        }
+        for (String keyword : BATCHABLE_KEYWORDS) {
+            int end = start + keyword.length();
+            if (sql.regionMatches(true, start, keyword, 0, keyword.length())
+                    && end < sql.length() && Character.isWhitespace(sql.charAt(end))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 一次解析多条语句并按顺序返回；任一语句失败、超时或条数对不上时返回 null，由调用方逐条解析以隔离错误。
+     */
+    public List<Statement> parseBatch(List<String> sqls) {
+        StringBuilder joined = new StringBuilder();
+        for (String sql : sqls) {
+            joined.append(sql).append(";\n");
+        }
+        try {
+            List<Statement> statements = StatementParser.parseStatements(joined.toString(), timeoutMillis).getStatements();
+            return statements != null && statements.size() == sqls.size() && !statements.contains(null) ? statements : null;
+        } catch (JSQLParserException ex) {
+            return null;
+        }
+    }
+
+    public boolean exceedsSize(String sql) {
+        return maxChars > 0 && sql.length() > maxChars;
+    }
+
+    /**
+     * 按 {@link CCJSqlParserUtil#parse(String)} 的规则解析（先关闭复杂模式，失败且嵌套不深时再开启重试），
+     * 两次尝试共用剩余时限。
+     */
+    public Statement parse(String sql) throws JSQLParserException {
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        try {
+            return StatementParser.parse(sql, false, timeoutMillis);
+        } catch (JSQLParserException ex) {
+            long remaining = (deadline - System.nanoTime()) / 1_000_000L;
+            if (isTimeout(ex) || remaining <= 0
+                    || CCJSqlParserUtil.getNestingDepth(sql) > CCJSqlParserUtil.ALLOWED_NESTING_DEPTH) {
+                throw ex;
+            }
+            return StatementParser.parse(sql, true, remaining);
+        }
+    }
+
+    public static boolean isTimeout(Exception ex) {
+        return ex.getCause() instanceof TimeoutException;
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.pipeline;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 记住 JSQLParser 解析失败过的语句形状，后续同形语句直接走回退处理，省去一次必然失败的解析与异常构造。
+ * <p>
+ * 形状为语句文本把字符串、数字字面量分别替换为占位符、空白折叠后的字符串；标识符与关键字原样保留，
+ * 因为它们（例如未加引号的保留字列名）才决定能否解析。JSQLParser 默认不认反斜杠转义，含反斜杠的字符串按原文计入；
+ * 数字只替换数字与小数点，紧跟的字母（如 1e5、0x1F）原样计入。容量有上限，写满后按 LRU 淘汰。线程安全。
+ */
+public final class ParseFailureShapes {
+
+    static final int DEFAULT_CAPACITY = 10_000;
+
+    private final Map<String, Boolean> shapes;
+    private final int capacity;
+
+    public ParseFailureShapes() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ParseFailureShapes(int capacity) {
+        this.capacity = Math.max(capacity, 0);
+        this.shapes = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > ParseFailureShapes.this.capacity;
+            }
+        };
+    }
+
+    public boolean isKnownFailure(String sql) {
+        synchronized (shapes) {
+            if (shapes.isEmpty()) {
+                return false;
+            }
+        }
+        String shape = shapeOf(sql);
+        synchronized (shapes) {
+            return shapes.get(shape) != null;
+        }
+    }
+
+    public void recordFailure(String sql) {
+        if (capacity == 0) {
+            return;
+        }
+        String shape = shapeOf(sql);
+        synchronized (shapes) {
+            shapes.put(shape, Boolean.TRUE);
+        }
+    }
+
+    public int size() {
+        synchronized (shapes) {
+            return shapes.size();
+        }
+    }
+
+    /**
+     * 逐字符构造形状字符串，字面量折叠为单个占位字符。
+     */
+    static String shapeOf(String sql) {
+        int length = sql.length();
+        StringBuilder shape = new StringBuilder(Math.min(length, 256));
+        int i = 0;
+        boolean pendingSpace = false;
+        while (i < length) {
+            char c = sql.charAt(i);
+            char token;
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                i++;
+                continue;
+            } else if (c == '\'' || c == '"') {
+                int end = skipQuoted(sql, i, c);
+                if (sql.lastIndexOf('\\', end - 1) >= i) {
+                    if (pendingSpace) {
+                        shape.append(' ');
+                        pendingSpace = false;
+                    }
+                    shape.append(sql, i, end - 1);
+                    token = sql.charAt(end - 1);
+                } else {
+                    token = c == '\'' ? '\u0001' : '\u0002';
+                }
+                i = end;
+            } else if (Character.isDigit(c) && (i == 0 || !isWordChar(sql.charAt(i - 1)))) {
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                token = '\u0003';
+            } else {
+                token = Character.toUpperCase(c);
+                i++;
+            }
+            if (pendingSpace) {
+                shape.append(' ');
+                pendingSpace = false;
+            }
+            shape.append(token);
+        }
+        return shape.toString();
+    }
+
+    private static int skipQuoted(String sql, int start, char quote) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.pipeline;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 按表汇总解析超时、超长跳过与解析过慢的语句，便于定位拖慢转换的表。可被多个转换线程同时记录。
+ */
+public final class ParseOutliers {
+
+    /**
+     * 异常语句的类别。
+     */
+    public enum Kind {
+        SLOW("解析较慢"),
+        TIMEOUT("解析超时"),
+        OVERSIZE("超长未解析");
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final String UNKNOWN_TABLE = "(未知表)";
+    private static final Pattern TABLE_NAME = Pattern.compile("(?is)^\\s*(?:INSERT\\s+(?:IGNORE\\s+)?INTO|REPLACE\\s+INTO"
+            + "|UPDATE|DELETE\\s+FROM|CREATE\\s+TABLE(?:\\s+IF\\s+NOT\\s+EXISTS)?|ALTER\\s+TABLE"
+            + "|CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+\\S+\\s+ON)\\s+([\\w.$\"]+)");
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public void record(Kind kind, String sql, long elapsedMillis) {
+        String table = tableOf(sql);
+        Entry entry = entries.computeIfAbsent(table + "|" + kind.name(), key -> new Entry(table, kind));
+        synchronized (entry) {
+            entry.count++;
+            entry.totalMillis += elapsedMillis;
+            entry.maxMillis = Math.max(entry.maxMillis, elapsedMillis);
+            entry.maxChars = Math.max(entry.maxChars, sql.length());
+        }
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public int count(String tableName, Kind kind) {
+        Entry entry = entries.get(TableMetadata.normalizeName(tableName) + "|" + kind.name());
+        if (entry == null) {
+            return 0;
+        }
+        synchronized (entry) {
+            return entry.count;
+        }
+    }
+
+    /**
+     * 每个表与类别一行，按累计耗时从高到低排列。
+     */
+    public List<String> report() {
+        List<Entry> sorted = new ArrayList<>(entries.values());
+        sorted.sort(Comparator.comparingLong((Entry entry) -> entry.totalMillis).reversed()
+                .thenComparing(entry -> entry.table));
+        List<String> lines = new ArrayList<>();
+        for (Entry entry : sorted) {
+            synchronized (entry) {
+                lines.add(String.format(Locale.ROOT, "%s %s: %d 条，累计 %d ms，最长 %d ms，最大 %d 字符",
+                        entry.table, entry.kind.label, entry.count, entry.totalMillis, entry.maxMillis, entry.maxChars));
+            }
+        }
+        return lines;
+    }
+
+    static String tableOf(String sql) {
+        Matcher matcher = TABLE_NAME.matcher(sql);
+        return matcher.find() ? TableMetadata.normalizeName(matcher.group(1)) : UNKNOWN_TABLE;
+    }
+
+    private static final class Entry {
+        private final String table;
+        private final Kind kind;
+        private int count;
+        private long totalMillis;
+        private long maxMillis;
+        private int maxChars;
+
+        Entry(String table, Kind kind) {
+            this.table = table;
+            this.kind = kind;
+        }
+    }
+}
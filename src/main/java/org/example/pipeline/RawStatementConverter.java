@@ -0,0 +1,372 @@
+package org.example.pipeline;
+
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.delete.Delete;
+import net.sf.jsqlparser.statement.update.Update;
+import org.example.pipeline.processor.InsertValues;
+import org.example.pipeline.processor.InsertValuesFastPath;
+import org.example.pipeline.special.SpecialStatementHandler;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 单条原始语句的转换流程：预处理 → JSQLParser 解析 → Processor 转换，解析失败时交给特殊语句处理或原样输出。
+ * 解析阶段不依赖转换上下文，可在多个线程中并行执行；简单的 INSERT ... VALUES 跳过 JSQLParser，直接分词转换。
+ * 已知无法解析的语句（特殊语句候选、此前解析失败过的同形语句）不再尝试解析，直接进入回退处理；
+ * 解析受 {@link ParseBudget} 约束，超时、超长与过慢的语句按表记入 {@link ParseOutliers}。
+ * 重复形状的 UPDATE/DELETE 命中 {@link StatementShapeCache} 时直接代入字面量，不再解析与转换。
+ */
+public class RawStatementConverter {
+
+    private final StatementConversionRegistry registry;
+    private final boolean insertFastPath;
+    private final ParseBudget budget;
+    private final StatementShapeCache shapeCache;
+    private final ParseFailureShapes failedShapes = new ParseFailureShapes();
+    private final ParseOutliers outliers = new ParseOutliers();
+
+    public RawStatementConverter(StatementConversionRegistry registry) {
+        this(registry, true);
+    }
+
+    /**
+     * @param insertFastPath 是否对 INSERT ... VALUES 使用手写分词快速路径，无法识别时仍回退到 JSQLParser
+     */
+    public RawStatementConverter(StatementConversionRegistry registry, boolean insertFastPath) {
+        this(registry, insertFastPath, ParseBudget.defaults());
+    }
+
+    public RawStatementConverter(StatementConversionRegistry registry, boolean insertFastPath, ParseBudget budget) {
+        this(registry, insertFastPath, budget, new StatementShapeCache(StatementShapeCache.DEFAULT_CAPACITY));
+    }
+
+    public RawStatementConverter(StatementConversionRegistry registry, boolean insertFastPath, ParseBudget budget,
+                                 StatementShapeCache shapeCache) {
+        this.registry = registry;
+        this.insertFastPath = insertFastPath;
+        this.budget = budget;
+        this.shapeCache = shapeCache;
+    }
+
+    /**
+     * 预处理并解析，返回 null 表示该语句为空无需输出。
+     */
+    public ParsedStatement prepare(String originalSql) {
+        String rawSql = SqlPreprocessor.sanitize(originalSql);
+        if (rawSql == null || rawSql.trim().isEmpty()) {
+            return null;
+        }
+        StatementShapeCache.Shape shape = shapeOf(rawSql);
+        ParsedStatement routed = route(rawSql, shape);
+        return routed != null ? routed : parseAndRemember(rawSql, shape);
+    }
+
+    /**
+     * 按顺序预处理并解析一批语句；开启批量解析时，其中较短的 DML 合并为一次 JSQLParser 调用，
+     * 合并解析失败则逐条解析，错误仍按语句隔离。
+     */
+    public List<ParsedStatement> prepareAll(List<String> originalSqls) {
+        List<ParsedStatement> prepared = new ArrayList<>(originalSqls.size());
+        List<Integer> batchIndexes = new ArrayList<>();
+        List<String> batch = new ArrayList<>();
+        List<StatementShapeCache.Shape> batchShapes = new ArrayList<>();
+        for (String originalSql : originalSqls) {
+            String rawSql = SqlPreprocessor.sanitize(originalSql);
+            if (rawSql == null || rawSql.trim().isEmpty()) {
+                prepared.add(null);
+                continue;
+            }
+            StatementShapeCache.Shape shape = shapeOf(rawSql);
+            ParsedStatement routed = route(rawSql, shape);
+            if (routed == null && budget.isBatchable(rawSql)) {
+                batchIndexes.add(prepared.size());
+                batch.add(rawSql);
+                batchShapes.add(shape);
+                prepared.add(null);
+            } else {
+                prepared.add(routed != null ? routed : parseAndRemember(rawSql, shape));
+            }
+        }
+        List<Statement> statements = batch.size() > 1 ? budget.parseBatch(batch) : null;
+        for (int i = 0; i < batch.size(); i++) {
+            prepared.set(batchIndexes.get(i), statements != null
+                    ? new ParsedStatement(batch.get(i), statements.get(i), null, null, batchShapes.get(i), null)
+                    : parseAndRemember(batch.get(i), batchShapes.get(i)));
+        }
+        return prepared;
+    }
+
+    /**
+     * 依次转换全部语句；开启批量解析时每次读入 {@link ParseBudget#getBatchSize()} 条一起解析。
+     */
+    public void convertAll(Iterator<String> statements, ConversionContext context, ConversionResult result) {
+        if (!budget.isBatching()) {
+            while (statements.hasNext()) {
+                convert(statements.next(), context, result);
+            }
+            return;
+        }
+        List<String> run = new ArrayList<>(budget.getBatchSize());
+        while (statements.hasNext()) {
+            run.add(statements.next());
+            if (run.size() == budget.getBatchSize() || !statements.hasNext()) {
+                for (ParsedStatement parsed : prepareAll(run)) {
+                    convert(parsed, context, result);
+                }
+                run.clear();
+            }
+        }
+    }
+
+    /**
+     * 无需 JSQLParser 的语句：INSERT 快速路径、已知无法解析而直接交给回退处理，或命中形状缓存；其余返回 null。
+     */
+    private ParsedStatement route(String rawSql, StatementShapeCache.Shape shape) {
+        if (insertFastPath) {
+            InsertValues insertValues = InsertValues.parse(rawSql);
+            if (insertValues != null) {
+                return new ParsedStatement(rawSql, null, null, insertValues);
+            }
+        }
+        if (SpecialStatementHandler.isCandidate(rawSql) || failedShapes.isKnownFailure(rawSql)) {
+            return new ParsedStatement(rawSql, null, null, null);
+        }
+        StatementShapeCache.Template template = shape == null ? null : shapeCache.lookup(shape);
+        if (template != null) {
+            return new ParsedStatement(rawSql, null, null, null, shape, template);
+        }
+        return null;
+    }
+
+    /**
+     * 超过解析长度上限的语句不走缓存，仍按原样输出。
+     */
+    private StatementShapeCache.Shape shapeOf(String rawSql) {
+        return budget.exceedsSize(rawSql) ? null : shapeCache.shapeOf(rawSql);
+    }
+
+    static ParsedStatement parse(String originalSql) {
+        String rawSql = SqlPreprocessor.sanitize(originalSql);
+        if (rawSql == null || rawSql.trim().isEmpty()) {
+            return null;
+        }
+        return parseStatement(rawSql, ParseBudget.defaults(), null);
+    }
+
+    /**
+     * 按预算解析；超时或超长的语句不记入失败形状，同形但字面量较短的语句仍可能解析成功。
+     */
+    private ParsedStatement parseAndRemember(String rawSql) {
+        return parseAndRemember(rawSql, null);
+    }
+
+    private ParsedStatement parseAndRemember(String rawSql, StatementShapeCache.Shape shape) {
+        if (budget.exceedsSize(rawSql)) {
+            outliers.record(ParseOutliers.Kind.OVERSIZE, rawSql, 0);
+            return new ParsedStatement(rawSql, null, new JSQLParserException(
+                    "语句长度 " + rawSql.length() + " 超过解析上限 " + budget.getMaxChars()), null);
+        }
+        long start = System.nanoTime();
+        ParsedStatement parsed = parseStatement(rawSql, budget, shape);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+        Exception error = parsed.getParseError();
+        if (error != null && ParseBudget.isTimeout(error)) {
+            outliers.record(ParseOutliers.Kind.TIMEOUT, rawSql, elapsedMillis);
+            return parsed;
+        }
+        if (budget.getSlowMillis() > 0 && elapsedMillis >= budget.getSlowMillis()) {
+            outliers.record(ParseOutliers.Kind.SLOW, rawSql, elapsedMillis);
+        }
+        if (error != null) {
+            failedShapes.recordFailure(rawSql);
+        }
+        return parsed;
+    }
+
+    private static ParsedStatement parseStatement(String rawSql, ParseBudget budget, StatementShapeCache.Shape shape) {
+        try {
+            return new ParsedStatement(rawSql, budget.parse(rawSql), null, null, shape, null);
+        } catch (Exception ex) {
+            return new ParsedStatement(rawSql, null, ex, null);
+        }
+    }
+
+    public void convert(ParsedStatement parsed, ConversionContext context, ConversionResult result) {
+        if (parsed == null) {
+            return;
+        }
+        if (parsed.getInsertValues() != null) {
+            if (InsertValuesFastPath.tryConvert(parsed.getInsertValues(), context, result)) {
+                return;
+            }
+            parsed = parseAndRemember(parsed.getRawSql());
+        }
+        String rawSql = parsed.getRawSql();
+        if (parsed.template != null) {
+            if (shapeCache.render(parsed.template, parsed.shape, context, result)) {
+                return;
+            }
+            parsed = parseAndRemember(rawSql, parsed.shape);
+        }
+        boolean specialTried = false;
+        if (parsed.isParseSkipped()) {
+            if (SpecialStatementHandler.handle(rawSql, context, result)) {
+                return;
+            }
+            specialTried = true;
+            if (failedShapes.isKnownFailure(rawSql)) {
+                passThrough(rawSql, "同形语句此前解析失败", result);
+                return;
+            }
+            parsed = parseAndRemember(rawSql);
+        }
+        Exception failure = parsed.getParseError();
+        if (failure == null) {
+            try {
+                String tableName = parsed.shape == null ? null : templateTable(parsed.getStatement());
+                if (tableName == null) {
+                    registry.process(parsed.getStatement(), context, result);
+                    return;
+                }
+                ConversionResult captured = ConversionResult.capturing();
+                registry.process(parsed.getStatement(), context, captured);
+                shapeCache.remember(parsed.shape, tableName, captured.capturedStatement(tableName), context);
+                captured.replayInto(result);
+                return;
+            } catch (Exception ex) {
+                failure = ex;
+            }
+        }
+        if (!specialTried && SpecialStatementHandler.handle(rawSql, context, result)) {
+            return;
+        }
+        passThrough(rawSql, failure.getMessage(), result);
+    }
+
+    private static void passThrough(String rawSql, String reason, ConversionResult result) {
+        System.err.println("解析失败，原样输出: " + abbreviate(rawSql) + "，原因: " + reason);
+        result.appendStatement(rawSql);
+    }
+
+    /**
+     * @return 可生成模板的单表 UPDATE/DELETE 所属的表名（需在转换前取得），其他语句为 null
+     */
+    private static String templateTable(Statement statement) {
+        if (statement instanceof Update && ((Update) statement).getTable() != null) {
+            return ((Update) statement).getTable().getFullyQualifiedName();
+        }
+        if (statement instanceof Delete && ((Delete) statement).getTable() != null) {
+            return ((Delete) statement).getTable().getFullyQualifiedName();
+        }
+        return null;
+    }
+
+    ParseFailureShapes getFailedShapes() {
+        return failedShapes;
+    }
+
+    /**
+     * 解析超时、超长与过慢语句的按表汇总。
+     */
+    public ParseOutliers getParseOutliers() {
+        return outliers;
+    }
+
+    /**
+     * UPDATE/DELETE 形状缓存及其命中统计。
+     */
+    public StatementShapeCache getShapeCache() {
+        return shapeCache;
+    }
+
+    public void convert(String originalSql, ConversionContext context, ConversionResult result) {
+        convert(prepare(originalSql), context, result);
+    }
+
+    /**
+     * 是否会向 {@link SchemaMetadata} 注册表结构或新增列，后续 DML 的转换依赖其结果。
+     */
+    public static boolean mutatesSchema(String originalSql) {
+        return startsWithKeywords(originalSql, "CREATE", "TABLE") || startsWithKeywords(originalSql, "ALTER", "TABLE");
+    }
+
+    static boolean startsWithKeywords(String sql, String... keywords) {
+        int cursor = 0;
+        for (String keyword : keywords) {
+            while (cursor < sql.length() && Character.isWhitespace(sql.charAt(cursor))) {
+                cursor++;
+            }
+            if (!sql.regionMatches(true, cursor, keyword, 0, keyword.length())) {
+                return false;
+            }
+            cursor += keyword.length();
+            if (cursor < sql.length() && !Character.isWhitespace(sql.charAt(cursor))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String abbreviate(String sql) {
+        String singleLine = sql.replaceAll("\\s+", " ").trim();
+        if (singleLine.length() <= 120) {
+            return singleLine;
+        }
+        return singleLine.substring(0, 117) + "...";
+    }
+
+    /**
+     * 解析阶段的产物，保留预处理后的原文以便回退输出。
+     */
+    public static final class ParsedStatement {
+        private final String rawSql;
+        private final Statement statement;
+        private final Exception parseError;
+        private final InsertValues insertValues;
+        private final StatementShapeCache.Shape shape;
+        private final StatementShapeCache.Template template;
+
+        ParsedStatement(String rawSql, Statement statement, Exception parseError, InsertValues insertValues) {
+            this(rawSql, statement, parseError, insertValues, null, null);
+        }
+
+        ParsedStatement(String rawSql, Statement statement, Exception parseError, InsertValues insertValues,
+                        StatementShapeCache.Shape shape, StatementShapeCache.Template template) {
+            this.rawSql = rawSql;
+            this.statement = statement;
+            this.parseError = parseError;
+            this.insertValues = insertValues;
+            this.shape = shape;
+            this.template = template;
+        }
+
+        public String getRawSql() {
+            return rawSql;
+        }
+
+        public Statement getStatement() {
+            return statement;
+        }
+
+        public Exception getParseError() {
+            return parseError;
+        }
+
+        /**
+         * @return 是否为已知无法解析而跳过了 JSQLParser，转换时先交给特殊语句处理
+         */
+        public boolean isParseSkipped() {
+            return statement == null && parseError == null && insertValues == null && template == null;
+        }
+
+        /**
+         * 走快速路径时的分词结果，此时尚未构建 AST。
+         */
+        public InsertValues getInsertValues() {
+            return insertValues;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.pipeline;
+
+import java.util.Objects;
+
+/**
+ * 数据行块的格式：所属表、块头、行间分隔符、块尾以及单块的行数/字节数上限（0 表示不限）。
+ * {@link ConversionResult} 将格式相同的连续数据行合并到同一块中，超过上限时另起一块。
+ */
+public final class RowBlock {
+
+    private final String tableName;
+    private final String header;
+    private final String separator;
+    private final String footer;
+    private final int maxRows;
+    private final long maxBytes;
+
+    public RowBlock(String header, String separator, String footer, int maxRows, long maxBytes) {
+        this(null, header, separator, footer, maxRows, maxBytes);
+    }
+
+    public RowBlock(String tableName, String header, String separator, String footer, int maxRows, long maxBytes) {
+        this.tableName = tableName;
+        this.header = Objects.requireNonNull(header);
+        this.separator = Objects.requireNonNull(separator);
+        this.footer = Objects.requireNonNull(footer);
+        this.maxRows = Math.max(maxRows, 0);
+        this.maxBytes = Math.max(maxBytes, 0);
+    }
+
+    /**
+     * 数据行所属的表，按表拆分输出时用于选择文件，可为 null。
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getHeader() {
+        return header;
+    }
+
+    public String getSeparator() {
+        return separator;
+    }
+
+    public String getFooter() {
+        return footer;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * 块中已有 rows 行、共 bytes 字节（含块头与分隔符）时，能否再追加一行 rowBytes 字节的数据。
+     */
+    boolean accepts(int rows, long bytes, long rowBytes) {
+        if (maxRows > 0 && rows >= maxRows) {
+            return false;
+        }
+        return maxBytes == 0 || rows == 0 || bytes + separator.length() + rowBytes + footer.length() <= maxBytes;
+    }
+
+    /**
+     * 按 UTF-8 编码计算的字节数，不做实际编码。
+     */
+    static long utf8Length(CharSequence text, int start, int end) {
+        long length = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800 || Character.isSurrogate(c)) {
+                length += 2;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RowBlock)) {
+            return false;
+        }
+        RowBlock other = (RowBlock) o;
+        return maxRows == other.maxRows
+                && maxBytes == other.maxBytes
+                && Objects.equals(tableName, other.tableName)
+                && header.equals(other.header)
+                && separator.equals(other.separator)
+                && footer.equals(other.footer);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tableName, header, separator, footer, maxRows, maxBytes);
+    }
+}
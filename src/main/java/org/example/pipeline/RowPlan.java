@@ -0,0 +1,68 @@
+package org.example.pipeline;
+
+import java.util.List;
+
+/**
+ * 按 (表, 列清单) 编译的 INSERT 行渲染计划：列元数据解析与布尔/二进制判断只做一次，
+ * 结果缓存在 {@link TableMetadata} 上，逐行渲染时按下标直接取用。
+ */
+public final class RowPlan {
+
+    private final List<String> columnNames;
+    private final boolean[] booleanLike;
+    private final boolean[] binaryLike;
+    private final String[] targetTypes;
+
+    private RowPlan(List<String> columnNames, boolean[] booleanLike, boolean[] binaryLike, String[] targetTypes) {
+        this.columnNames = columnNames;
+        this.booleanLike = booleanLike;
+        this.binaryLike = binaryLike;
+        this.targetTypes = targetTypes;
+    }
+
+    static RowPlan compile(TableMetadata tableMetadata, List<String> columnNames) {
+        List<String> names = List.copyOf(columnNames);
+        boolean[] booleanLike = new boolean[names.size()];
+        boolean[] binaryLike = new boolean[names.size()];
+        String[] targetTypes = new String[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            ColumnMetadata column = tableMetadata == null ? null : tableMetadata.getColumn(names.get(i)).orElse(null);
+            if (column != null) {
+                booleanLike[i] = column.isBooleanLike();
+                binaryLike[i] = column.isBinaryLike();
+                targetTypes[i] = column.getTargetDataType();
+            }
+        }
+        return new RowPlan(names, booleanLike, binaryLike, targetTypes);
+    }
+
+    /**
+     * 目标表没有元数据时使用，所有列按普通值输出。
+     */
+    public static RowPlan withoutMetadata(List<String> columnNames) {
+        return compile(null, columnNames);
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public int width() {
+        return columnNames.size();
+    }
+
+    public boolean isBooleanLike(int index) {
+        return booleanLike[index];
+    }
+
+    public boolean isBinaryLike(int index) {
+        return binaryLike[index];
+    }
+
+    /**
+     * 目标列的 PostgreSQL 基础类型，没有元数据时为 null。
+     */
+    public String getTargetType(int index) {
+        return targetTypes[index];
+    }
+}
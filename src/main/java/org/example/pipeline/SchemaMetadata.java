@@ -1,28 +1,144 @@
 package org.example.pipeline;
 
-import java.util.HashMap;
+import net.sf.jsqlparser.statement.alter.Alter;
+import net.sf.jsqlparser.statement.alter.AlterExpression;
+import net.sf.jsqlparser.statement.alter.AlterOperation;
+import net.sf.jsqlparser.statement.create.table.ColumnDefinition;
+import net.sf.jsqlparser.statement.create.table.ForeignKeyIndex;
+
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 储存转换过程中解析到的表结构信息。
+ * 表元数据不可变，登记时整体替换，查询无锁，可被多个转换线程与多个 {@link ConversionContext} 共享；
+ * 冻结后的快照只读，注册操作被忽略。
  */
 public class SchemaMetadata {
 
-    private final Map<String, TableMetadata> tables = new HashMap<>();
+    private final Map<String, TableMetadata> tables;
+    private final boolean frozen;
+
+    public SchemaMetadata() {
+        this(new ConcurrentHashMap<>(), false);
+    }
+
+    private SchemaMetadata(Map<String, TableMetadata> tables, boolean frozen) {
+        this.tables = tables;
+        this.frozen = frozen;
+    }
 
     public void register(TableMetadata tableMetadata) {
-        if (tableMetadata == null) {
+        if (tableMetadata == null || tableMetadata.getTableName() == null || frozen) {
             return;
         }
         tables.put(normalizeName(tableMetadata.getTableName()), tableMetadata);
     }
 
+    /**
+     * 记录 ALTER TABLE ... ADD COLUMN 新增的列，未登记的表忽略。
+     */
+    public void registerAddedColumns(Alter alter) {
+        if (frozen || alter.getAlterExpressions() == null) {
+            return;
+        }
+        String tableName = normalizeName(alter.getTable().getFullyQualifiedName());
+        if (tableName == null) {
+            return;
+        }
+        for (AlterExpression expression : alter.getAlterExpressions()) {
+            if (expression.getOperation() != AlterOperation.ADD || expression.getColDataTypeList() == null) {
+                continue;
+            }
+            for (AlterExpression.ColumnDataType columnDataType : expression.getColDataTypeList()) {
+                ColumnDefinition definition = new ColumnDefinition();
+                definition.setColumnName(columnDataType.getColumnName());
+                definition.setColDataType(columnDataType.getColDataType());
+                List<String> specs = columnDataType.getColumnSpecs() == null
+                        ? Collections.emptyList() : columnDataType.getColumnSpecs();
+                int after = indexOfIgnoreCase(specs, "AFTER");
+                String afterColumn = after >= 0 && after + 1 < specs.size() ? specs.get(after + 1) : null;
+                boolean first = indexOfIgnoreCase(specs, "FIRST") >= 0;
+                tables.computeIfPresent(tableName, (key, current) -> current.withAlteredColumn(
+                        ColumnMetadata.from(current.getTableName(), definition), afterColumn, first));
+            }
+        }
+    }
+
+    /**
+     * 记录 ALTER TABLE ... ADD [CONSTRAINT ...] FOREIGN KEY 引用的表，未登记的表忽略。
+     */
+    public void registerAddedForeignKeys(Alter alter) {
+        if (frozen || alter.getAlterExpressions() == null) {
+            return;
+        }
+        String tableName = normalizeName(alter.getTable().getFullyQualifiedName());
+        if (tableName == null) {
+            return;
+        }
+        for (AlterExpression expression : alter.getAlterExpressions()) {
+            if (expression.getOperation() != AlterOperation.ADD) {
+                continue;
+            }
+            String referenced = null;
+            if (expression.getIndex() instanceof ForeignKeyIndex && ((ForeignKeyIndex) expression.getIndex()).getTable() != null) {
+                referenced = ((ForeignKeyIndex) expression.getIndex()).getTable().getFullyQualifiedName();
+            } else if (expression.getFkSourceTable() != null) {
+                referenced = expression.getFkSourceSchema() == null ? expression.getFkSourceTable()
+                        : expression.getFkSourceSchema() + "." + expression.getFkSourceTable();
+            }
+            if (referenced != null) {
+                String parent = referenced;
+                tables.computeIfPresent(tableName, (key, current) -> current.withReferencedTable(parent));
+            }
+        }
+    }
+
+    /**
+     * 按外键依赖分批：每批中的表只引用之前批次（或同一环组）中的表，可并行建表与导入。
+     */
+    public List<LoadWave> loadWaves() {
+        return ForeignKeyGraph.from(tables.values()).waves();
+    }
+
     public Optional<TableMetadata> find(String tableName) {
+        if (tableName == null) {
+            return Optional.empty();
+        }
         return Optional.ofNullable(tables.get(normalizeName(tableName)));
     }
 
+    public int size() {
+        return tables.size();
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * 生成当前表结构的只读快照。
+     */
+    public SchemaMetadata freeze() {
+        if (frozen) {
+            return this;
+        }
+        return new SchemaMetadata(Map.copyOf(tables), true);
+    }
+
+    private static int indexOfIgnoreCase(List<String> tokens, String keyword) {
+        for (int i = 0; i < tokens.size(); i++) {
+            if (keyword.equalsIgnoreCase(tokens.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     private String normalizeName(String tableName) {
         if (tableName == null) {
             return null;
@@ -0,0 +1,39 @@
+package org.example.pipeline;
+
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.alter.Alter;
+import net.sf.jsqlparser.statement.create.table.CreateTable;
+
+import java.util.Iterator;
+
+/**
+ * 表结构预扫描：只解析 CREATE TABLE / ALTER TABLE，构建冻结的 {@link SchemaMetadata} 快照。
+ * 第二遍转换基于该快照进行，DML 之间无需等待建表语句。
+ */
+public final class SchemaPrescanner {
+
+    private SchemaPrescanner() {
+    }
+
+    public static SchemaMetadata scan(Iterator<String> statements) {
+        SchemaMetadata schemaMetadata = new SchemaMetadata();
+        while (statements.hasNext()) {
+            String sql = statements.next();
+            if (!RawStatementConverter.mutatesSchema(sql)) {
+                continue;
+            }
+            RawStatementConverter.ParsedStatement parsed = RawStatementConverter.parse(sql);
+            if (parsed == null || parsed.getStatement() == null) {
+                continue;
+            }
+            Statement statement = parsed.getStatement();
+            if (statement instanceof CreateTable) {
+                schemaMetadata.register(TableMetadata.from((CreateTable) statement));
+            } else if (statement instanceof Alter) {
+                schemaMetadata.registerAddedColumns((Alter) statement);
+                schemaMetadata.registerAddedForeignKeys((Alter) statement);
+            }
+        }
+        return schemaMetadata.freeze();
+    }
+}
@@ -1,34 +1,123 @@
 package org.example.pipeline;
 
 /**
- * 针对 JSQLParser 无法识别的 MySQL 扩展语法做预处理，确保后续解析顺利。
+ * 针对 JSQLParser 无法识别的 MySQL 扩展语法做预处理，确保后续解析顺利：
+ * 去掉字面量外的标识符反引号，以及字符串/十六进制字面量前的 _binary、_utf8mb4 字符集前缀，字面量内容保持不变。
+ * <p>
+ * 经 {@link org.example.SqlStatementScanner} 切分的语句已在切分时完成同样的处理，{@link #sanitize(String)}
+ * 对其只做一次快速检查即原样返回。
  */
 public final class SqlPreprocessor {
 
+    private static final String[] INTRODUCERS = {"_binary", "_utf8mb4"};
+
     private SqlPreprocessor() {
     }
 
     public static String sanitize(String sql) {
-        if (sql == null || sql.isBlank()) {
+        if (sql == null || sql.isBlank() || !mayNeedRewrite(sql)) {
             return sql;
         }
-        String sanitized = removeBinaryLiteralPrefix(sql);
-        sanitized = removeUtf8LiteralPrefix(sanitized);
-        return sanitized;
+        StringBuilder sanitized = new StringBuilder(sql.length());
+        boolean inSingleQuote = false;
+        boolean inDoubleQuote = false;
+        boolean inBacktick = false;
+        int backslashRun = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            boolean escaped = backslashRun % 2 == 1;
+            if (c == '`' && !inSingleQuote && !inDoubleQuote) {
+                inBacktick = !inBacktick;
+                backslashRun = 0;
+                continue;
+            }
+            if (c == '\'' && !inDoubleQuote && !inBacktick && !escaped) {
+                if (!inSingleQuote) {
+                    dropIntroducer(sanitized, c);
+                }
+                inSingleQuote = !inSingleQuote;
+            } else if (c == '"' && !inSingleQuote && !inBacktick && !escaped) {
+                if (!inDoubleQuote) {
+                    dropIntroducer(sanitized, c);
+                }
+                inDoubleQuote = !inDoubleQuote;
+            } else if ((c == 'x' || c == 'X') && !inSingleQuote && !inDoubleQuote && !inBacktick) {
+                dropIntroducer(sanitized, c);
+            }
+            backslashRun = c == '\\' ? backslashRun + 1 : 0;
+            sanitized.append(c);
+        }
+        return sanitized.toString();
+    }
+
+    /**
+     * 字面量外即将追加 next（引号或 0x 的 x）时，删除 text 末尾紧挨着的字符集前缀及其后的空白。
+     */
+    public static void dropIntroducer(StringBuilder text, char next) {
+        int end = text.length();
+        if (next == 'x' || next == 'X') {
+            if (end == 0 || text.charAt(end - 1) != '0' || end >= 2 && isIdentifierChar(text.charAt(end - 2))) {
+                return;
+            }
+            end--;
+        } else if (next == '\'' && end > 0 && (text.charAt(end - 1) == 'x' || text.charAt(end - 1) == 'X')) {
+            int start = introducerStart(text, end - 1);
+            if (start >= 0) {
+                text.delete(start, end - 1);
+                return;
+            }
+        }
+        int start = introducerStart(text, end);
+        if (start >= 0) {
+            text.delete(start, end);
+        }
     }
 
-    private static String removeBinaryLiteralPrefix(String sql) {
-        String result = sql;
-        result = result.replaceAll("(?i)_binary\\s*(?=')", "");
-        result = result.replaceAll("(?i)_binary\\s*(?=x')", "");
-        result = result.replaceAll("(?i)_binary\\s*(?=0x)", "");
-        return result;
+    /**
+     * @return text[0, end) 以字符集前缀（可带尾随空白）结尾时前缀的起点，否则 -1
+     */
+    static int introducerStart(CharSequence text, int end) {
+        int cursor = end;
+        while (cursor > 0 && Character.isWhitespace(text.charAt(cursor - 1))) {
+            cursor--;
+        }
+        for (String introducer : INTRODUCERS) {
+            int start = cursor - introducer.length();
+            if (start >= 0 && regionMatches(text, start, introducer)
+                    && (start == 0 || !isIdentifierChar(text.charAt(start - 1)))) {
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 是否可能含有需要改写的内容；未命中时无需逐字符处理。
+     */
+    static boolean mayNeedRewrite(String sql) {
+        if (sql.indexOf('`') >= 0) {
+            return true;
+        }
+        for (int i = sql.indexOf('_'); i >= 0; i = sql.indexOf('_', i + 1)) {
+            for (String introducer : INTRODUCERS) {
+                if (sql.regionMatches(true, i, introducer, 0, introducer.length())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionMatches(CharSequence text, int start, String keyword) {
+        for (int i = 0; i < keyword.length(); i++) {
+            if (Character.toLowerCase(text.charAt(start + i)) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    private static String removeUtf8LiteralPrefix(String sql) {
-        String result = sql;
-        result = result.replaceAll("(?i)_utf8mb4\\s*(?=')", "");
-        result = result.replaceAll("(?i)_utf8mb4\\s*(?=\"\")", "");
-        return result;
+    private static boolean isIdentifierChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
     }
 }
@@ -44,7 +44,7 @@ public class StatementConversionRegistry {
                 return;
             }
         }
-        System.out.println("暂未支持的语句，原样输出: " + statement);
+        System.err.println("暂未支持的语句，原样输出: " + statement);
         result.appendStatement(statement.toString());
     }
 }
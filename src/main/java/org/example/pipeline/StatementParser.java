@@ -0,0 +1,102 @@
+package org.example.pipeline;
+
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParser;
+import net.sf.jsqlparser.parser.StringProvider;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.Statements;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 复用 JSQLParser 解析器：每个线程持有一个 {@link CCJSqlParser}，每条语句 ReInit 后直接在当前线程解析，
+ * 省去 {@code CCJSqlParserUtil.parse} 每次新建解析器、词法器、字符流以及超时线程的开销。
+ * 超时由共享的看门狗线程置位解析器的中断标志实现，与 JSQLParser 自身的超时机制相同。
+ */
+final class StatementParser {
+
+    private static final ThreadLocal<CCJSqlParser> PARSERS =
+            ThreadLocal.withInitial(() -> new CCJSqlParser(new StringProvider("")));
+    private static final ScheduledThreadPoolExecutor WATCHDOG = createWatchdog();
+
+    private StatementParser() {
+    }
+
+    static Statement parse(String sql, boolean allowComplexParsing, long timeoutMillis) throws JSQLParserException {
+        return run(sql, allowComplexParsing, timeoutMillis, CCJSqlParser::Statement);
+    }
+
+    /**
+     * 一次解析以分号分隔的多条语句，不开启复杂模式。
+     */
+    static Statements parseStatements(String sql, long timeoutMillis) throws JSQLParserException {
+        return run(sql, false, timeoutMillis, CCJSqlParser::Statements);
+    }
+
+    private static <T> T run(String sql, boolean allowComplexParsing, long timeoutMillis, ParseCall<T> call)
+            throws JSQLParserException {
+        CCJSqlParser parser = PARSERS.get();
+        parser.ReInit(new StringProvider(sql));
+        parser.withAllowComplexParsing(allowComplexParsing);
+        parser.interrupted = false;
+        Deadline deadline = new Deadline(parser);
+        ScheduledFuture<?> alarm = WATCHDOG.schedule(deadline, timeoutMillis, TimeUnit.MILLISECONDS);
+        try {
+            return call.parse(parser);
+        } catch (Exception ex) {
+            if (deadline.expired()) {
+                throw new JSQLParserException("Time out occurred.", new TimeoutException());
+            }
+            throw ex instanceof JSQLParserException ? (JSQLParserException) ex : new JSQLParserException(ex);
+        } finally {
+            deadline.finish();
+            alarm.cancel(false);
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor createWatchdog() {
+        ScheduledThreadPoolExecutor watchdog = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "sql-parse-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchdog.setRemoveOnCancelPolicy(true);
+        return watchdog;
+    }
+
+    private interface ParseCall<T> {
+        T parse(CCJSqlParser parser) throws Exception;
+    }
+
+    /**
+     * 单次解析的时限；解析结束后不再置位，避免误中断同一线程的下一次解析。
+     */
+    private static final class Deadline implements Runnable {
+        private final CCJSqlParser parser;
+        private boolean finished;
+        private boolean expired;
+
+        Deadline(CCJSqlParser parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (!finished) {
+                expired = true;
+                parser.interrupted = true;
+            }
+        }
+
+        synchronized void finish() {
+            finished = true;
+        }
+
+        synchronized boolean expired() {
+            return expired;
+        }
+    }
+}
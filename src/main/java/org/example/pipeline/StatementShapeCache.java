@@ -0,0 +1,462 @@
+package org.example.pipeline;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * UPDATE/DELETE 语句的形状缓存：同一形状（字面量替换为占位符、空白折叠后的语句文本）只经 JSQLParser 与 Processor
+ * 转换一次，得到的输出按字面量切成模板，后续同形语句直接代入新的字面量，跳过解析与转换。
+ * <p>
+ * 字面量在输出中的去向按首次转换的结果逐个确定：原样保留，或因布尔列被改写为方言的布尔值；位置尚不确定的字面量
+ * 遇到可转为布尔值的新值时回退到完整转换。模板记录生成时所属表的 {@link TableMetadata}（表结构变更会整体替换该对象）
+ * 与方言的布尔写法，二者不一致时同样回退。含反斜杠的字符串、超过 long 范围的数字等会影响解析结果的字面量不走缓存。
+ * <p>
+ * 容量有上限，按最近最少使用淘汰；线程安全。
+ */
+public final class StatementShapeCache {
+
+    static final int DEFAULT_CAPACITY = 4096;
+
+    private static final char STRING_SLOT = '\u0001';
+    private static final char NUMBER_SLOT = '\u0003';
+    private static final int MAX_NUMBER_LENGTH = 18;
+
+    private final int capacity;
+    private final Map<String, Template> templates;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private long evictions;
+
+    /**
+     * @param capacity 最多缓存的模板数，0 表示关闭缓存
+     */
+    public StatementShapeCache(int capacity) {
+        this.capacity = Math.max(capacity, 0);
+        this.templates = new LinkedHashMap<String, Template>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Template> eldest) {
+                if (size() > StatementShapeCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 从 JVM 系统属性 statement-cache.size 读取容量（默认 4096，0 表示关闭）。
+     */
+    public static StatementShapeCache fromSystemProperties() {
+        return new StatementShapeCache(Integer.getInteger("statement-cache.size", DEFAULT_CAPACITY));
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /**
+     * @return UPDATE/DELETE 语句的形状；缓存关闭、其他语句或含不宜缓存的字面量时为 null
+     */
+    Shape shapeOf(String rawSql) {
+        if (!isEnabled() || !(RawStatementConverter.startsWithKeywords(rawSql, "UPDATE")
+                || RawStatementConverter.startsWithKeywords(rawSql, "DELETE"))) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(rawSql.length());
+        List<String> literals = new ArrayList<>();
+        if (!scan(rawSql, key, literals)) {
+            return null;
+        }
+        for (String literal : literals) {
+            if (literal.charAt(0) == '\'' ? !isCacheableString(literal) : literal.length() > MAX_NUMBER_LENGTH) {
+                return null;
+            }
+        }
+        return new Shape(key.toString(), literals.toArray(new String[0]));
+    }
+
+    /**
+     * 查找同形语句的模板，未命中返回 null。
+     */
+    Template lookup(Shape shape) {
+        Template template;
+        synchronized (templates) {
+            template = templates.get(shape.key);
+        }
+        if (template == null) {
+            misses.increment();
+        }
+        return template;
+    }
+
+    /**
+     * 代入字面量输出转换结果；模板不适用于当前上下文或新值时返回 false，由调用方完整转换。
+     */
+    boolean render(Template template, Shape shape, ConversionContext context, ConversionResult result) {
+        String trueText = context.getTargetDialect().formatBoolean(true);
+        String falseText = context.getTargetDialect().formatBoolean(false);
+        if (!template.appliesTo(context, trueText, falseText)) {
+            fallbacks.increment();
+            return false;
+        }
+        StringBuilder sql = new StringBuilder(template.length + shape.length());
+        for (int i = 0; i < shape.literals.length; i++) {
+            sql.append(template.segments[i]);
+            String literal = shape.literals[i];
+            Boolean value = booleanValue(literal);
+            if (template.kinds[i] == SlotKind.BOOLEAN && value != null) {
+                sql.append(value ? trueText : falseText);
+            } else if (template.kinds[i] == SlotKind.OPAQUE && value != null) {
+                fallbacks.increment();
+                return false;
+            } else {
+                sql.append(literal);
+            }
+        }
+        sql.append(template.segments[shape.literals.length]);
+        result.appendRaw(OutputSection.DATA, template.tableName, sql.toString());
+        hits.increment();
+        return true;
+    }
+
+    /**
+     * 由一次完整转换的输出生成模板；输出中的字面量无法与输入逐个对应时不缓存。
+     */
+    void remember(Shape shape, String tableName, String output, ConversionContext context) {
+        String trueText = context.getTargetDialect().formatBoolean(true);
+        String falseText = context.getTargetDialect().formatBoolean(false);
+        if (output == null || containsWord(shape.key, trueText) || containsWord(shape.key, falseText)) {
+            return;
+        }
+        List<String> tokens = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        if (!scanOutput(output, tokens, starts, ends, trueText, falseText) || tokens.size() != shape.literals.length) {
+            return;
+        }
+        boolean normalizeBoolean = context.getDialectProfile().supportsBooleanLiteralNormalization();
+        String[] segments = new String[tokens.size() + 1];
+        SlotKind[] kinds = new SlotKind[tokens.size()];
+        int cursor = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            String literal = shape.literals[i];
+            String token = tokens.get(i);
+            Boolean value = booleanValue(literal);
+            if (token.equals(literal)) {
+                kinds[i] = !normalizeBoolean || value != null ? SlotKind.VERBATIM : SlotKind.OPAQUE;
+            } else if (value != null && token.equals(value ? trueText : falseText)) {
+                kinds[i] = SlotKind.BOOLEAN;
+            } else {
+                return;
+            }
+            segments[i] = output.substring(cursor, starts.get(i));
+            cursor = ends.get(i);
+        }
+        segments[tokens.size()] = output.substring(cursor);
+        Template template = new Template(segments, kinds, tableName,
+                context.getSchemaMetadata().find(tableName).orElse(null), normalizeBoolean, trueText, falseText);
+        synchronized (templates) {
+            templates.put(shape.key, template);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return 找到模板但不适用、改为完整转换的次数
+     */
+    public long getFallbacks() {
+        return fallbacks.sum();
+    }
+
+    public long getLookups() {
+        return getHits() + getMisses() + getFallbacks();
+    }
+
+    public double hitRate() {
+        long lookups = getLookups();
+        return lookups == 0 ? 0 : (double) getHits() / lookups;
+    }
+
+    public int size() {
+        synchronized (templates) {
+            return templates.size();
+        }
+    }
+
+    public long getEvictions() {
+        synchronized (templates) {
+            return evictions;
+        }
+    }
+
+    public String report() {
+        return String.format(Locale.ROOT, "查找 %d 次，命中 %d 次（%.1f%%），回退 %d 次，模板 %d 个，淘汰 %d 个",
+                getLookups(), getHits(), hitRate() * 100, getFallbacks(), size(), getEvictions());
+    }
+
+    /**
+     * 逐字符扫描：字符串与数字字面量写入 literals，其余文本（空白折叠）连同占位符写入 key。
+     * 数字只认独立的 \d+(\.\d+)?，紧跟字母（如 1e5、0x1F）时整体视为普通文本；双引号内容原样保留。
+     */
+    private static boolean scan(String sql, StringBuilder key, List<String> literals) {
+        int length = sql.length();
+        int i = 0;
+        boolean pendingSpace = false;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = key.length() > 0;
+                i++;
+                continue;
+            }
+            if (pendingSpace) {
+                key.append(' ');
+                pendingSpace = false;
+            }
+            int end;
+            if (c == '\'' || c == '"') {
+                end = skipQuoted(sql, i, c);
+                if (end < 0) {
+                    return false;
+                }
+                if (c == '"') {
+                    key.append(sql, i, end);
+                } else {
+                    literals.add(sql.substring(i, end));
+                    key.append(STRING_SLOT);
+                }
+            } else if (Character.isDigit(c) && (i == 0 || !isWordChar(sql.charAt(i - 1)) && sql.charAt(i - 1) != '.')) {
+                end = numberEnd(sql, i);
+                if (end < length && (isWordChar(sql.charAt(end)) || sql.charAt(end) == '.')) {
+                    while (end < length && (isWordChar(sql.charAt(end)) || sql.charAt(end) == '.')) {
+                        end++;
+                    }
+                    key.append(sql, i, end);
+                } else {
+                    literals.add(sql.substring(i, end));
+                    key.append(NUMBER_SLOT);
+                }
+            } else {
+                key.append(c);
+                end = i + 1;
+            }
+            i = end;
+        }
+        return true;
+    }
+
+    /**
+     * 按与 {@link #scan} 相同的规则找出输出中的字面量及方言布尔值的位置。
+     */
+    private static boolean scanOutput(String output, List<String> tokens, List<Integer> starts, List<Integer> ends,
+                                      String trueText, String falseText) {
+        int length = output.length();
+        int i = 0;
+        while (i < length) {
+            char c = output.charAt(i);
+            int end = i + 1;
+            if (c == '\'' || c == '"') {
+                end = skipQuoted(output, i, c);
+                if (end < 0) {
+                    return false;
+                }
+                if (c == '\'') {
+                    addToken(output, i, end, tokens, starts, ends);
+                }
+            } else if (Character.isDigit(c) && (i == 0 || !isWordChar(output.charAt(i - 1)) && output.charAt(i - 1) != '.')) {
+                end = numberEnd(output, i);
+                if (end < length && (isWordChar(output.charAt(end)) || output.charAt(end) == '.')) {
+                    while (end < length && (isWordChar(output.charAt(end)) || output.charAt(end) == '.')) {
+                        end++;
+                    }
+                } else {
+                    addToken(output, i, end, tokens, starts, ends);
+                }
+            } else if (isWordChar(c)) {
+                while (end < length && isWordChar(output.charAt(end))) {
+                    end++;
+                }
+                String word = output.substring(i, end);
+                if (word.equals(trueText) || word.equals(falseText)) {
+                    addToken(output, i, end, tokens, starts, ends);
+                }
+            }
+            i = end;
+        }
+        return true;
+    }
+
+    private static void addToken(String text, int start, int end, List<String> tokens, List<Integer> starts,
+                                 List<Integer> ends) {
+        tokens.add(text.substring(start, end));
+        starts.add(start);
+        ends.add(end);
+    }
+
+    /**
+     * @return 引号闭合后的位置；未闭合时返回 -1
+     */
+    private static int skipQuoted(String sql, int start, char quote) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static int numberEnd(String sql, int start) {
+        int i = start;
+        while (i < sql.length() && Character.isDigit(sql.charAt(i))) {
+            i++;
+        }
+        if (i + 1 < sql.length() && sql.charAt(i) == '.' && Character.isDigit(sql.charAt(i + 1))) {
+            i++;
+            while (i < sql.length() && Character.isDigit(sql.charAt(i))) {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * JSQLParser 默认不认反斜杠转义，UpdateStatementProcessor 还会改写 _utf8mb4' 与布尔占位串，
+     * 含这些内容的字符串可能改变转换结果，不走缓存。
+     */
+    private static boolean isCacheableString(String literal) {
+        if (literal.indexOf('\\') >= 0) {
+            return false;
+        }
+        String lower = literal.toLowerCase(Locale.ROOT);
+        return !lower.contains("_utf8mb4'") && !lower.contains("__pg_bool_");
+    }
+
+    /**
+     * 与 UpdateStatementProcessor 对布尔列取值的判断一致：数字非 0 即真，字符串只认 1/0/true/false。
+     */
+    private static Boolean booleanValue(String literal) {
+        if (literal.charAt(0) != '\'') {
+            return new BigDecimal(literal).signum() != 0;
+        }
+        String value = literal.substring(1, literal.length() - 1).trim().toLowerCase(Locale.ROOT);
+        if ("1".equals(value) || "true".equals(value)) {
+            return true;
+        }
+        if ("0".equals(value) || "false".equals(value)) {
+            return false;
+        }
+        return null;
+    }
+
+    private static boolean containsWord(String text, String word) {
+        for (int i = indexOfIgnoreCase(text, word, 0); i >= 0; i = indexOfIgnoreCase(text, word, i + 1)) {
+            int end = i + word.length();
+            if ((i == 0 || !isWordChar(text.charAt(i - 1))) && (end == text.length() || !isWordChar(text.charAt(end)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int indexOfIgnoreCase(String text, String word, int from) {
+        for (int i = from; i + word.length() <= text.length(); i++) {
+            if (text.regionMatches(true, i, word, 0, word.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    /**
+     * 字面量在输出中的去向：原样保留；布尔列上按值改写为方言布尔值；尚不确定（首次转换时的值不是布尔写法）。
+     */
+    private enum SlotKind {
+        VERBATIM, BOOLEAN, OPAQUE
+    }
+
+    /**
+     * 一条语句的形状与按出现顺序排列的字面量原文。
+     */
+    static final class Shape {
+        private final String key;
+        private final String[] literals;
+
+        private Shape(String key, String[] literals) {
+            this.key = key;
+            this.literals = literals;
+        }
+
+        private int length() {
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            return length;
+        }
+    }
+
+    /**
+     * 按字面量切开的转换输出，segments 比字面量多一段。
+     */
+    static final class Template {
+        private final String[] segments;
+        private final SlotKind[] kinds;
+        private final String tableName;
+        private final TableMetadata tableMetadata;
+        private final boolean normalizeBoolean;
+        private final String trueText;
+        private final String falseText;
+        private final int length;
+
+        private Template(String[] segments, SlotKind[] kinds, String tableName, TableMetadata tableMetadata,
+                         boolean normalizeBoolean, String trueText, String falseText) {
+            this.segments = segments;
+            this.kinds = kinds;
+            this.tableName = tableName;
+            this.tableMetadata = tableMetadata;
+            this.normalizeBoolean = normalizeBoolean;
+            this.trueText = trueText;
+            this.falseText = falseText;
+            int total = 0;
+            for (String segment : segments) {
+                total += segment.length();
+            }
+            this.length = total;
+        }
+
+        private boolean appliesTo(ConversionContext context, String trueText, String falseText) {
+            return context.getSchemaMetadata().find(tableName).orElse(null) == tableMetadata
+                    && context.getDialectProfile().supportsBooleanLiteralNormalization() == normalizeBoolean
+                    && this.trueText.equals(trueText) && this.falseText.equals(falseText);
+        }
+    }
+}
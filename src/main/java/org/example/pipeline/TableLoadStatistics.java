@@ -0,0 +1,34 @@
+package org.example.pipeline;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按表累计转换出的数据行数与数据量（文本长度，近似字节数），供索引构建等导入后步骤估算耗时。
+ * 可被多个转换线程同时记录。
+ */
+public final class TableLoadStatistics {
+
+    private final Map<String, LongAdder[]> tables = new ConcurrentHashMap<>();
+
+    public void record(String tableName, long rows, long bytes) {
+        if (tableName == null) {
+            return;
+        }
+        LongAdder[] counters = tables.computeIfAbsent(TableMetadata.normalizeName(tableName),
+                key -> new LongAdder[]{new LongAdder(), new LongAdder()});
+        counters[0].add(rows);
+        counters[1].add(bytes);
+    }
+
+    public long getRows(String tableName) {
+        LongAdder[] counters = tableName == null ? null : tables.get(TableMetadata.normalizeName(tableName));
+        return counters == null ? 0 : counters[0].sum();
+    }
+
+    public long getBytes(String tableName) {
+        LongAdder[] counters = tableName == null ? null : tables.get(TableMetadata.normalizeName(tableName));
+        return counters == null ? 0 : counters[1].sum();
+    }
+}
@@ -2,44 +2,126 @@ package org.example.pipeline;
 
 import net.sf.jsqlparser.statement.create.table.ColumnDefinition;
 import net.sf.jsqlparser.statement.create.table.CreateTable;
+import net.sf.jsqlparser.statement.create.table.ForeignKeyIndex;
+import net.sf.jsqlparser.statement.create.table.Index;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * 记录单张表的列元数据（保持顺序），为 INSERT 转换提供支撑。
+ * 记录单张表的列元数据（保持顺序）及外键引用的表，为 INSERT 转换与导入顺序规划提供支撑。
+ * 实例不可变，新增列时返回新实例，可在多个线程间直接共享；行渲染计划按需编译后缓存在实例上。
  */
-public class TableMetadata {
+public final class TableMetadata {
 
     private final String tableName;
-    private final Map<String, ColumnMetadata> columnsByName = new LinkedHashMap<>();
+    private final Map<String, ColumnMetadata> columnsByName;
+    private final List<ColumnMetadata> columnsInOrder;
+    private final Set<String> alteredColumns;
+    private final Set<String> referencedTables;
+    private final Map<List<String>, RowPlan> rowPlans = new ConcurrentHashMap<>();
+    private final Map<Integer, RowPlan> positionalRowPlans = new ConcurrentHashMap<>();
 
     public TableMetadata(String tableName) {
-        this.tableName = normalizeName(tableName);
+        this(normalizeName(tableName), new LinkedHashMap<>(), new HashSet<>(), Set.of());
+    }
+
+    private TableMetadata(String tableName, LinkedHashMap<String, ColumnMetadata> columnsByName,
+                          Set<String> alteredColumns, Set<String> referencedTables) {
+        this.tableName = tableName;
+        this.columnsByName = Collections.unmodifiableMap(columnsByName);
+        this.columnsInOrder = Collections.unmodifiableList(new ArrayList<>(columnsByName.values()));
+        this.alteredColumns = Collections.unmodifiableSet(alteredColumns);
+        this.referencedTables = Collections.unmodifiableSet(referencedTables);
     }
 
     public static TableMetadata from(CreateTable createTable) {
-        TableMetadata metadata = new TableMetadata(createTable.getTable().getFullyQualifiedName());
+        String tableName = normalizeName(createTable.getTable().getFullyQualifiedName());
+        LinkedHashMap<String, ColumnMetadata> columns = new LinkedHashMap<>();
         if (createTable.getColumnDefinitions() != null) {
             for (ColumnDefinition definition : createTable.getColumnDefinitions()) {
-                metadata.addColumn(ColumnMetadata.from(metadata.getTableName(), definition));
+                ColumnMetadata column = ColumnMetadata.from(tableName, definition);
+                columns.put(normalizeName(column.getColumnName()), column);
+            }
+        }
+        Set<String> referenced = new LinkedHashSet<>();
+        if (createTable.getIndexes() != null) {
+            for (Index index : createTable.getIndexes()) {
+                if (index instanceof ForeignKeyIndex && ((ForeignKeyIndex) index).getTable() != null) {
+                    referenced.add(normalizeName(((ForeignKeyIndex) index).getTable().getFullyQualifiedName()));
+                }
             }
         }
-        return metadata;
+        return new TableMetadata(tableName, columns, new HashSet<>(), referenced);
+    }
+
+    public TableMetadata withColumn(ColumnMetadata columnMetadata) {
+        LinkedHashMap<String, ColumnMetadata> columns = new LinkedHashMap<>(columnsByName);
+        columns.put(normalizeName(columnMetadata.getColumnName()), columnMetadata);
+        return new TableMetadata(tableName, columns, new HashSet<>(alteredColumns), referencedTables);
+    }
+
+    /**
+     * 返回追加了外键引用表的新实例。
+     */
+    public TableMetadata withReferencedTable(String referencedTable) {
+        Set<String> referenced = new LinkedHashSet<>(referencedTables);
+        if (!referenced.add(normalizeName(referencedTable))) {
+            return this;
+        }
+        return new TableMetadata(tableName, new LinkedHashMap<>(columnsByName), new HashSet<>(alteredColumns),
+                referenced);
     }
 
-    public void addColumn(ColumnMetadata columnMetadata) {
-        columnsByName.put(normalizeName(columnMetadata.getColumnName()), columnMetadata);
+    /**
+     * 返回追加了 ALTER TABLE 新增列的新实例，afterColumn 为 null 时追加到末尾；first 为 true 时放在首列。
+     */
+    public TableMetadata withAlteredColumn(ColumnMetadata columnMetadata, String afterColumn, boolean first) {
+        String key = normalizeName(columnMetadata.getColumnName());
+        Set<String> altered = new HashSet<>(alteredColumns);
+        altered.add(key);
+        String anchor = normalizeName(afterColumn);
+        LinkedHashMap<String, ColumnMetadata> reordered = new LinkedHashMap<>();
+        if (!first && (anchor == null || !columnsByName.containsKey(anchor))) {
+            reordered.putAll(columnsByName);
+            reordered.put(key, columnMetadata);
+            return new TableMetadata(tableName, reordered, altered, referencedTables);
+        }
+        if (first) {
+            reordered.put(key, columnMetadata);
+        }
+        for (Map.Entry<String, ColumnMetadata> entry : columnsByName.entrySet()) {
+            if (entry.getKey().equals(key)) {
+                continue;
+            }
+            reordered.put(entry.getKey(), entry.getValue());
+            if (!first && entry.getKey().equals(anchor)) {
+                reordered.put(key, columnMetadata);
+            }
+        }
+        return new TableMetadata(tableName, reordered, altered, referencedTables);
     }
 
     public String getTableName() {
         return tableName;
     }
 
+    /**
+     * 外键引用的表（已规范化表名，可能包含自身）。
+     */
+    public Set<String> getReferencedTables() {
+        return referencedTables;
+    }
+
     public Optional<ColumnMetadata> getColumn(String columnName) {
         if (columnName == null) {
             return Optional.empty();
@@ -48,7 +130,48 @@ public class TableMetadata {
     }
 
     public List<ColumnMetadata> getColumnsInDeclarationOrder() {
-        return new ArrayList<>(columnsByName.values());
+        return columnsInOrder;
+    }
+
+    /**
+     * 无列清单的 INSERT 按值个数推断列：与全部列数相同时取全部列，
+     * 与建表时列数相同时忽略 ALTER 新增的列（预扫描快照包含之后才新增的列）。
+     */
+    public List<ColumnMetadata> getColumnsForWidth(int width) {
+        if (columnsInOrder.size() == width || alteredColumns.isEmpty()) {
+            return columnsInOrder;
+        }
+        List<ColumnMetadata> declared = new ArrayList<>();
+        for (Map.Entry<String, ColumnMetadata> entry : columnsByName.entrySet()) {
+            if (!alteredColumns.contains(entry.getKey())) {
+                declared.add(entry.getValue());
+            }
+        }
+        return declared.size() == width ? declared : columnsInOrder;
+    }
+
+    /**
+     * 显式列清单对应的行渲染计划，按列清单缓存。
+     */
+    public RowPlan rowPlan(List<String> columnNames) {
+        RowPlan plan = rowPlans.get(columnNames);
+        if (plan == null) {
+            plan = rowPlans.computeIfAbsent(List.copyOf(columnNames), key -> RowPlan.compile(this, key));
+        }
+        return plan;
+    }
+
+    /**
+     * 无列清单 INSERT 的行渲染计划，列按 {@link #getColumnsForWidth(int)} 推断，按值个数缓存。
+     */
+    public RowPlan rowPlanForWidth(int width) {
+        return positionalRowPlans.computeIfAbsent(width, key -> {
+            List<String> names = new ArrayList<>();
+            for (ColumnMetadata column : getColumnsForWidth(key)) {
+                names.add(column.getColumnName());
+            }
+            return RowPlan.compile(this, names);
+        });
     }
 
     public static String normalizeName(String name) {
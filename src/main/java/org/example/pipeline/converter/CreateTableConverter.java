@@ -4,6 +4,8 @@ import net.sf.jsqlparser.JSQLParserException;
 import net.sf.jsqlparser.statement.create.table.ColumnDefinition;
 import net.sf.jsqlparser.statement.create.table.CreateTable;
 
+import java.util.List;
+
 /**
  * 针对 CREATE TABLE 语句的方言化转换器，负责输出目标 SQL 并为列/注释渲染提供统一入口。
  */
@@ -14,6 +16,14 @@ public interface CreateTableConverter {
      */
     String convert(CreateTable createTable) throws JSQLParserException;
 
+    /**
+     * 将 AST 转换为拆分的建表结果；默认不拆分，索引与外键保留在建表语句中。
+     */
+    default TableDdlParts convertParts(CreateTable createTable) throws JSQLParserException {
+        return new TableDdlParts(createTable.getTable().getFullyQualifiedName(), convert(createTable),
+                List.of(), List.of());
+    }
+
     /**
      * 渲染单列定义，供 ALTER TABLE ADD COLUMN 等场景复用。
      */
@@ -0,0 +1,62 @@
+package org.example.pipeline.converter;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * 以 ALTER TABLE ... ADD CONSTRAINT 形式添加的外键约束。
+ */
+public final class ForeignKeyConstraint {
+
+    private final String tableName;
+    private final String constraintName;
+    private final String definition;
+
+    /**
+     * @param definition 约束定义，如 {@code FOREIGN KEY (user_id) REFERENCES sys_user (id) ON DELETE CASCADE}
+     */
+    public ForeignKeyConstraint(String tableName, String constraintName, String definition) {
+        this.tableName = tableName;
+        this.constraintName = constraintName;
+        this.definition = definition;
+    }
+
+    /**
+     * 未命名外键按 PostgreSQL 的默认规则命名：表名_列名_fkey。
+     */
+    public static String defaultName(String tableName, List<String> columns) {
+        String table = tableName.replace("`", "").replace("\"", "").replace(".", "_").trim();
+        String columnSegment = columns.stream()
+                .map(column -> column.replace("`", "").replace("\"", "").trim())
+                .collect(Collectors.joining("_"));
+        return (table + "_" + columnSegment + "_fkey").toLowerCase(Locale.ROOT);
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getConstraintName() {
+        return constraintName;
+    }
+
+    public String getDefinition() {
+        return definition;
+    }
+
+    public String toAddStatement() {
+        return String.format("ALTER TABLE %s%n    ADD CONSTRAINT %s %s;", tableName, constraintName, definition);
+    }
+
+    /**
+     * 添加时不校验已有数据（NOT VALID），随后通过 {@link #toValidateStatement()} 单独校验，校验期间不阻塞写入。
+     */
+    public String toNotValidAddStatement() {
+        return String.format("ALTER TABLE %s%n    ADD CONSTRAINT %s %s NOT VALID;", tableName, constraintName, definition);
+    }
+
+    public String toValidateStatement() {
+        return String.format("ALTER TABLE %s VALIDATE CONSTRAINT %s;", tableName, constraintName);
+    }
+}
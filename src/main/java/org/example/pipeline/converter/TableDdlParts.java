@@ -0,0 +1,55 @@
+package org.example.pipeline.converter;
+
+import java.util.List;
+
+/**
+ * 拆分后的建表结果：表定义（含注释）、二级索引与外键，便于批量导入时推迟到数据之后执行。
+ */
+public final class TableDdlParts {
+
+    private final String tableName;
+    private final String tableSql;
+    private final List<String> indexStatements;
+    private final List<ForeignKeyConstraint> foreignKeys;
+
+    public TableDdlParts(String tableName, String tableSql, List<String> indexStatements,
+                         List<ForeignKeyConstraint> foreignKeys) {
+        this.tableName = tableName;
+        this.tableSql = tableSql;
+        this.indexStatements = List.copyOf(indexStatements);
+        this.foreignKeys = List.copyOf(foreignKeys);
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getTableSql() {
+        return tableSql;
+    }
+
+    public List<String> getIndexStatements() {
+        return indexStatements;
+    }
+
+    public List<ForeignKeyConstraint> getForeignKeys() {
+        return foreignKeys;
+    }
+
+    /**
+     * 按建表、索引、外键的顺序拼接为一段脚本，与逐条输出时一致。
+     */
+    public String toScript() {
+        if (indexStatements.isEmpty() && foreignKeys.isEmpty()) {
+            return tableSql;
+        }
+        StringBuilder builder = new StringBuilder(tableSql).append("\n");
+        for (String statement : indexStatements) {
+            builder.append(statement).append("\n");
+        }
+        for (ForeignKeyConstraint foreignKey : foreignKeys) {
+            builder.append(foreignKey.toAddStatement()).append("\n");
+        }
+        return builder.toString();
+    }
+}
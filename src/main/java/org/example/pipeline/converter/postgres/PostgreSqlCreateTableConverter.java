@@ -7,6 +7,8 @@ import net.sf.jsqlparser.statement.create.table.CreateTable;
 import net.sf.jsqlparser.statement.create.table.ForeignKeyIndex;
 import net.sf.jsqlparser.statement.create.table.Index;
 import org.example.pipeline.converter.AbstractCreateTableConverter;
+import org.example.pipeline.converter.ForeignKeyConstraint;
+import org.example.pipeline.converter.TableDdlParts;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -18,8 +20,26 @@ import java.util.stream.Collectors;
  */
 public class PostgreSqlCreateTableConverter extends AbstractCreateTableConverter {
 
+    private final boolean unlogged;
+
+    public PostgreSqlCreateTableConverter() {
+        this(false);
+    }
+
+    /**
+     * @param unlogged 是否输出 CREATE UNLOGGED TABLE，用于导入期间减少 WAL
+     */
+    public PostgreSqlCreateTableConverter(boolean unlogged) {
+        this.unlogged = unlogged;
+    }
+
     @Override
     public String convert(CreateTable createTable) throws JSQLParserException {
+        return convertParts(createTable).toScript();
+    }
+
+    @Override
+    public TableDdlParts convertParts(CreateTable createTable) throws JSQLParserException {
         String tableFullyQualifiedName = createTable.getTable().getFullyQualifiedName();
         List<ColumnDefinition> columnDefinitions = createTable.getColumnDefinitions();
 
@@ -33,42 +53,29 @@ public class PostgreSqlCreateTableConverter extends AbstractCreateTableConverter
             throw new IllegalStateException("Primary key not found");
         }
 
-        String createTableFirstLine = String.format("CREATE TABLE %s (", tableFullyQualifiedName);
+        String createTableFirstLine = String.format(unlogged ? "CREATE UNLOGGED TABLE %s (" : "CREATE TABLE %s (",
+                tableFullyQualifiedName);
         List<String> columnSqlList = renderAllColumns(columnDefinitions, tableFullyQualifiedName);
         String primaryKeyConstraint = renderPrimaryKeyConstraint(primaryKey);
 
         String baseSql = generateFullSql(createTableFirstLine, columnSqlList, primaryKeyConstraint,
                 tableCommentSql, columnComments);
 
-        List<Index> secondaryIndexes = collectSecondaryIndexes(createTable);
-        List<ForeignKeyIndex> foreignKeys = collectForeignKeys(createTable);
-        if (secondaryIndexes.isEmpty() && foreignKeys.isEmpty()) {
-            return baseSql;
-        }
-        StringBuilder builder = new StringBuilder(baseSql);
-        boolean appended = false;
-        if (!secondaryIndexes.isEmpty()) {
-            builder.append("\n");
-            for (Index index : secondaryIndexes) {
-                String statement = renderSecondaryIndex(tableFullyQualifiedName, index);
-                if (statement != null) {
-                    builder.append(statement).append("\n");
-                }
+        List<String> indexStatements = new ArrayList<>();
+        for (Index index : collectSecondaryIndexes(createTable)) {
+            String statement = renderSecondaryIndex(tableFullyQualifiedName, index);
+            if (statement != null) {
+                indexStatements.add(statement);
             }
-            appended = true;
         }
-        if (!foreignKeys.isEmpty()) {
-            if (!appended) {
-                builder.append("\n");
-            }
-            for (ForeignKeyIndex foreignKey : foreignKeys) {
-                String statement = renderForeignKeyConstraint(tableFullyQualifiedName, foreignKey);
-                if (statement != null) {
-                    builder.append(statement).append("\n");
-                }
+        List<ForeignKeyConstraint> foreignKeys = new ArrayList<>();
+        for (ForeignKeyIndex foreignKey : collectForeignKeys(createTable)) {
+            ForeignKeyConstraint constraint = renderForeignKeyConstraint(tableFullyQualifiedName, foreignKey);
+            if (constraint != null) {
+                foreignKeys.add(constraint);
             }
         }
-        return builder.toString();
+        return new TableDdlParts(tableFullyQualifiedName, baseSql, indexStatements, foreignKeys);
     }
 
     private List<String> renderAllColumns(List<ColumnDefinition> columnDefinitions, String tableName) {
@@ -222,7 +229,7 @@ public class PostgreSqlCreateTableConverter extends AbstractCreateTableConverter
                 .trim();
     }
 
-    private String renderForeignKeyConstraint(String tableName, ForeignKeyIndex foreignKey) {
+    private ForeignKeyConstraint renderForeignKeyConstraint(String tableName, ForeignKeyIndex foreignKey) {
         List<String> columns = foreignKey.getColumnsNames();
         List<String> referencedColumns = foreignKey.getReferencedColumnNames();
         Table referencedTable = foreignKey.getTable();
@@ -231,6 +238,9 @@ public class PostgreSqlCreateTableConverter extends AbstractCreateTableConverter
             return null;
         }
         String constraintName = sanitizeIndexIdentifier(foreignKey.getName());
+        if (constraintName.isEmpty()) {
+            constraintName = ForeignKeyConstraint.defaultName(tableName, columns);
+        }
         String referencingCols = columns.stream()
                 .map(this::cleanupIdentifier)
                 .collect(Collectors.joining(", "));
@@ -238,12 +248,8 @@ public class PostgreSqlCreateTableConverter extends AbstractCreateTableConverter
                 .map(this::cleanupIdentifier)
                 .collect(Collectors.joining(", "));
         String referencedTableName = cleanupIdentifier(referencedTable.getFullyQualifiedName());
-        return String.format("ALTER TABLE %s%n    ADD CONSTRAINT %s FOREIGN KEY (%s) REFERENCES %s (%s);",
-                tableName,
-                constraintName,
-                referencingCols,
-                referencedTableName,
-                referencedCols);
+        return new ForeignKeyConstraint(tableName, constraintName,
+                String.format("FOREIGN KEY (%s) REFERENCES %s (%s)", referencingCols, referencedTableName, referencedCols));
     }
 
     private String normalizeIdentifierForIndexName(String identifier) {
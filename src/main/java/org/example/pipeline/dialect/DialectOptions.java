@@ -0,0 +1,201 @@
+package org.example.pipeline.dialect;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * 与目标方言配合使用的输出选项，不可变，通过 {@link Builder} 构造。
+ */
+public final class DialectOptions {
+
+    /**
+     * INSERT 数据的输出形式。
+     */
+    public enum DataFormat {
+        /**
+         * 保持 INSERT ... VALUES 语句。
+         */
+        INSERT,
+        /**
+         * 输出 COPY ... FROM STDIN 文本格式数据块，仅 PostgreSQL 支持。
+         */
+        COPY,
+        /**
+         * 输出 PostgreSQL 二进制 COPY（PGCOPY）文件，每张表一个 .bin 文件并附导入脚本，仅 PostgreSQL 支持。
+         */
+        BINARY
+    }
+
+    /**
+     * 输出脚本的语句编排方式。
+     */
+    public enum Layout {
+        /**
+         * 按源文件顺序逐条输出。
+         */
+        SCRIPT,
+        /**
+         * 面向批量导入：先建全部表，再导数据，随后建二级索引、添加外键并校验，最后 ANALYZE。
+         */
+        BULK_LOAD
+    }
+
+    private static final DialectOptions DEFAULTS = builder().build();
+
+    private final DataFormat dataFormat;
+    private final int insertBatchRows;
+    private final long insertBatchBytes;
+    private final Layout layout;
+    private final boolean unloggedLoad;
+
+    private DialectOptions(Builder builder) {
+        this.dataFormat = builder.dataFormat;
+        this.insertBatchRows = builder.insertBatchRows;
+        this.insertBatchBytes = builder.insertBatchBytes;
+        this.layout = builder.layout;
+        this.unloggedLoad = builder.unloggedLoad;
+    }
+
+    public static DialectOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 从 JVM 系统属性读取：data.format=insert|copy|binary，insert.batch-rows，insert.batch-bytes，
+     * output.layout=script|bulk-load，load.unlogged=true|false。
+     */
+    public static DialectOptions fromSystemProperties() {
+        Builder builder = builder();
+        String dataFormat = System.getProperty("data.format");
+        if (dataFormat != null && !dataFormat.isBlank()) {
+            builder.dataFormat(parseDataFormat("data.format", dataFormat));
+        }
+        builder.insertBatchRows(Integer.getInteger("insert.batch-rows", 0));
+        builder.insertBatchBytes(Long.getLong("insert.batch-bytes", 0L));
+        String layout = System.getProperty("output.layout");
+        if (layout != null && !layout.isBlank()) {
+            builder.layout(parseLayout("output.layout", layout));
+        }
+        builder.unloggedLoad(Boolean.getBoolean("load.unlogged"));
+        return builder.build();
+    }
+
+    /**
+     * 按名称解析数据格式，忽略大小写；无法识别时异常信息带上属性名与可选值。
+     */
+    public static DataFormat parseDataFormat(String property, String value) {
+        return parse(DataFormat.class, property, value);
+    }
+
+    /**
+     * 按名称解析编排方式，忽略大小写，- 与 _ 等价；无法识别时异常信息带上属性名与可选值。
+     */
+    public static Layout parseLayout(String property, String value) {
+        return parse(Layout.class, property, value);
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String property, String value) {
+        String name = value == null ? "" : value.trim().replace('-', '_');
+        StringJoiner accepted = new StringJoiner(", ");
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(name)) {
+                return constant;
+            }
+            accepted.add(constant.name().toLowerCase(Locale.ROOT).replace('_', '-'));
+        }
+        throw new IllegalArgumentException(property + " 取值无效: " + value + "，可选值: " + accepted);
+    }
+
+    public DataFormat getDataFormat() {
+        return dataFormat;
+    }
+
+    /**
+     * 单条 INSERT 的最大行数，0 表示不限。
+     */
+    public int getInsertBatchRows() {
+        return insertBatchRows;
+    }
+
+    /**
+     * 单条 INSERT 的最大字节数（UTF-8），0 表示不限；单行超过上限时该行单独成句。
+     */
+    public long getInsertBatchBytes() {
+        return insertBatchBytes;
+    }
+
+    /**
+     * 是否对 INSERT 重新分批：相邻同表同列的 INSERT 合并，超过行数/字节上限的拆分。
+     */
+    public boolean isInsertBatching() {
+        return insertBatchRows > 0 || insertBatchBytes > 0;
+    }
+
+    public Layout getLayout() {
+        return layout;
+    }
+
+    public boolean isBulkLoadLayout() {
+        return layout == Layout.BULK_LOAD;
+    }
+
+    /**
+     * 导入期间以 UNLOGGED 建表、关闭同步提交并在大事务中导入，结束后再 SET LOGGED，仅 PostgreSQL 支持。
+     */
+    public boolean isUnloggedLoad() {
+        return unloggedLoad;
+    }
+
+    public Builder toBuilder() {
+        return new Builder()
+                .dataFormat(dataFormat)
+                .insertBatchRows(insertBatchRows)
+                .insertBatchBytes(insertBatchBytes)
+                .layout(layout)
+                .unloggedLoad(unloggedLoad);
+    }
+
+    public static final class Builder {
+        private DataFormat dataFormat = DataFormat.INSERT;
+        private int insertBatchRows;
+        private long insertBatchBytes;
+        private Layout layout = Layout.SCRIPT;
+        private boolean unloggedLoad;
+
+        private Builder() {
+        }
+
+        public Builder dataFormat(DataFormat dataFormat) {
+            this.dataFormat = dataFormat == null ? DataFormat.INSERT : dataFormat;
+            return this;
+        }
+
+        public Builder insertBatchRows(int insertBatchRows) {
+            this.insertBatchRows = Math.max(insertBatchRows, 0);
+            return this;
+        }
+
+        public Builder insertBatchBytes(long insertBatchBytes) {
+            this.insertBatchBytes = Math.max(insertBatchBytes, 0);
+            return this;
+        }
+
+        public Builder layout(Layout layout) {
+            this.layout = layout == null ? Layout.SCRIPT : layout;
+            return this;
+        }
+
+        public Builder unloggedLoad(boolean unloggedLoad) {
+            this.unloggedLoad = unloggedLoad;
+            return this;
+        }
+
+        public DialectOptions build() {
+            return new DialectOptions(this);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package org.example.pipeline.dialect;
 
 import org.example.pipeline.converter.CreateTableConverter;
 
+import java.util.List;
+
 /**
  * 描述特定方言下的转换策略与特性，用于驱动各处理器行为。
  */
@@ -9,10 +11,16 @@ public abstract class DialectProfile {
 
     private final DatabaseDialect dialect;
     private final CreateTableConverter createTableConverter;
+    private final DialectOptions options;
 
     protected DialectProfile(DatabaseDialect dialect, CreateTableConverter converter) {
+        this(dialect, converter, DialectOptions.defaults());
+    }
+
+    protected DialectProfile(DatabaseDialect dialect, CreateTableConverter converter, DialectOptions options) {
         this.dialect = dialect;
         this.createTableConverter = converter;
+        this.options = options == null ? DialectOptions.defaults() : options;
     }
 
     public DatabaseDialect getDialect() {
@@ -23,6 +31,10 @@ public abstract class DialectProfile {
         return createTableConverter;
     }
 
+    public DialectOptions getOptions() {
+        return options;
+    }
+
     /**
      * 是否需要在 INSERT/UPDATE 中对布尔列进行 TRUE/FALSE 格式化。
      */
@@ -36,4 +48,53 @@ public abstract class DialectProfile {
     public boolean shouldExtractIndexesFromAlter() {
         return true;
     }
+
+    /**
+     * 目标库是否支持 COPY ... FROM STDIN 导入。
+     */
+    public boolean supportsCopy() {
+        return false;
+    }
+
+    /**
+     * INSERT 数据是否以 COPY 文本格式输出。
+     */
+    public boolean emitsCopyData() {
+        return supportsCopy() && options.getDataFormat() == DialectOptions.DataFormat.COPY;
+    }
+
+    /**
+     * INSERT 数据是否写入二进制 COPY 文件。
+     */
+    public boolean emitsBinaryCopyData() {
+        return supportsCopy() && options.getDataFormat() == DialectOptions.DataFormat.BINARY;
+    }
+
+    /**
+     * 目标库是否支持以 NOT VALID 添加外键并在之后单独 VALIDATE。
+     */
+    public boolean supportsNotValidConstraints() {
+        return false;
+    }
+
+    /**
+     * 目标库是否支持 UNLOGGED 表及 ALTER TABLE ... SET LOGGED。
+     */
+    public boolean supportsUnloggedTables() {
+        return false;
+    }
+
+    /**
+     * 是否以 UNLOGGED 方式建表导入，结束后再 SET LOGGED。
+     */
+    public boolean emitsUnloggedLoad() {
+        return supportsUnloggedTables() && options.isUnloggedLoad();
+    }
+
+    /**
+     * 导入开始前的会话设置，UNLOGGED 导入时关闭同步提交。
+     */
+    public List<String> loadSessionSettings() {
+        return emitsUnloggedLoad() ? List.of("SET synchronous_commit = off") : List.of();
+    }
 }
@@ -2,6 +2,7 @@ package org.example.pipeline.dialect.gauss;
 
 import org.example.pipeline.converter.CreateTableConverter;
 import org.example.pipeline.converter.gauss.GaussCreateTableConverter;
+import org.example.pipeline.dialect.DialectOptions;
 import org.example.pipeline.dialect.DialectProfile;
 
 /**
@@ -10,7 +11,11 @@ import org.example.pipeline.dialect.DialectProfile;
 public class GaussMySqlDialectProfile extends DialectProfile {
 
     public GaussMySqlDialectProfile() {
-        super(new GaussMySqlDialect(), createConverter());
+        this(DialectOptions.defaults());
+    }
+
+    public GaussMySqlDialectProfile(DialectOptions options) {
+        super(new GaussMySqlDialect(), createConverter(), options);
     }
 
     private static CreateTableConverter createConverter() {
@@ -2,6 +2,7 @@ package org.example.pipeline.dialect.postgres;
 
 import org.example.pipeline.converter.CreateTableConverter;
 import org.example.pipeline.converter.postgres.PostgreSqlCreateTableConverter;
+import org.example.pipeline.dialect.DialectOptions;
 import org.example.pipeline.dialect.DialectProfile;
 
 /**
@@ -10,10 +11,29 @@ import org.example.pipeline.dialect.DialectProfile;
 public class PostgreSqlDialectProfile extends DialectProfile {
 
     public PostgreSqlDialectProfile() {
-        super(new PostgreSqlDialect(), createConverter());
+        this(DialectOptions.defaults());
     }
 
-    private static CreateTableConverter createConverter() {
-        return new PostgreSqlCreateTableConverter();
+    public PostgreSqlDialectProfile(DialectOptions options) {
+        super(new PostgreSqlDialect(), createConverter(options), options);
+    }
+
+    private static CreateTableConverter createConverter(DialectOptions options) {
+        return new PostgreSqlCreateTableConverter(options != null && options.isUnloggedLoad());
+    }
+
+    @Override
+    public boolean supportsCopy() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsNotValidConstraints() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsUnloggedTables() {
+        return true;
     }
 }
@@ -0,0 +1,144 @@
+package org.example.pipeline.output;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * 后台线程写出的双缓冲输出：转换线程只追加到当前缓冲，缓冲写满后与空闲缓冲交换，
+ * 由后台线程把满缓冲写入下游，使编码/磁盘 IO 与转换并行。
+ */
+public class AsyncOutputSink implements OutputSink {
+
+    static final int DEFAULT_SWAP_THRESHOLD = 1024 * 1024;
+
+    private final OutputSink delegate;
+    private final int swapThreshold;
+    private final Object lock = new Object();
+    private final Thread writerThread;
+
+    private StringBuilder active = new StringBuilder();
+    private StringBuilder spare = new StringBuilder();
+    private StringBuilder pending;
+    private boolean closed;
+    private volatile IOException failure;
+
+    public AsyncOutputSink(OutputSink delegate) {
+        this(delegate, DEFAULT_SWAP_THRESHOLD);
+    }
+
+    public AsyncOutputSink(OutputSink delegate, int swapThreshold) {
+        this.delegate = delegate;
+        this.swapThreshold = swapThreshold;
+        this.writerThread = new Thread(this::drainLoop, "sql-output-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void write(CharSequence text) throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        active.append(text);
+        if (active.length() >= swapThreshold) {
+            handOff();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (active.length() > 0) {
+            handOff();
+        }
+        synchronized (lock) {
+            awaitIdle();
+        }
+        delegate.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            synchronized (lock) {
+                closed = true;
+                lock.notifyAll();
+            }
+            try {
+                writerThread.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            delegate.close();
+        }
+    }
+
+    /**
+     * 后台写出线程，仅供测试模拟中断。
+     */
+    Thread writerThread() {
+        return writerThread;
+    }
+
+    private void handOff() throws IOException {
+        synchronized (lock) {
+            awaitIdle();
+            pending = active;
+            active = spare;
+            spare = null;
+            lock.notifyAll();
+        }
+    }
+
+    private void awaitIdle() throws IOException {
+        while (pending != null && failure == null) {
+            try {
+                lock.wait();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("等待后台写出被中断");
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void drainLoop() {
+        while (true) {
+            StringBuilder chunk;
+            synchronized (lock) {
+                while (pending == null && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException ex) {
+                        failure = new InterruptedIOException("后台写出线程被中断");
+                        lock.notifyAll();
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (pending == null) {
+                    return;
+                }
+                chunk = pending;
+            }
+            try {
+                delegate.write(chunk);
+            } catch (IOException ex) {
+                synchronized (lock) {
+                    failure = ex;
+                    lock.notifyAll();
+                }
+                return;
+            }
+            chunk.setLength(0);
+            synchronized (lock) {
+                spare = chunk;
+                pending = null;
+                lock.notifyAll();
+            }
+        }
+    }
+}
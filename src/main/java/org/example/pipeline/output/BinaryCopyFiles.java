@@ -0,0 +1,79 @@
+package org.example.pipeline.output;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 每段连续的（表, 列清单）数据写一个 PGCOPY 二进制文件，开始新文件时结束上一个文件并补齐结束标记。
+ * 导入命令 {@code \copy ... FROM '<绝对路径>'} 由调用方写入 SQL 脚本中数据所在的位置。
+ * 仅由单个线程写入（串行转换线程或并行流水线的写出线程）。
+ */
+public class BinaryCopyFiles implements BinaryCopySink {
+
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final Path directory;
+    private final Set<String> fileNames = new HashSet<>();
+    private OutputStream current;
+
+    public BinaryCopyFiles(Path directory) {
+        this.directory = directory;
+    }
+
+    public static BinaryCopyFiles open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return new BinaryCopyFiles(directory);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public String begin(String tableName, List<String> columnNames) throws IOException {
+        close();
+        Path path = directory.resolve(uniqueFileName(tableName)).toAbsolutePath().normalize();
+        current = new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE);
+        current.write(SIGNATURE);
+        // flags 与扩展头长度均为 0
+        current.write(new byte[8]);
+        return "\\copy " + tableName + " (" + String.join(", ", columnNames) + ") FROM '"
+                + path.toString().replace("'", "''") + "' WITH (FORMAT binary)";
+    }
+
+    @Override
+    public void write(byte[] tuples) throws IOException {
+        if (current == null) {
+            throw new IllegalStateException("尚未开始二进制 COPY 文件");
+        }
+        current.write(tuples);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (current == null) {
+            return;
+        }
+        try (OutputStream stream = current) {
+            current = null;
+            stream.write(0xFF);
+            stream.write(0xFF);
+        }
+    }
+
+    private String uniqueFileName(String tableName) {
+        String base = tableName.replaceAll("[^A-Za-z0-9_.-]", "_");
+        String name = base + ".bin";
+        for (int i = 2; !fileNames.add(name); i++) {
+            name = base + "." + i + ".bin";
+        }
+        return name;
+    }
+}
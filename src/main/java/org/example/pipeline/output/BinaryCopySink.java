@@ -0,0 +1,23 @@
+package org.example.pipeline.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 二进制 COPY 数据的输出目标，{@link org.example.pipeline.ConversionResult} 按语句顺序写入已编码的元组。
+ */
+public interface BinaryCopySink extends Closeable {
+
+    /**
+     * 开始一个新的数据文件，此前的文件随之结束。
+     *
+     * @return 在 SQL 脚本中导入该文件的 psql 命令（不含换行），由调用方写入数据所在的位置
+     */
+    String begin(String tableName, List<String> columnNames) throws IOException;
+
+    /**
+     * @param tuples 按 PGCOPY 格式编码的若干元组（不含文件头与结束标记），写入最近一次 {@link #begin} 的文件
+     */
+    void write(byte[] tuples) throws IOException;
+}
@@ -0,0 +1,96 @@
+package org.example.pipeline.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 直接编码到大块 direct ByteBuffer 后批量写入 FileChannel，避免中间 byte[] 拷贝。
+ */
+public class FileChannelOutputSink implements OutputSink {
+
+    static final int DEFAULT_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private String carry;
+
+    public FileChannelOutputSink(FileChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    public FileChannelOutputSink(FileChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    public static FileChannelOutputSink open(Path path) throws IOException {
+        return new FileChannelOutputSink(FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    @Override
+    public void write(CharSequence text) throws IOException {
+        CharSequence input = text;
+        if (carry != null) {
+            input = carry + text;
+            carry = null;
+        }
+        CharBuffer chars = CharBuffer.wrap(input);
+        encode(chars, false);
+        if (chars.hasRemaining()) {
+            // 末尾是被拆开的代理对，留到下一次写入
+            carry = chars.toString();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            encode(CharBuffer.wrap(carry == null ? "" : carry), true);
+            carry = null;
+            while (encoder.flush(buffer).isOverflow()) {
+                drain();
+            }
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void encode(CharBuffer chars, boolean endOfInput) throws IOException {
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, endOfInput);
+            if (result.isOverflow()) {
+                drain();
+            } else if (result.isUnderflow()) {
+                return;
+            } else {
+                result.throwException();
+            }
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.pipeline.output;
+
+/**
+ * 内存输出，全部内容保存在 StringBuilder 中，适合测试与小脚本。
+ */
+public class InMemoryOutputSink implements OutputSink {
+
+    private final StringBuilder builder = new StringBuilder();
+
+    @Override
+    public void write(CharSequence text) {
+        builder.append(text);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    public String asString() {
+        return builder.toString();
+    }
+}
@@ -0,0 +1,519 @@
+package org.example.pipeline.output;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 把转换结果直接导入目标库的输出：按语句切分写入的 SQL 文本，DDL/DML 以 JDBC 批量执行，
+ * COPY ... FROM STDIN 数据块通过 {@link CopyIn}（PostgreSQL 为 CopyManager）导入，不再经过中间文件。
+ * <p>
+ * 可使用多个连接：数据语句与 COPY 块按所属表固定分配到某个连接，同一张表的数据保持顺序；
+ * 其它语句（建表、索引、外键等）在所有连接上已提交的数据之后由第一个连接执行。
+ * 每个连接每执行 commitInterval 条语句（COPY 每行计一条）提交一次；事务由本类管理，文本中的 BEGIN/COMMIT 被忽略，
+ * SET 会话设置在全部连接上执行。仅由单个线程写入。
+ */
+public class JdbcOutputSink implements OutputSink {
+
+    /**
+     * 打开一个到目标库的连接。
+     */
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * 以 COPY ... FROM STDIN 导入一段数据行（不含结束标记），返回导入的行数。
+     */
+    public interface CopyIn {
+        long copyIn(Connection connection, String copySql, Reader rows) throws SQLException, IOException;
+    }
+
+    /**
+     * 通过 PostgreSQL JDBC 驱动的 CopyManager 导入；驱动只在运行时需要，不增加编译依赖。
+     */
+    public static final CopyIn POSTGRESQL_COPY = (connection, copySql, rows) -> {
+        try {
+            Object pgConnection = connection.unwrap(Class.forName("org.postgresql.PGConnection"));
+            Object copyManager = pgConnection.getClass().getMethod("getCopyAPI").invoke(pgConnection);
+            Method copyIn = copyManager.getClass().getMethod("copyIn", String.class, Reader.class);
+            return (Long) copyIn.invoke(copyManager, copySql, rows);
+        } catch (InvocationTargetException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new SQLException("COPY 导入失败", cause);
+        } catch (ReflectiveOperationException ex) {
+            throw new SQLException("目标连接不支持 COPY（需要 PostgreSQL JDBC 驱动）", ex);
+        }
+    };
+
+    static final int DEFAULT_BATCH_SIZE = 500;
+    static final int DEFAULT_COMMIT_INTERVAL = 10_000;
+    private static final int COPY_CHUNK_CHARS = 4 * 1024 * 1024;
+    private static final int MAX_PENDING_TASKS = 4;
+    private static final Pattern DATA_TABLE = Pattern.compile(
+            "^(?:INSERT\\s+INTO|UPDATE|DELETE\\s+FROM|COPY)\\s+([^\\s(]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TRANSACTION_CONTROL = Pattern.compile(
+            "^(?:BEGIN|COMMIT|END|START\\s+TRANSACTION)(?:\\s+(?:WORK|TRANSACTION))?$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DOLLAR_TAG = Pattern.compile("\\$[A-Za-z_0-9]*\\$");
+
+    private final CopyIn copyIn;
+    private final int batchSize;
+    private final int commitInterval;
+    private final List<Lane> lanes = new ArrayList<>();
+
+    private final StringBuilder line = new StringBuilder();
+    private final StringBuilder statement = new StringBuilder();
+    private boolean inSingleQuote;
+    private boolean inDoubleQuote;
+    private int blockCommentDepth;
+    private String dollarTag;
+    private String copySql;
+    private String copyTable;
+    private StringBuilder copyRows;
+    private long copyRowCount;
+    private boolean schemaPending;
+    private boolean closed;
+
+    /**
+     * @param batchSize      每批执行的语句数
+     * @param commitInterval 每个连接提交一次的语句数（COPY 每行计一条）
+     * @param connections    并行连接数
+     */
+    public JdbcOutputSink(ConnectionFactory connectionFactory, CopyIn copyIn, int batchSize, int commitInterval,
+                          int connections) throws IOException {
+        this.copyIn = copyIn;
+        this.batchSize = Math.max(batchSize, 1);
+        this.commitInterval = Math.max(commitInterval, 1);
+        int count = Math.max(connections, 1);
+        try {
+            for (int i = 0; i < count; i++) {
+                Connection connection = connectionFactory.open();
+                connection.setAutoCommit(false);
+                lanes.add(new Lane(connection, count > 1 ? Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "jdbc-load");
+                    thread.setDaemon(true);
+                    return thread;
+                }) : null));
+            }
+        } catch (SQLException ex) {
+            closeLanes();
+            throw new IOException("无法连接目标库: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * 从 JVM 系统属性读取：output.jdbc-user、output.jdbc-password、jdbc.batch-size（默认 500）、
+     * jdbc.commit-interval（默认 10000）、jdbc.connections（默认 1）。
+     */
+    public static JdbcOutputSink fromSystemProperties(String url) throws IOException {
+        Properties info = new Properties();
+        String user = System.getProperty("output.jdbc-user");
+        if (user != null) {
+            info.setProperty("user", user);
+        }
+        String password = System.getProperty("output.jdbc-password");
+        if (password != null) {
+            info.setProperty("password", password);
+        }
+        return new JdbcOutputSink(() -> DriverManager.getConnection(url, info), POSTGRESQL_COPY,
+                Integer.getInteger("jdbc.batch-size", DEFAULT_BATCH_SIZE),
+                Integer.getInteger("jdbc.commit-interval", DEFAULT_COMMIT_INTERVAL),
+                Integer.getInteger("jdbc.connections", 1));
+    }
+
+    @Override
+    public void write(CharSequence text) throws IOException {
+        ensureOpen();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                processLine();
+                line.setLength(0);
+            } else {
+                line.append(c);
+            }
+        }
+    }
+
+    /**
+     * 执行并提交已写入的全部语句。
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        barrier();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (line.length() > 0) {
+                processLine();
+                line.setLength(0);
+            }
+            if (statement.toString().isBlank()) {
+                statement.setLength(0);
+            } else {
+                completeStatement();
+            }
+            if (copySql != null) {
+                throw new IOException("COPY 数据块缺少结束标记 \\.");
+            }
+            barrier();
+        } finally {
+            closed = true;
+            closeLanes();
+        }
+    }
+
+    private void processLine() throws IOException {
+        if (copySql != null) {
+            if (line.length() == 2 && line.charAt(0) == '\\' && line.charAt(1) == '.') {
+                dispatchCopyChunk();
+                copySql = null;
+                copyTable = null;
+                copyRows = null;
+                return;
+            }
+            copyRows.append(line).append('\n');
+            copyRowCount++;
+            if (copyRows.length() >= COPY_CHUNK_CHARS) {
+                dispatchCopyChunk();
+            }
+            return;
+        }
+        if (statement.length() == 0 && blockCommentDepth == 0 && dollarTag == null && line.length() > 0
+                && line.charAt(0) == '\\') {
+            String command = line.toString();
+            line.setLength(0);
+            throw new IOException("JDBC 导入不支持 psql 元命令: " + command);
+        }
+        scanLine();
+    }
+
+    /**
+     * 按 PostgreSQL 规则切分语句：忽略单引号、双引号、美元符号引用、-- 注释及（可嵌套、可跨行的）块注释中的分号，
+     * 注释本身不发送到目标库。
+     */
+    private void scanLine() throws IOException {
+        int start = 0;
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            char next = i + 1 < line.length() ? line.charAt(i + 1) : 0;
+            if (blockCommentDepth > 0) {
+                if (c == '*' && next == '/') {
+                    blockCommentDepth--;
+                    i += 2;
+                    if (blockCommentDepth == 0) {
+                        start = i;
+                    }
+                    continue;
+                }
+                if (c == '/' && next == '*') {
+                    blockCommentDepth++;
+                    i += 2;
+                    continue;
+                }
+            } else if (dollarTag != null) {
+                if (c == '$' && line.indexOf(dollarTag, i) == i) {
+                    i += dollarTag.length();
+                    dollarTag = null;
+                    continue;
+                }
+            } else if (inSingleQuote) {
+                inSingleQuote = c != '\'';
+            } else if (inDoubleQuote) {
+                inDoubleQuote = c != '"';
+            } else if (c == '\'') {
+                inSingleQuote = true;
+            } else if (c == '"') {
+                inDoubleQuote = true;
+            } else if (c == '$') {
+                Matcher matcher = DOLLAR_TAG.matcher(line).region(i, line.length());
+                if (matcher.lookingAt()) {
+                    dollarTag = matcher.group();
+                    i = matcher.end();
+                    continue;
+                }
+            } else if (c == '-' && next == '-') {
+                statement.append(line, start, i);
+                start = line.length();
+                break;
+            } else if (c == '/' && next == '*') {
+                statement.append(line, start, i).append(' ');
+                blockCommentDepth = 1;
+                i += 2;
+                continue;
+            } else if (c == ';') {
+                statement.append(line, start, i);
+                start = i + 1;
+                completeStatement();
+            }
+            i++;
+        }
+        if (blockCommentDepth == 0 && start < line.length()) {
+            statement.append(line, start, line.length());
+        }
+        if (statement.length() > 0) {
+            statement.append('\n');
+        }
+    }
+
+    private void completeStatement() throws IOException {
+        String sql = statement.toString().trim();
+        statement.setLength(0);
+        if (sql.isEmpty() || TRANSACTION_CONTROL.matcher(sql).matches()) {
+            return;
+        }
+        String upper = sql.toUpperCase(Locale.ROOT);
+        String table = dataTable(sql);
+        if (upper.startsWith("COPY ") && upper.endsWith("FROM STDIN")) {
+            copySql = sql;
+            copyTable = table;
+            copyRows = new StringBuilder();
+            copyRowCount = 0;
+            return;
+        }
+        if (upper.startsWith("SET ")) {
+            barrier();
+            for (Lane lane : lanes) {
+                lane.submit(() -> lane.execute(sql));
+            }
+            return;
+        }
+        if (table != null) {
+            if (schemaPending) {
+                barrier();
+            }
+            laneFor(table).add(sql);
+            return;
+        }
+        if (!schemaPending) {
+            barrier();
+            schemaPending = true;
+        }
+        lanes.get(0).add(sql);
+    }
+
+    private void dispatchCopyChunk() throws IOException {
+        if (copyRowCount == 0) {
+            return;
+        }
+        if (schemaPending) {
+            barrier();
+        }
+        Lane lane = laneFor(copyTable);
+        lane.submitBatch();
+        String sql = copySql;
+        String rows = copyRows.toString();
+        long count = copyRowCount;
+        copyRows.setLength(0);
+        copyRowCount = 0;
+        lane.submit(() -> {
+            copyIn.copyIn(lane.connection, sql, new StringReader(rows));
+            lane.executed(count);
+        });
+    }
+
+    /**
+     * 执行各连接上未执行的批次并提交，等待全部完成后返回。
+     */
+    private void barrier() throws IOException {
+        List<Future<?>> pending = new ArrayList<>();
+        for (Lane lane : lanes) {
+            lane.submitBatch();
+            pending.add(lane.submit(lane::commit));
+        }
+        for (Future<?> future : pending) {
+            await(future);
+        }
+        for (Lane lane : lanes) {
+            lane.checkFailure();
+        }
+        schemaPending = false;
+    }
+
+    private Lane laneFor(String table) {
+        return lanes.get(Math.floorMod(table.replace("\"", "").toLowerCase(Locale.ROOT).hashCode(), lanes.size()));
+    }
+
+    static String dataTable(String sql) {
+        Matcher matcher = DATA_TABLE.matcher(sql);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("JDBC 输出已关闭");
+        }
+    }
+
+    private void closeLanes() {
+        for (Lane lane : lanes) {
+            if (lane.executor != null) {
+                lane.executor.shutdownNow();
+            }
+            try {
+                lane.connection.close();
+            } catch (SQLException ignored) {
+                // 关闭失败不影响已提交的数据
+            }
+        }
+    }
+
+    private static void await(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("等待 JDBC 导入时被中断", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            throw cause instanceof IOException ? (IOException) cause
+                    : new IOException("JDBC 导入失败: " + cause.getMessage(), cause);
+        }
+    }
+
+    private interface Task {
+        void run() throws SQLException, IOException;
+    }
+
+    /**
+     * 一个连接及其执行线程；单连接时在写入线程中直接执行。待执行的任务数有上限，写入快于导入时写入线程等待。
+     */
+    private final class Lane {
+        private final Connection connection;
+        private final ExecutorService executor;
+        private final Semaphore permits = new Semaphore(MAX_PENDING_TASKS);
+        private List<String> batch = new ArrayList<>();
+        private Statement jdbcStatement;
+        private long uncommitted;
+        private boolean dirty;
+        private volatile Exception failure;
+
+        Lane(Connection connection, ExecutorService executor) {
+            this.connection = connection;
+            this.executor = executor;
+        }
+
+        void add(String sql) throws IOException {
+            batch.add(sql);
+            if (batch.size() >= batchSize) {
+                submitBatch();
+            }
+        }
+
+        void submitBatch() throws IOException {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<String> statements = batch;
+            batch = new ArrayList<>();
+            submit(() -> executeBatch(statements));
+        }
+
+        Future<?> submit(Task task) throws IOException {
+            checkFailure();
+            if (executor == null) {
+                try {
+                    task.run();
+                } catch (SQLException ex) {
+                    throw new IOException("JDBC 导入失败: " + ex.getMessage(), ex);
+                }
+                return CompletableFuture.completedFuture(null);
+            }
+            try {
+                permits.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("等待 JDBC 导入时被中断", ex);
+            }
+            return executor.submit(() -> {
+                try {
+                    // 之前的任务失败后不再执行，错误在写入线程下次提交或等待时抛出
+                    if (failure == null) {
+                        task.run();
+                    }
+                    return null;
+                } catch (SQLException | IOException | RuntimeException ex) {
+                    failure = ex;
+                    throw ex;
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        void checkFailure() throws IOException {
+            Exception cause = failure;
+            if (cause != null) {
+                throw cause instanceof IOException ? (IOException) cause
+                        : new IOException("JDBC 导入失败: " + cause.getMessage(), cause);
+            }
+        }
+
+        void execute(String sql) throws SQLException {
+            try (Statement single = connection.createStatement()) {
+                single.execute(sql);
+            }
+            dirty = true;
+        }
+
+        void executeBatch(List<String> statements) throws SQLException {
+            if (jdbcStatement == null) {
+                jdbcStatement = connection.createStatement();
+            }
+            for (String sql : statements) {
+                jdbcStatement.addBatch(sql);
+            }
+            jdbcStatement.executeBatch();
+            jdbcStatement.clearBatch();
+            executed(statements.size());
+        }
+
+        void executed(long count) throws SQLException {
+            dirty = true;
+            uncommitted += count;
+            if (uncommitted >= commitInterval) {
+                commit();
+            }
+        }
+
+        void commit() throws SQLException {
+            if (!dirty) {
+                return;
+            }
+            connection.commit();
+            dirty = false;
+            uncommitted = 0;
+        }
+    }
+}
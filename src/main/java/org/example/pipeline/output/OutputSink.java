@@ -0,0 +1,22 @@
+package org.example.pipeline.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 转换结果的输出目标，{@link org.example.pipeline.ConversionResult} 通过它增量写出 SQL 文本。
+ */
+public interface OutputSink extends Closeable {
+
+    void write(CharSequence text) throws IOException;
+
+    /**
+     * 将已缓冲的内容落到底层介质。
+     */
+    void flush() throws IOException;
+
+    @Override
+    default void close() throws IOException {
+        flush();
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.pipeline.output;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * 根据名称创建文件输出，供 {@code -Doutput.sink} 选择。
+ */
+public final class OutputSinks {
+
+    private OutputSinks() {
+    }
+
+    /**
+     * @param mode writer / channel / async，忽略大小写，null 时使用 channel
+     * @throws IllegalArgumentException 取值无法识别时
+     */
+    public static OutputSink forFile(Path path, String mode) throws IOException {
+        String normalized = mode == null ? "channel" : mode.trim().toLowerCase(Locale.ROOT);
+        switch (normalized) {
+            case "writer":
+                return new WriterOutputSink(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+            case "async":
+                return new AsyncOutputSink(FileChannelOutputSink.open(path));
+            case "channel":
+                return FileChannelOutputSink.open(path);
+            default:
+                throw new IllegalArgumentException("output.sink 取值无效: " + mode + "，可选值: writer, channel, async");
+        }
+    }
+}
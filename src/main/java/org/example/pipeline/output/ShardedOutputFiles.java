@@ -0,0 +1,378 @@
+package org.example.pipeline.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按段落与表拆分的输出目录：schema.sql、每张表一个或多个数据文件（data/表名.sql，超过上限时续写 表名.2.sql）、
+ * 无法归属到表的数据 data.sql 以及 post-data.sql（SET LOGGED、索引、外键、ANALYZE），
+ * 关闭时生成描述文件及依赖关系的 manifest.json，供加载器像 pg_restore -j 一样并行执行。
+ * <p>
+ * 生成索引构建计划时，二级索引按通道写入 indexes/lane-N.sql，各通道依赖全部数据、可并行执行，post-data 依赖全部通道。
+ * 设置了导入批次（{@link #setLoadWaves(List, List)}）时，清单另外记录各批次的表、外键成环的表组及每个数据文件所属批次。
+ * <p>
+ * 同一时刻只保持一个数据文件打开，切换到其它表时先关闭，再次写入时以追加方式重新打开。
+ * 仅由单个线程写入（串行转换线程或并行流水线的写出线程）。
+ */
+public class ShardedOutputFiles implements Closeable {
+
+    public static final String MANIFEST = "manifest.json";
+    static final String SCHEMA_FILE = "schema.sql";
+    static final String UNSORTED_DATA_FILE = "data.sql";
+    static final String POST_DATA_FILE = "post-data.sql";
+    static final String DATA_DIRECTORY = "data";
+    static final String INDEX_DIRECTORY = "indexes";
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final Path directory;
+    private final long maxShardBytes;
+    private final List<String> sessionSettings;
+    private final boolean transactional;
+    private final Shard schema;
+    private final Shard postData;
+    private final Map<String, List<Shard>> dataShards = new LinkedHashMap<>();
+    private final Set<String> fileNames = new HashSet<>();
+    private final List<Shard> indexLanes = new ArrayList<>();
+    private Shard unsortedData;
+    private Shard activeData;
+    private List<List<String>> loadWaves = List.of();
+    private List<List<String>> cyclicGroups = List.of();
+
+    /**
+     * @param maxShardBytes   单个数据文件的字节数上限（UTF-8），0 表示不拆分
+     * @param sessionSettings 每个数据文件开头的会话设置，如 {@code SET synchronous_commit = off}
+     * @param transactional   是否把每个数据文件包在 BEGIN/COMMIT 中
+     */
+    public ShardedOutputFiles(Path directory, long maxShardBytes, List<String> sessionSettings, boolean transactional) {
+        this.directory = directory;
+        this.maxShardBytes = Math.max(maxShardBytes, 0);
+        this.sessionSettings = List.copyOf(sessionSettings);
+        this.transactional = transactional;
+        this.schema = new Shard("schema", null, SCHEMA_FILE, false);
+        this.postData = new Shard("post-data", null, POST_DATA_FILE, false);
+    }
+
+    public static ShardedOutputFiles open(Path directory, long maxShardBytes, List<String> sessionSettings,
+                                          boolean transactional) throws IOException {
+        Files.createDirectories(directory.resolve(DATA_DIRECTORY));
+        return new ShardedOutputFiles(directory, maxShardBytes, sessionSettings, transactional);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public OutputSink schema() {
+        return schema;
+    }
+
+    public OutputSink postData() {
+        return postData;
+    }
+
+    /**
+     * 新建一个索引构建通道文件 indexes/lane-N.sql，N 从 1 开始。
+     */
+    public OutputSink newIndexLane() throws IOException {
+        Files.createDirectories(directory.resolve(INDEX_DIRECTORY));
+        Shard lane = new Shard("index-lane", null, INDEX_DIRECTORY + "/lane-" + (indexLanes.size() + 1) + ".sql", false);
+        indexLanes.add(lane);
+        return lane;
+    }
+
+    /**
+     * 指定表当前的数据文件，tableName 为 null 时返回 data.sql。
+     */
+    public OutputSink data(String tableName) throws IOException {
+        Shard shard = currentShard(tableName);
+        if (activeData != shard) {
+            if (activeData != null) {
+                activeData.suspend();
+            }
+            activeData = shard;
+        }
+        return shard;
+    }
+
+    /**
+     * 指定表当前的数据文件是否已达到上限，应在语句或数据块边界处调用 {@link #roll(String)}。
+     */
+    public boolean isFull(String tableName) {
+        if (maxShardBytes == 0 || tableName == null) {
+            return false;
+        }
+        List<Shard> shards = dataShards.get(tableName);
+        return shards != null && shards.get(shards.size() - 1).bytes >= maxShardBytes;
+    }
+
+    /**
+     * 结束指定表当前的数据文件，之后的数据写入新文件。
+     */
+    public void roll(String tableName) throws IOException {
+        List<Shard> shards = dataShards.get(tableName);
+        if (shards == null) {
+            return;
+        }
+        Shard current = shards.get(shards.size() - 1);
+        current.finish();
+        if (activeData == current) {
+            activeData = null;
+        }
+        shards.add(newDataShard(tableName));
+    }
+
+    /**
+     * 记录按外键依赖划分的导入批次（规范化表名），写入清单供并行加载器按批次调度。
+     */
+    public void setLoadWaves(List<List<String>> loadWaves, List<List<String>> cyclicGroups) {
+        this.loadWaves = List.copyOf(loadWaves);
+        this.cyclicGroups = List.copyOf(cyclicGroups);
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        List<Shard> all = new ArrayList<>();
+        all.add(schema);
+        dataShards.values().forEach(all::addAll);
+        if (unsortedData != null) {
+            all.add(unsortedData);
+        }
+        all.addAll(indexLanes);
+        all.add(postData);
+        for (Shard shard : all) {
+            try {
+                shard.finish();
+            } catch (IOException ex) {
+                failure = failure == null ? ex : failure;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        Files.write(directory.resolve(MANIFEST), manifest(all).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Shard currentShard(String tableName) {
+        if (tableName == null) {
+            if (unsortedData == null) {
+                unsortedData = new Shard("data", null, UNSORTED_DATA_FILE, true);
+            }
+            return unsortedData;
+        }
+        List<Shard> shards = dataShards.computeIfAbsent(tableName, key -> new ArrayList<>());
+        if (shards.isEmpty()) {
+            shards.add(newDataShard(tableName));
+        }
+        return shards.get(shards.size() - 1);
+    }
+
+    private Shard newDataShard(String tableName) {
+        String base = tableName.replaceAll("[^A-Za-z0-9_.-]", "_");
+        String name = base + ".sql";
+        for (int i = 2; !fileNames.add(name); i++) {
+            name = base + "." + i + ".sql";
+        }
+        return new Shard("data", tableName, DATA_DIRECTORY + "/" + name, true);
+    }
+
+    /**
+     * schema 无依赖；各表数据依赖 schema，续写的 表名.N.sql 另外依赖同表的上一个文件，保持表内语句顺序；data.sql 依赖全部表数据；索引通道依赖全部数据；post-data 依赖全部数据与索引通道。
+     */
+    private String manifest(List<Shard> all) {
+        List<String> tableData = new ArrayList<>();
+        dataShards.values().forEach(shards -> shards.forEach(shard -> tableData.add(shard.path)));
+        List<String> allData = new ArrayList<>(tableData);
+        if (unsortedData != null) {
+            allData.add(unsortedData.path);
+        }
+        StringBuilder json = new StringBuilder("{\n  \"version\": 1,\n  \"files\": [");
+        for (int i = 0; i < all.size(); i++) {
+            Shard shard = all.get(i);
+            List<String> dependsOn;
+            List<String> afterData = allData.isEmpty() ? List.of(schema.path) : allData;
+            if (shard == schema) {
+                dependsOn = List.of();
+            } else if (indexLanes.contains(shard)) {
+                dependsOn = afterData;
+            } else if (shard == postData) {
+                dependsOn = new ArrayList<>(afterData);
+                for (Shard lane : indexLanes) {
+                    dependsOn.add(lane.path);
+                }
+            } else if (shard == unsortedData) {
+                dependsOn = new ArrayList<>(tableData);
+                dependsOn.add(0, schema.path);
+            } else {
+                Shard previous = previousShard(shard);
+                dependsOn = previous == null ? List.of(schema.path) : List.of(schema.path, previous.path);
+            }
+            json.append(i == 0 ? "\n" : ",\n").append("    {\"path\": ").append(jsonString(shard.path))
+                    .append(", \"kind\": ").append(jsonString(shard.kind));
+            if (shard.tableName != null) {
+                json.append(", \"table\": ").append(jsonString(shard.tableName));
+            }
+            int wave = waveOf(shard.tableName);
+            if (wave >= 0) {
+                json.append(", \"wave\": ").append(wave);
+            }
+            json.append(", \"bytes\": ").append(shard.bytes).append(", \"dependsOn\": [");
+            for (int d = 0; d < dependsOn.size(); d++) {
+                json.append(d == 0 ? "" : ", ").append(jsonString(dependsOn.get(d)));
+            }
+            json.append("]}");
+        }
+        json.append("\n  ]");
+        if (!loadWaves.isEmpty()) {
+            json.append(",\n  \"waves\": ");
+            appendNames(json, loadWaves);
+            json.append(",\n  \"cyclicGroups\": ");
+            appendNames(json, cyclicGroups);
+        }
+        return json.append("\n}\n").toString();
+    }
+
+    private Shard previousShard(Shard shard) {
+        List<Shard> shards = dataShards.get(shard.tableName);
+        int index = shards == null ? -1 : shards.indexOf(shard);
+        return index > 0 ? shards.get(index - 1) : null;
+    }
+
+    private int waveOf(String tableName) {
+        if (tableName == null) {
+            return -1;
+        }
+        String normalized = tableName.replace("\"", "").toLowerCase(Locale.ROOT);
+        for (int i = 0; i < loadWaves.size(); i++) {
+            if (loadWaves.get(i).contains(normalized)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void appendNames(StringBuilder json, List<List<String>> groups) {
+        json.append('[');
+        for (int i = 0; i < groups.size(); i++) {
+            json.append(i == 0 ? "" : ", ").append('[');
+            for (int t = 0; t < groups.get(i).size(); t++) {
+                json.append(t == 0 ? "" : ", ").append(jsonString(groups.get(i).get(t)));
+            }
+            json.append(']');
+        }
+        json.append(']');
+    }
+
+    static String jsonString(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20) {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    /**
+     * 单个输出文件，按需打开并统计写入的 UTF-8 字节数。
+     */
+    private final class Shard implements OutputSink {
+        private final String kind;
+        private final String tableName;
+        private final String path;
+        private final boolean dataFile;
+        private FileChannelOutputSink sink;
+        private boolean started;
+        private boolean finished;
+        private long bytes;
+
+        Shard(String kind, String tableName, String path, boolean dataFile) {
+            this.kind = kind;
+            this.tableName = tableName;
+            this.path = path;
+            this.dataFile = dataFile;
+        }
+
+        @Override
+        public void write(CharSequence text) throws IOException {
+            if (finished) {
+                throw new IllegalStateException(path + " 已结束写入");
+            }
+            if (sink == null) {
+                sink = new FileChannelOutputSink(FileChannel.open(directory.resolve(path), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, started ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING),
+                        BUFFER_SIZE);
+                if (!started) {
+                    started = true;
+                    if (dataFile) {
+                        for (String setting : sessionSettings) {
+                            append(setting + ";\n");
+                        }
+                        if (transactional) {
+                            append("BEGIN;\n");
+                        }
+                    }
+                }
+            }
+            append(text);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (sink != null) {
+                sink.flush();
+            }
+        }
+
+        /**
+         * 暂时关闭文件，再次写入时追加。
+         */
+        void suspend() throws IOException {
+            if (sink != null) {
+                sink.close();
+                sink = null;
+            }
+        }
+
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            if (!started) {
+                // 未写入内容的文件也要创建，保证清单中的路径都存在
+                write("");
+            }
+            if (dataFile && transactional) {
+                write("COMMIT;\n");
+            }
+            finished = true;
+            suspend();
+        }
+
+        private void append(CharSequence text) throws IOException {
+            sink.write(text);
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                bytes += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+            }
+        }
+    }
+}
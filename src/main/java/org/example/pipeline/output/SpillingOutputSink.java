@@ -0,0 +1,98 @@
+package org.example.pipeline.output;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 暂存一段输出，超过阈值后溢写到临时文件，随后通过 {@link #transferTo(OutputSink)} 整体转写到目标输出。
+ * 用于批量导入布局下把数据段排到全部表结构之后。
+ */
+public class SpillingOutputSink implements OutputSink {
+
+    static final int DEFAULT_THRESHOLD = 16 * 1024 * 1024;
+    private static final int TRANSFER_CHUNK = 64 * 1024;
+
+    private final int threshold;
+    private final StringBuilder memory = new StringBuilder();
+    private Path spillFile;
+    private Writer spillWriter;
+
+    public SpillingOutputSink() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    public SpillingOutputSink(int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void write(CharSequence text) throws IOException {
+        if (spillWriter == null && memory.length() + text.length() <= threshold) {
+            memory.append(text);
+            return;
+        }
+        if (spillWriter == null) {
+            spillFile = Files.createTempFile("sql-convert-data", ".sql");
+            spillWriter = new BufferedWriter(Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8), TRANSFER_CHUNK);
+            spillWriter.append(memory);
+            memory.setLength(0);
+            memory.trimToSize();
+        }
+        spillWriter.append(text);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (spillWriter != null) {
+            spillWriter.flush();
+        }
+    }
+
+    /**
+     * 将暂存内容按写入顺序写到目标输出并清空。
+     */
+    public void transferTo(OutputSink target) throws IOException {
+        if (spillWriter == null) {
+            if (memory.length() > 0) {
+                target.write(memory);
+                memory.setLength(0);
+            }
+            return;
+        }
+        spillWriter.close();
+        spillWriter = null;
+        char[] chunk = new char[TRANSFER_CHUNK];
+        try (BufferedReader reader = Files.newBufferedReader(spillFile, StandardCharsets.UTF_8)) {
+            int read;
+            while ((read = reader.read(chunk)) != -1) {
+                target.write(CharBuffer.wrap(chunk, 0, read));
+            }
+        }
+        deleteSpillFile();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (spillWriter != null) {
+                spillWriter.close();
+                spillWriter = null;
+            }
+        } finally {
+            deleteSpillFile();
+        }
+    }
+
+    private void deleteSpillFile() throws IOException {
+        if (spillFile != null) {
+            Files.deleteIfExists(spillFile);
+            spillFile = null;
+        }
+    }
+}
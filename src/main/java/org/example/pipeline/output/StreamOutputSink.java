@@ -0,0 +1,57 @@
+package org.example.pipeline.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 管道输出（如 stdout 接 psql）：内容先在内存中累积，超过阈值后仅在一段文本以换行结尾时整体写出并 flush，
+ * 下游读到的总是完整的行，内存占用不随输入增长。
+ */
+public class StreamOutputSink implements OutputSink {
+
+    static final int DEFAULT_FLUSH_CHARS = 64 * 1024;
+
+    private final Writer writer;
+    private final int flushChars;
+    private final StringBuilder pending;
+
+    public StreamOutputSink(OutputStream outputStream) {
+        this(outputStream, DEFAULT_FLUSH_CHARS);
+    }
+
+    public StreamOutputSink(OutputStream outputStream, int flushChars) {
+        this.writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        this.flushChars = Math.max(flushChars, 1);
+        this.pending = new StringBuilder(this.flushChars + 1024);
+    }
+
+    @Override
+    public void write(CharSequence text) throws IOException {
+        pending.append(text);
+        int length = pending.length();
+        if (length >= flushChars && pending.charAt(length - 1) == '\n') {
+            flush();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (pending.length() > 0) {
+            writer.append(pending);
+            pending.setLength(0);
+        }
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.pipeline.output;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * 基于 {@link Writer} 的输出，写入时由 BufferedWriter 缓冲，超出缓冲区即落盘。
+ */
+public class WriterOutputSink implements OutputSink {
+
+    static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    private final Writer writer;
+
+    public WriterOutputSink(Writer writer) {
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer, DEFAULT_BUFFER_SIZE);
+    }
+
+    @Override
+    public void write(CharSequence text) throws IOException {
+        writer.append(text);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
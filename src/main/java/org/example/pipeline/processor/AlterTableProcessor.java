@@ -5,17 +5,20 @@ import net.sf.jsqlparser.statement.alter.Alter;
 import net.sf.jsqlparser.statement.alter.AlterExpression;
 import net.sf.jsqlparser.statement.alter.AlterOperation;
 import net.sf.jsqlparser.statement.create.table.ColumnDefinition;
+import net.sf.jsqlparser.statement.create.table.ForeignKeyIndex;
 import org.example.pipeline.ConversionContext;
 import org.example.pipeline.ConversionResult;
+import org.example.pipeline.OutputSection;
 import org.example.pipeline.StatementProcessor;
 import org.example.pipeline.converter.CreateTableConverter;
+import org.example.pipeline.converter.ForeignKeyConstraint;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
 /**
- * ALTER TABLE 语句处理器，当前聚焦列新增/索引等语句的透传与必要的方言替换。
+ * ALTER TABLE 语句处理器，当前聚焦列新增/索引/外键等语句的透传与必要的方言替换。
  */
 public class AlterTableProcessor implements StatementProcessor {
 
@@ -27,6 +30,8 @@ public class AlterTableProcessor implements StatementProcessor {
     @Override
     public void process(Statement statement, ConversionContext context, ConversionResult result) {
         Alter alter = (Alter) statement;
+        context.getSchemaMetadata().registerAddedColumns(alter);
+        context.getSchemaMetadata().registerAddedForeignKeys(alter);
         if (processColumnAdditions(alter, context, result)) {
             return;
         }
@@ -35,7 +40,33 @@ public class AlterTableProcessor implements StatementProcessor {
         }
         String sql = alter.toString();
         sql = normalize(sql);
-        result.appendStatement(sql);
+        result.appendStatement(classify(alter), alter.getTable().getFullyQualifiedName(), sql);
+    }
+
+    /**
+     * 透传语句的段落：只新增索引的归入索引段，只新增外键的归入外键段，其余按表结构处理。
+     */
+    private OutputSection classify(Alter alter) {
+        List<AlterExpression> expressions = alter.getAlterExpressions();
+        if (expressions == null || expressions.isEmpty()) {
+            return OutputSection.SCHEMA;
+        }
+        boolean allIndexes = true;
+        boolean allForeignKeys = true;
+        for (AlterExpression expression : expressions) {
+            boolean add = expression.getOperation() == AlterOperation.ADD;
+            boolean foreignKey = add && isForeignKey(expression);
+            allForeignKeys &= foreignKey;
+            allIndexes &= add && !foreignKey && expression.getIndex() != null;
+        }
+        if (allIndexes) {
+            return OutputSection.INDEXES;
+        }
+        return allForeignKeys ? OutputSection.FOREIGN_KEYS : OutputSection.SCHEMA;
+    }
+
+    private boolean isForeignKey(AlterExpression expression) {
+        return expression.getIndex() instanceof ForeignKeyIndex || expression.getFkColumns() != null;
     }
 
     private String normalize(String sql) {
@@ -77,15 +108,55 @@ public class AlterTableProcessor implements StatementProcessor {
         }
         boolean handled = false;
         for (AlterExpression expression : alter.getAlterExpressions()) {
-            if (expression.getOperation() == AlterOperation.ADD && expression.getIndex() != null) {
+            if (expression.getOperation() != AlterOperation.ADD) {
+                continue;
+            }
+            String tableName = alter.getTable().getFullyQualifiedName();
+            if (isForeignKey(expression)) {
+                ForeignKeyConstraint foreignKey = toForeignKey(tableName, expression);
+                if (foreignKey != null) {
+                    handled = true;
+                    CreateTableProcessor.appendForeignKey(foreignKey, context.getDialectProfile(), result);
+                }
+            } else if (expression.getIndex() != null) {
                 handled = true;
-                String createSql = renderCreateIndex(alter.getTable().getFullyQualifiedName(), expression);
-                result.appendStatement(createSql);
+                String createSql = renderCreateIndex(tableName, expression);
+                result.appendStatement(OutputSection.INDEXES, tableName, createSql);
             }
         }
         return handled;
     }
 
+    /**
+     * 外键定义沿用原语句中 FOREIGN KEY 起的部分（含 ON DELETE 等动作），未命名时按默认规则命名。
+     */
+    private ForeignKeyConstraint toForeignKey(String tableName, AlterExpression expression) {
+        String text = normalize(expression.toString());
+        int start = text.toUpperCase(Locale.ROOT).indexOf("FOREIGN KEY");
+        if (start < 0) {
+            return null;
+        }
+        List<String> columns;
+        String name = null;
+        if (expression.getIndex() instanceof ForeignKeyIndex) {
+            columns = expression.getIndex().getColumnsNames();
+            name = expression.getIndex().getName();
+        } else {
+            columns = expression.getFkColumns();
+        }
+        if (name == null || name.isBlank()) {
+            name = expression.getConstraintName();
+        }
+        if (name == null || name.isBlank()) {
+            if (columns == null || columns.isEmpty()) {
+                return null;
+            }
+            name = ForeignKeyConstraint.defaultName(tableName, columns);
+        }
+        String definition = text.substring(start).replace("`", "").trim();
+        return new ForeignKeyConstraint(tableName, name.replace("`", "").replace("\"", "").trim(), definition);
+    }
+
     private void handleAddColumnDefinition(String tableName, ColumnDefinition columnDefinition,
                                            ConversionContext context, ConversionResult result) {
         ColumnDefinition cloned = new ColumnDefinition();
@@ -97,10 +168,10 @@ public class AlterTableProcessor implements StatementProcessor {
         String commentSql = converter.extractSingleColumnComment(tableName, cloned);
         String columnSql = converter.renderColumnDefinition(tableName, cloned);
         String addColumnSql = String.format("ALTER TABLE %s ADD COLUMN %s;", tableName, columnSql);
-        result.appendStatement(addColumnSql);
+        result.appendStatement(OutputSection.SCHEMA, tableName, addColumnSql);
 
         if (commentSql != null) {
-            result.appendStatement(commentSql);
+            result.appendStatement(OutputSection.SCHEMA, tableName, commentSql);
         }
     }
 
@@ -0,0 +1,386 @@
+package org.example.pipeline.processor;
+
+import org.example.pipeline.RowPlan;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * PostgreSQL 二进制 COPY（PGCOPY）元组编码，按目标列类型写入 send/recv 格式。
+ * 值无法按目标类型精确编码时各 put 方法返回 false，由调用方将整条语句回退为 INSERT。
+ */
+final class BinaryCopyFormat {
+
+    /**
+     * 可编码的目标列类型，对应 {@link org.example.DataTypeMapping} 映射出的 PostgreSQL 类型。
+     */
+    enum Type {
+        BOOLEAN, SMALLINT, INT, BIGINT, REAL, DOUBLE, NUMERIC, TEXT, BYTEA, TIMESTAMP, DATE, TIME;
+
+        /**
+         * @return 无法识别或为 null 时返回 null
+         */
+        static Type of(String targetDataType) {
+            if (targetDataType == null) {
+                return null;
+            }
+            switch (targetDataType.toLowerCase(Locale.ROOT)) {
+                case "boolean":
+                    return BOOLEAN;
+                case "smallint":
+                    return SMALLINT;
+                case "int":
+                    return INT;
+                case "bigint":
+                    return BIGINT;
+                case "real":
+                    return REAL;
+                case "double precision":
+                    return DOUBLE;
+                case "numeric":
+                    return NUMERIC;
+                case "varchar":
+                case "char":
+                case "text":
+                    return TEXT;
+                case "bytea":
+                    return BYTEA;
+                case "timestamp":
+                    return TIMESTAMP;
+                case "date":
+                    return DATE;
+                case "time":
+                    return TIME;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    private static final LocalDateTime POSTGRES_EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = new DateTimeFormatterBuilder()
+            .appendPattern("uuuu-MM-dd")
+            .optionalStart()
+            .appendLiteral(' ')
+            .appendPattern("HH:mm:ss")
+            .optionalStart()
+            .appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true)
+            .optionalEnd()
+            .optionalEnd()
+            .toFormatter(Locale.ROOT)
+            .withResolverStyle(ResolverStyle.STRICT);
+    private static final DateTimeFormatter TIME_FORMAT = new DateTimeFormatterBuilder()
+            .appendPattern("HH:mm:ss")
+            .optionalStart()
+            .appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true)
+            .optionalEnd()
+            .toFormatter(Locale.ROOT)
+            .withResolverStyle(ResolverStyle.STRICT);
+    private static final BigInteger NBASE = BigInteger.valueOf(10000);
+
+    private BinaryCopyFormat() {
+    }
+
+    /**
+     * 行渲染计划中各列的编码类型，存在未知类型（如目标表缺少元数据）时返回 null。
+     */
+    static Type[] types(RowPlan rowPlan) {
+        Type[] types = new Type[rowPlan.width()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = Type.of(rowPlan.getTargetType(i));
+            if (types[i] == null) {
+                return null;
+            }
+        }
+        return types;
+    }
+
+    /**
+     * 逐行累积编码结果的缓冲区，一条 INSERT 使用一个实例。
+     */
+    static final class Encoder {
+        private byte[] buffer;
+        private int size;
+
+        Encoder(int initialCapacity) {
+            this.buffer = new byte[Math.max(initialCapacity, 64)];
+        }
+
+        void beginRow(int width) {
+            putShort(width);
+        }
+
+        boolean putNull() {
+            putInt(-1);
+            return true;
+        }
+
+        boolean putBoolean(Type type, boolean value) {
+            if (type != Type.BOOLEAN) {
+                return false;
+            }
+            putInt(1);
+            putByte(value ? 1 : 0);
+            return true;
+        }
+
+        /**
+         * 整数字面量，文本/二进制列按 {@link String#valueOf(long)} 写入，与 INSERT 输出一致。
+         */
+        boolean putLong(Type type, long value) {
+            switch (type) {
+                case SMALLINT:
+                    if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                        return false;
+                    }
+                    putInt(2);
+                    putShort((int) value);
+                    return true;
+                case INT:
+                    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                        return false;
+                    }
+                    putInt(4);
+                    putInt((int) value);
+                    return true;
+                case BIGINT:
+                    putInt(8);
+                    putLong(value);
+                    return true;
+                case REAL:
+                case DOUBLE:
+                case NUMERIC:
+                    return putNumber(type, BigDecimal.valueOf(value));
+                case TEXT:
+                case BYTEA:
+                    return putText(String.valueOf(value));
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * 小数或带符号数字字面量的原文：数值列按 {@link BigDecimal} 精确解析（保留位数与末尾的 0），
+         * 文本/二进制列按原文写入。
+         */
+        boolean putNumericLiteral(Type type, String literal) {
+            switch (type) {
+                case TEXT:
+                case BYTEA:
+                    return putText(literal);
+                default:
+                    BigDecimal number = parseNumber(literal);
+                    return number != null && putNumber(type, number);
+            }
+        }
+
+        /**
+         * 已去掉引号与 '' 转义的字符串值，数值/时间列按 PostgreSQL 输入规则解析，无法解析时返回 false。
+         */
+        boolean putString(Type type, String value) {
+            switch (type) {
+                case TEXT:
+                case BYTEA:
+                    return putText(value);
+                case TIMESTAMP:
+                    return putTimestamp(value);
+                case DATE:
+                    return putDate(value);
+                case TIME:
+                    return putTime(value);
+                case BOOLEAN:
+                    return false;
+                default:
+                    BigDecimal number = parseNumber(value);
+                    return number != null && putNumber(type, number);
+            }
+        }
+
+        /**
+         * 十六进制字面量，仅可写入 bytea 列。
+         */
+        boolean putHex(Type type, String literal) {
+            if (type != Type.BYTEA) {
+                return false;
+            }
+            String digits = LiteralSanitizer.hexDigits(literal);
+            if (digits.length() % 2 != 0) {
+                digits = "0" + digits;
+            }
+            putInt(digits.length() / 2);
+            for (int i = 0; i < digits.length(); i += 2) {
+                putByte(Integer.parseInt(digits, i, i + 2, 16));
+            }
+            return true;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private boolean putNumber(Type type, BigDecimal number) {
+            switch (type) {
+                case SMALLINT:
+                case INT:
+                case BIGINT:
+                    try {
+                        return putLong(type, number.longValueExact());
+                    } catch (ArithmeticException ex) {
+                        return false;
+                    }
+                case REAL:
+                    putInt(4);
+                    putInt(Float.floatToIntBits(number.floatValue()));
+                    return true;
+                case DOUBLE:
+                    putInt(8);
+                    putLong(Double.doubleToLongBits(number.doubleValue()));
+                    return true;
+                case NUMERIC:
+                    putNumeric(number);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private boolean putText(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+            return true;
+        }
+
+        private boolean putTimestamp(String value) {
+            LocalDateTime dateTime;
+            try {
+                Object parsed = TIMESTAMP_FORMAT.parseBest(value.trim(), LocalDateTime::from, LocalDate::from);
+                dateTime = parsed instanceof LocalDate ? ((LocalDate) parsed).atStartOfDay() : (LocalDateTime) parsed;
+            } catch (DateTimeParseException ex) {
+                return false;
+            }
+            if (dateTime.getNano() % 1000 != 0) {
+                return false;
+            }
+            putInt(8);
+            putLong(ChronoUnit.MICROS.between(POSTGRES_EPOCH, dateTime));
+            return true;
+        }
+
+        private boolean putDate(String value) {
+            LocalDate date;
+            try {
+                date = LocalDate.parse(value.trim(), DateTimeFormatter.ISO_LOCAL_DATE);
+            } catch (DateTimeParseException ex) {
+                return false;
+            }
+            putInt(4);
+            putInt((int) ChronoUnit.DAYS.between(POSTGRES_EPOCH.toLocalDate(), date));
+            return true;
+        }
+
+        private boolean putTime(String value) {
+            LocalTime time;
+            try {
+                time = LocalTime.parse(value.trim(), TIME_FORMAT);
+            } catch (DateTimeParseException ex) {
+                return false;
+            }
+            if (time.getNano() % 1000 != 0) {
+                return false;
+            }
+            putInt(8);
+            putLong(time.toNanoOfDay() / 1000);
+            return true;
+        }
+
+        /**
+         * numeric 的 send 格式：ndigits、weight、sign、dscale 后接以 10000 为基的各位。
+         */
+        private void putNumeric(BigDecimal number) {
+            int dscale = Math.max(number.scale(), 0);
+            BigDecimal abs = number.abs().setScale(dscale);
+            int sign = number.signum() < 0 ? 0x4000 : 0;
+            // 小数部分补齐到 4 位的整数倍，使未缩放值按 10000 分组后恰好对齐小数点
+            int fractionGroups = (dscale + 3) / 4;
+            BigInteger unscaled = abs.unscaledValue().multiply(BigInteger.TEN.pow(fractionGroups * 4 - dscale));
+            short[] groups = new short[unscaled.toString().length() / 4 + 1];
+            int count = 0;
+            while (unscaled.signum() > 0) {
+                BigInteger[] division = unscaled.divideAndRemainder(NBASE);
+                groups[count++] = division[1].shortValue();
+                unscaled = division[0];
+            }
+            // groups 低位在前；去掉末尾（低位）的 0 组
+            int lowest = 0;
+            while (lowest < count && groups[lowest] == 0) {
+                lowest++;
+            }
+            int ndigits = count - lowest;
+            int weight = ndigits == 0 ? 0 : count - fractionGroups - 1;
+            if (ndigits == 0) {
+                sign = 0;
+            }
+            putInt(8 + ndigits * 2);
+            putShort(ndigits);
+            putShort(weight);
+            putShort(sign);
+            putShort(dscale);
+            for (int i = count - 1; i >= lowest; i--) {
+                putShort(groups[i]);
+            }
+        }
+
+        private void putByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+
+        private void putShort(int value) {
+            ensureCapacity(2);
+            buffer[size++] = (byte) (value >>> 8);
+            buffer[size++] = (byte) value;
+        }
+
+        private void putInt(int value) {
+            ensureCapacity(4);
+            buffer[size++] = (byte) (value >>> 24);
+            buffer[size++] = (byte) (value >>> 16);
+            buffer[size++] = (byte) (value >>> 8);
+            buffer[size++] = (byte) value;
+        }
+
+        private void putLong(long value) {
+            putInt((int) (value >>> 32));
+            putInt((int) value);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+
+    private static BigDecimal parseNumber(String value) {
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.pipeline.processor;
+
+import org.example.pipeline.RowBlock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * PostgreSQL COPY ... FROM STDIN 文本格式的块头/块尾与字段转义。
+ * 字段以制表符分隔、行以换行结束，NULL 写作 {@code \N}，bytea 写作 {@code \\x} 十六进制。
+ */
+final class CopyTextFormat {
+
+    static final String NULL = "\\N";
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private CopyTextFormat() {
+    }
+
+    /**
+     * 同一张表、同一列清单的连续数据行合并为一个 COPY 块，不拆分。
+     */
+    static RowBlock block(String tableName, List<String> columnNames) {
+        return new RowBlock(tableName, "COPY " + tableName + " (" + String.join(", ", columnNames) + ") FROM STDIN;\n",
+                "", "\\.\n", 0, 0);
+    }
+
+    static String formatBoolean(boolean value) {
+        return value ? "t" : "f";
+    }
+
+    /**
+     * 写入 SQL 字符串字面量 {@code '...'} 的内容：还原 {@code ''} 后按 COPY 规则转义。
+     */
+    static void appendQuoted(StringBuilder builder, String sql, int start, int end) {
+        appendEscaped(builder, unquote(sql, start, end));
+    }
+
+    static void appendEscaped(StringBuilder builder, CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\b':
+                    builder.append("\\b");
+                    break;
+                case '\f':
+                    builder.append("\\f");
+                    break;
+                case '\u000B':
+                    builder.append("\\v");
+                    break;
+                default:
+                    builder.append(c);
+            }
+        }
+    }
+
+    /**
+     * 文本按 UTF-8 编码写成 bytea 十六进制，与 INSERT 输出的 convert_to(..., 'UTF8') 等价。
+     */
+    static void appendBytea(StringBuilder builder, String text) {
+        builder.append("\\\\x");
+        for (byte b : text.getBytes(StandardCharsets.UTF_8)) {
+            builder.append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+        }
+    }
+
+    /**
+     * 十六进制字面量（0xABCD / X'ABCD'）直接写成 bytea 十六进制，奇数位时补前导 0。
+     */
+    static void appendHexBytea(StringBuilder builder, String literal) {
+        String digits = LiteralSanitizer.hexDigits(literal);
+        builder.append("\\\\x");
+        if (digits.length() % 2 != 0) {
+            builder.append('0');
+        }
+        builder.append(digits.toLowerCase(Locale.ROOT));
+    }
+
+    static String unquote(String sql, int start, int end) {
+        String inner = sql.substring(start + 1, end - 1);
+        return inner.indexOf('\'') < 0 ? inner : inner.replace("''", "'");
+    }
+}
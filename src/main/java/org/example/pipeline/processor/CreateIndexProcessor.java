@@ -4,6 +4,7 @@ import net.sf.jsqlparser.statement.Statement;
 import net.sf.jsqlparser.statement.create.index.CreateIndex;
 import org.example.pipeline.ConversionContext;
 import org.example.pipeline.ConversionResult;
+import org.example.pipeline.OutputSection;
 import org.example.pipeline.StatementProcessor;
 
 /**
@@ -20,6 +21,6 @@ public class CreateIndexProcessor implements StatementProcessor {
     @Override
     public void process(Statement statement, ConversionContext context, ConversionResult result) {
         String sql = statement.toString();
-        result.appendStatement(sql);
+        result.appendStatement(OutputSection.INDEXES, ((CreateIndex) statement).getTable().getFullyQualifiedName(), sql);
     }
 }
@@ -5,12 +5,17 @@ import net.sf.jsqlparser.statement.Statement;
 import net.sf.jsqlparser.statement.create.table.CreateTable;
 import org.example.pipeline.ConversionContext;
 import org.example.pipeline.ConversionResult;
+import org.example.pipeline.OutputSection;
 import org.example.pipeline.StatementProcessor;
 import org.example.pipeline.TableMetadata;
 import org.example.pipeline.converter.CreateTableConverter;
+import org.example.pipeline.converter.ForeignKeyConstraint;
+import org.example.pipeline.converter.TableDdlParts;
+import org.example.pipeline.dialect.DialectProfile;
 
 /**
  * CREATE TABLE 转换处理器：沿用原有逻辑并同步记录元数据。
+ * 批量导入布局下二级索引、外键与 ANALYZE 归入数据之后的段落；UNLOGGED 导入时在末尾恢复为 LOGGED。
  */
 public class CreateTableProcessor implements StatementProcessor {
 
@@ -22,16 +27,41 @@ public class CreateTableProcessor implements StatementProcessor {
     @Override
     public void process(Statement statement, ConversionContext context, ConversionResult result) throws JSQLParserException {
         CreateTable createTable = (CreateTable) statement;
-        CreateTableConverter converter = context.getDialectProfile().getCreateTableConverter();
-        String sql = converter.convert(createTable);
-        appendWithNewline(result, sql);
+        DialectProfile profile = context.getDialectProfile();
+        CreateTableConverter converter = profile.getCreateTableConverter();
+        if (profile.getOptions().isBulkLoadLayout()) {
+            TableDdlParts parts = converter.convertParts(createTable);
+            appendWithNewline(result, parts.getTableName(), parts.getTableSql());
+            for (String indexStatement : parts.getIndexStatements()) {
+                result.appendStatement(OutputSection.INDEXES, parts.getTableName(), indexStatement);
+            }
+            for (ForeignKeyConstraint foreignKey : parts.getForeignKeys()) {
+                appendForeignKey(foreignKey, profile, result);
+            }
+            result.appendStatement(OutputSection.ANALYZE, "ANALYZE " + parts.getTableName());
+        } else {
+            appendWithNewline(result, createTable.getTable().getFullyQualifiedName(), converter.convert(createTable));
+        }
+        if (profile.emitsUnloggedLoad()) {
+            result.appendStatement(OutputSection.LOGGING,
+                    "ALTER TABLE IF EXISTS " + createTable.getTable().getFullyQualifiedName() + " SET LOGGED");
+        }
         context.getSchemaMetadata().register(TableMetadata.from(createTable));
     }
 
-    private void appendWithNewline(ConversionResult result, String sql) {
-        result.appendRaw(sql);
-        if (!sql.endsWith("\n")) {
-            result.appendRaw("\n");
+    /**
+     * 输出外键：批量导入布局且目标库支持时以 NOT VALID 添加，校验语句单独归入 {@link OutputSection#VALIDATION}。
+     */
+    static void appendForeignKey(ForeignKeyConstraint foreignKey, DialectProfile profile, ConversionResult result) {
+        if (profile.getOptions().isBulkLoadLayout() && profile.supportsNotValidConstraints()) {
+            result.appendStatement(OutputSection.FOREIGN_KEYS, foreignKey.toNotValidAddStatement());
+            result.appendStatement(OutputSection.VALIDATION, foreignKey.toValidateStatement());
+        } else {
+            result.appendStatement(OutputSection.FOREIGN_KEYS, foreignKey.toAddStatement());
         }
     }
+
+    private void appendWithNewline(ConversionResult result, String tableName, String sql) {
+        result.appendRaw(OutputSection.SCHEMA, tableName, sql.endsWith("\n") ? sql : sql + "\n");
+    }
 }
@@ -4,6 +4,7 @@ import net.sf.jsqlparser.statement.Statement;
 import net.sf.jsqlparser.statement.delete.Delete;
 import org.example.pipeline.ConversionContext;
 import org.example.pipeline.ConversionResult;
+import org.example.pipeline.OutputSection;
 import org.example.pipeline.StatementProcessor;
 import org.example.pipeline.dialect.DatabaseDialect;
 
@@ -19,9 +20,9 @@ public class DeleteStatementProcessor implements StatementProcessor {
 
     @Override
     public void process(Statement statement, ConversionContext context, ConversionResult result) {
-        String sql = statement.toString();
-        sql = normalize(sql, context.getTargetDialect());
-        result.appendStatement(sql);
+        Delete delete = (Delete) statement;
+        String sql = normalize(delete.toString(), context.getTargetDialect());
+        result.appendStatement(OutputSection.DATA, delete.getTable().getFullyQualifiedName(), sql);
     }
 
     private String normalize(String sql, DatabaseDialect dialect) {
@@ -6,6 +6,7 @@ import net.sf.jsqlparser.statement.drop.Drop;
 import org.example.ProcessSingleDropTable;
 import org.example.pipeline.ConversionContext;
 import org.example.pipeline.ConversionResult;
+import org.example.pipeline.OutputSection;
 import org.example.pipeline.StatementProcessor;
 
 /**
@@ -22,9 +23,6 @@ public class DropTableProcessor implements StatementProcessor {
     public void process(Statement statement, ConversionContext context, ConversionResult result) throws JSQLParserException {
         Drop drop = (Drop) statement;
         String sql = ProcessSingleDropTable.process(drop);
-        result.appendRaw(sql);
-        if (!sql.endsWith("\n")) {
-            result.appendRaw("\n");
-        }
+        result.appendRaw(OutputSection.SCHEMA, sql.endsWith("\n") ? sql : sql + "\n");
     }
 }
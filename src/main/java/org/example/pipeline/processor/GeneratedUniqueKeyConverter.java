@@ -3,6 +3,7 @@ package org.example.pipeline.processor;
 import org.example.pipeline.ColumnMetadata;
 import org.example.pipeline.ConversionContext;
 import org.example.pipeline.ConversionResult;
+import org.example.pipeline.OutputSection;
 import org.example.pipeline.SchemaMetadata;
 import org.example.pipeline.TableMetadata;
 import org.example.pipeline.dialect.DatabaseDialect;
@@ -117,7 +118,7 @@ public final class GeneratedUniqueKeyConverter {
                                                List<String> columns,
                                                TableMetadata tableMetadata,
                                                ConversionResult result) {
-        result.appendStatement(String.format("ALTER TABLE %s ADD COLUMN %s %s;", tableName, columnName, dataType));
+        result.appendStatement(OutputSection.SCHEMA, tableName, String.format("ALTER TABLE %s ADD COLUMN %s %s;", tableName, columnName, dataType));
 
         String functionName = buildFunctionName(tableName, columnName);
         String triggerName = buildTriggerName(tableName, columnName);
@@ -137,7 +138,7 @@ public final class GeneratedUniqueKeyConverter {
                 inputExpression,
                 columnName
         );
-        result.appendRaw(functionSql);
+        result.appendRaw(OutputSection.SCHEMA, tableName, functionSql);
 
         String triggerSql = String.format(
                 "CREATE TRIGGER %s\n" +
@@ -148,10 +149,10 @@ public final class GeneratedUniqueKeyConverter {
                 tableName,
                 functionName
         );
-        result.appendRaw(triggerSql);
+        result.appendRaw(OutputSection.SCHEMA, tableName, triggerSql);
 
         String indexName = sanitize(tableName).replace(".", "_") + "_" + columnName + "_idx";
-        result.appendStatement(String.format("CREATE UNIQUE INDEX %s ON %s (%s);", indexName, tableName, columnName));
+        result.appendStatement(OutputSection.INDEXES, tableName, String.format("CREATE UNIQUE INDEX %s ON %s (%s);", indexName, tableName, columnName));
     }
 
     private static String buildInputExpression(List<String> columns, TableMetadata tableMetadata) {
@@ -2,9 +2,11 @@ package org.example.pipeline.processor;
 
 import net.sf.jsqlparser.expression.DoubleValue;
 import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.HexValue;
 import net.sf.jsqlparser.expression.LongValue;
 import net.sf.jsqlparser.expression.NullValue;
 import net.sf.jsqlparser.expression.RowConstructor;
+import net.sf.jsqlparser.expression.SignedExpression;
 import net.sf.jsqlparser.expression.StringValue;
 import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
 import net.sf.jsqlparser.expression.operators.relational.ItemsList;
@@ -12,13 +14,16 @@ import net.sf.jsqlparser.expression.operators.relational.MultiExpressionList;
 import net.sf.jsqlparser.schema.Column;
 import net.sf.jsqlparser.statement.Statement;
 import net.sf.jsqlparser.statement.insert.Insert;
-import org.example.pipeline.ColumnMetadata;
 import org.example.pipeline.ConversionContext;
 import org.example.pipeline.ConversionResult;
+import org.example.pipeline.OutputSection;
+import org.example.pipeline.RowBlock;
+import org.example.pipeline.RowPlan;
 import org.example.pipeline.SchemaMetadata;
 import org.example.pipeline.StatementProcessor;
 import org.example.pipeline.TableMetadata;
 import org.example.pipeline.dialect.DatabaseDialect;
+import org.example.pipeline.dialect.DialectOptions;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -45,49 +50,90 @@ public class InsertStatementProcessor implements StatementProcessor {
         Optional<TableMetadata> tableMetadata = schemaMetadata.find(tableName);
 
         try {
-            List<String> columnNames = resolveColumnNames(insert, tableMetadata);
             List<List<Expression>> valueRows = extractValueRows(insert.getItemsList());
+            int width = valueRows.isEmpty() ? 0 : valueRows.get(0).size();
+            RowPlan rowPlan = resolveRowPlan(insert, tableMetadata, width);
             if (valueRows.isEmpty()) {
-                result.appendStatement(insert.toString());
+                result.appendStatement(OutputSection.DATA, tableName, insert.toString());
                 return;
             }
 
             DatabaseDialect dialect = context.getTargetDialect();
             boolean normalizeBoolean = context.getDialectProfile().supportsBooleanLiteralNormalization();
-            List<String> renderedRows = renderRows(valueRows, columnNames, tableMetadata.orElse(null), dialect, normalizeBoolean);
-
-            StringBuilder builder = new StringBuilder();
-            builder.append("INSERT INTO ")
-                    .append(tableName)
-                    .append(" (")
-                    .append(String.join(", ", columnNames))
-                    .append(") VALUES\n");
-            builder.append(renderedRows.stream()
-                    .map(row -> "    (" + row + ")")
-                    .collect(Collectors.joining(",\n")));
-            builder.append(";");
-            result.appendRaw(builder.append("\n").toString());
+            if (context.getDialectProfile().emitsBinaryCopyData() && result.acceptsBinaryRows()) {
+                byte[] tuples = renderBinaryRows(valueRows, rowPlan, normalizeBoolean);
+                if (tuples != null) {
+                    result.appendBinaryRows(tableName, rowPlan.getColumnNames(), tuples);
+                    context.getLoadStatistics().record(tableName, valueRows.size(), tuples.length);
+                    return;
+                }
+            }
+            if (context.getDialectProfile().emitsCopyData()) {
+                RenderedRows copyRows = renderCopyRows(valueRows, rowPlan, normalizeBoolean);
+                if (copyRows != null) {
+                    copyRows.appendTo(result, CopyTextFormat.block(tableName, rowPlan.getColumnNames()));
+                    copyRows.record(context, tableName);
+                    return;
+                }
+            }
+
+            RenderedRows rows = new RenderedRows(valueRows.size() * rowPlan.width() * 8, valueRows.size());
+            StringBuilder builder = rows.text();
+            for (List<Expression> row : valueRows) {
+                if (rowPlan.width() != row.size()) {
+                    throw new IllegalStateException("列数量与值数量不匹配: " + rowPlan.getColumnNames() + " vs " + row);
+                }
+                builder.append("    (");
+                for (int i = 0; i < row.size(); i++) {
+                    if (i > 0) {
+                        builder.append(", ");
+                    }
+                    builder.append(renderExpression(row.get(i), rowPlan, i, dialect, normalizeBoolean));
+                }
+                builder.append(')');
+                rows.endRow();
+            }
+            appendInsertRows(tableName, rowPlan, rows, context, result);
         } catch (RuntimeException ex) {
-            System.out.println("INSERT 转换失败，保持原语句: " + ex.getMessage());
-            result.appendStatement(insert.toString());
+            System.err.println("INSERT 转换失败，保持原语句: " + ex.getMessage());
+            result.appendStatement(OutputSection.DATA, tableName, insert.toString());
         }
     }
 
-    private List<String> resolveColumnNames(Insert insert, Optional<TableMetadata> tableMetadata) {
+    /**
+     * 输出 INSERT 数据行：配置了分批行数/字节数时交给结果按块合并相邻的同表同列 INSERT 并按上限拆分，
+     * 否则原样输出为一条语句。
+     */
+    static void appendInsertRows(String tableName, RowPlan rowPlan, RenderedRows rows, ConversionContext context,
+                                 ConversionResult result) {
+        DialectOptions options = context.getDialectProfile().getOptions();
+        RowBlock block = new RowBlock(tableName,
+                "INSERT INTO " + tableName + " (" + String.join(", ", rowPlan.getColumnNames()) + ") VALUES\n",
+                ",\n", ";\n", options.getInsertBatchRows(), options.getInsertBatchBytes());
+        if (options.isInsertBatching()) {
+            rows.appendTo(result, block);
+        } else {
+            result.appendRaw(OutputSection.DATA, tableName, rows.join(block));
+        }
+        rows.record(context, tableName);
+    }
+
+    private RowPlan resolveRowPlan(Insert insert, Optional<TableMetadata> tableMetadata, int width) {
         if (insert.getColumns() != null && !insert.getColumns().isEmpty()) {
-            return insert.getColumns().stream()
+            List<String> columnNames = insert.getColumns().stream()
                     .map(Column::getColumnName)
                     .collect(Collectors.toList());
+            return tableMetadata
+                    .map(metadata -> metadata.rowPlan(columnNames))
+                    .orElseGet(() -> RowPlan.withoutMetadata(columnNames));
         }
-        List<ColumnMetadata> columns = tableMetadata
-                .map(TableMetadata::getColumnsInDeclarationOrder)
-                .orElse(Collections.emptyList());
-        if (columns.isEmpty()) {
+        RowPlan rowPlan = tableMetadata
+                .map(metadata -> metadata.rowPlanForWidth(width))
+                .orElse(null);
+        if (rowPlan == null || rowPlan.width() == 0) {
             throw new IllegalStateException("INSERT 缺少列清单且无法从元数据推断: " + insert);
         }
-        return columns.stream()
-                .map(ColumnMetadata::getColumnName)
-                .collect(Collectors.toList());
+        return rowPlan;
     }
 
     private List<List<Expression>> extractValueRows(ItemsList itemsList) {
@@ -127,62 +173,149 @@ public class InsertStatementProcessor implements StatementProcessor {
         return true;
     }
 
-    private List<String> renderRows(List<List<Expression>> rows,
-                                    List<String> columnNames,
-                                    TableMetadata tableMetadata,
-                                    DatabaseDialect dialect,
-                                    boolean normalizeBoolean) {
-        List<String> rendered = new ArrayList<>();
-        for (List<Expression> row : rows) {
-            if (!columnNames.isEmpty() && columnNames.size() != row.size()) {
-                throw new IllegalStateException("列数量与值数量不匹配: " + columnNames + " vs " + row);
+    private String renderExpression(Expression expression, RowPlan rowPlan, int index,
+                                    DatabaseDialect dialect, boolean normalizeBoolean) {
+        boolean binaryColumn = rowPlan.isBinaryLike(index);
+        if (expression instanceof NullValue) {
+            return "NULL";
+        }
+        if (normalizeBoolean && rowPlan.isBooleanLike(index)) {
+            Boolean boolValue = extractBooleanValue(expression);
+            if (boolValue != null) {
+                return dialect.formatBoolean(boolValue);
+            }
+        }
+        if (expression instanceof StringValue) {
+            if (binaryColumn) {
+                String literal = LiteralSanitizer.removeBinaryPrefix(expression.toString());
+                return LiteralSanitizer.wrapBinaryLiteral(literal, true);
+            }
+//            String literal = LiteralSanitizer.removeBinaryPrefix(quoteString(((StringValue) expression).getValue()));
+            String literal = LiteralSanitizer.removeBinaryPrefix(expression.toString());
+            return LiteralSanitizer.wrapBinaryLiteral(literal, false);
+        }
+        if (expression instanceof LongValue) {
+            return LiteralSanitizer.wrapBinaryLiteral(String.valueOf(((LongValue) expression).getValue()), binaryColumn);
+        }
+        String raw = LiteralSanitizer.removeBinaryPrefix(expression.toString());
+        return LiteralSanitizer.wrapBinaryLiteral(raw, binaryColumn);
+    }
+
+    /**
+     * 按 COPY 文本格式渲染全部数据行，遇到无法写入 COPY 的值时返回 null，由调用方改为输出 INSERT。
+     */
+    private RenderedRows renderCopyRows(List<List<Expression>> valueRows, RowPlan rowPlan, boolean normalizeBoolean) {
+        RenderedRows rows = new RenderedRows(valueRows.size() * rowPlan.width() * 8, valueRows.size());
+        StringBuilder builder = rows.text();
+        for (List<Expression> row : valueRows) {
+            if (rowPlan.width() != row.size()) {
+                throw new IllegalStateException("列数量与值数量不匹配: " + rowPlan.getColumnNames() + " vs " + row);
             }
-            List<String> valueStrings = new ArrayList<>();
             for (int i = 0; i < row.size(); i++) {
-                ColumnMetadata columnMetadata = resolveColumnMetadata(columnNames, tableMetadata, i);
-                valueStrings.add(renderExpression(row.get(i), columnMetadata, dialect, normalizeBoolean));
+                if (i > 0) {
+                    builder.append('\t');
+                }
+                if (!appendCopyValue(builder, row.get(i), rowPlan, i, normalizeBoolean)) {
+                    return null;
+                }
             }
-            rendered.add(String.join(", ", valueStrings));
+            builder.append('\n');
+            rows.endRow();
         }
-        return rendered;
+        return rows;
     }
 
-    private ColumnMetadata resolveColumnMetadata(List<String> columnNames, TableMetadata tableMetadata, int index) {
-        if (tableMetadata == null || columnNames.isEmpty() || index >= columnNames.size()) {
+    private boolean appendCopyValue(StringBuilder builder, Expression expression, RowPlan rowPlan, int index,
+                                    boolean normalizeBoolean) {
+        boolean binaryColumn = rowPlan.isBinaryLike(index);
+        if (expression instanceof NullValue) {
+            builder.append(CopyTextFormat.NULL);
+            return true;
+        }
+        if (normalizeBoolean && rowPlan.isBooleanLike(index)) {
+            Boolean boolValue = extractBooleanValue(expression);
+            if (boolValue != null) {
+                builder.append(CopyTextFormat.formatBoolean(boolValue));
+                return true;
+            }
+        }
+        String text;
+        if (expression instanceof StringValue) {
+            text = ((StringValue) expression).getValue().replace("''", "'");
+        } else if (expression instanceof LongValue) {
+            text = String.valueOf(((LongValue) expression).getValue());
+        } else if (expression instanceof DoubleValue) {
+            text = expression.toString();
+        } else if (expression instanceof SignedExpression
+                && (((SignedExpression) expression).getExpression() instanceof LongValue
+                || ((SignedExpression) expression).getExpression() instanceof DoubleValue)) {
+            text = expression.toString();
+        } else if (expression instanceof HexValue && binaryColumn) {
+            CopyTextFormat.appendHexBytea(builder, expression.toString());
+            return true;
+        } else {
+            return false;
+        }
+        if (binaryColumn) {
+            CopyTextFormat.appendBytea(builder, text);
+        } else {
+            CopyTextFormat.appendEscaped(builder, text);
+        }
+        return true;
+    }
+
+    /**
+     * 按目标列类型编码为二进制 COPY 元组，列类型未知或值无法精确编码时返回 null，由调用方改为输出 INSERT。
+     */
+    private byte[] renderBinaryRows(List<List<Expression>> valueRows, RowPlan rowPlan, boolean normalizeBoolean) {
+        BinaryCopyFormat.Type[] types = BinaryCopyFormat.types(rowPlan);
+        if (types == null) {
             return null;
         }
-        return tableMetadata.getColumn(columnNames.get(index)).orElse(null);
+        BinaryCopyFormat.Encoder encoder = new BinaryCopyFormat.Encoder(valueRows.size() * rowPlan.width() * 8);
+        for (List<Expression> row : valueRows) {
+            if (rowPlan.width() != row.size()) {
+                throw new IllegalStateException("列数量与值数量不匹配: " + rowPlan.getColumnNames() + " vs " + row);
+            }
+            encoder.beginRow(row.size());
+            for (int i = 0; i < row.size(); i++) {
+                if (!appendBinaryValue(encoder, row.get(i), types[i], normalizeBoolean && rowPlan.isBooleanLike(i))) {
+                    return null;
+                }
+            }
+        }
+        return encoder.toByteArray();
     }
 
-    private String renderExpression(Expression expression, ColumnMetadata columnMetadata,
-                                    DatabaseDialect dialect, boolean normalizeBoolean) {
-        boolean binaryColumn = columnMetadata != null && columnMetadata.isBinaryLike();
+    private boolean appendBinaryValue(BinaryCopyFormat.Encoder encoder, Expression expression,
+                                      BinaryCopyFormat.Type type, boolean booleanColumn) {
         if (expression instanceof NullValue) {
-            return "NULL";
+            return encoder.putNull();
         }
-        if (normalizeBoolean && columnMetadata != null && columnMetadata.isBooleanLike()) {
+        if (booleanColumn) {
             Boolean boolValue = extractBooleanValue(expression);
             if (boolValue != null) {
-                return dialect.formatBoolean(boolValue);
+                return encoder.putBoolean(type, boolValue);
             }
         }
         if (expression instanceof StringValue) {
-            if (binaryColumn) {
-                String literal = LiteralSanitizer.removeBinaryPrefix(expression.toString());
-                return wrapBinaryLiteral(literal, true);
-            }
-//            String literal = LiteralSanitizer.removeBinaryPrefix(quoteString(((StringValue) expression).getValue()));
-            String literal = LiteralSanitizer.removeBinaryPrefix(expression.toString());
-            return wrapBinaryLiteral(literal, false);
+            return encoder.putString(type, ((StringValue) expression).getValue().replace("''", "'"));
         }
         if (expression instanceof LongValue) {
-            return wrapBinaryLiteral(String.valueOf(((LongValue) expression).getValue()), binaryColumn);
+            return encoder.putLong(type, ((LongValue) expression).getValue());
         }
         if (expression instanceof DoubleValue) {
-            return wrapBinaryLiteral(String.valueOf(((DoubleValue) expression).getValue()), binaryColumn);
+            return encoder.putNumericLiteral(type, expression.toString());
         }
-        String raw = LiteralSanitizer.removeBinaryPrefix(expression.toString());
-        return wrapBinaryLiteral(raw, binaryColumn);
+        if (expression instanceof SignedExpression
+                && (((SignedExpression) expression).getExpression() instanceof LongValue
+                || ((SignedExpression) expression).getExpression() instanceof DoubleValue)) {
+            return encoder.putNumericLiteral(type, expression.toString());
+        }
+        if (expression instanceof HexValue) {
+            return encoder.putHex(type, expression.toString());
+        }
+        return false;
     }
 
     private Boolean extractBooleanValue(Expression expression) {
@@ -209,19 +342,4 @@ public class InsertStatementProcessor implements StatementProcessor {
         return "'" + escaped + "'";
     }
 
-    private String wrapBinaryLiteral(String literal, boolean binaryColumn) {
-        if (!binaryColumn || literal == null) {
-            return literal;
-        }
-        String trimmed = literal.trim();
-        if (trimmed.equalsIgnoreCase("NULL")) {
-            return literal;
-        }
-        String lower = trimmed.toLowerCase(Locale.ROOT);
-        if (lower.startsWith("convert_to(")) {
-            return literal;
-        }
-        return "convert_to(" + literal + ", 'UTF8')";
-    }
-
 }
@@ -0,0 +1,397 @@
+package org.example.pipeline.processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 手写分词得到的 {@code INSERT INTO t [(cols)] VALUES (...), (...)} 结构，只记录每个值在原文中的区间与类型，
+ * 不构建 JSQLParser 表达式树。无法识别的写法返回 null，由调用方回退到 AST 路径。
+ */
+public final class InsertValues {
+
+    static final byte NULL = 0;
+    static final byte STRING = 1;
+    static final byte INTEGER = 2;
+    static final byte DECIMAL = 3;
+    /**
+     * 十六进制（0x.. / X'..'）：按原文输出，不参与布尔转换。
+     */
+    static final byte HEX = 4;
+    /**
+     * 带符号数字：按原文输出，不参与布尔转换。
+     */
+    static final byte SIGNED = 5;
+
+    private final String sql;
+    private final String tableName;
+    private final List<String> columns;
+    private final int width;
+    private final int rowCount;
+    private final int[] starts;
+    private final int[] ends;
+    private final byte[] kinds;
+    private final long[] integers;
+
+    private InsertValues(String sql, String tableName, List<String> columns, int width, int rowCount,
+                         int[] starts, int[] ends, byte[] kinds, long[] integers) {
+        this.sql = sql;
+        this.tableName = tableName;
+        this.columns = columns;
+        this.width = width;
+        this.rowCount = rowCount;
+        this.starts = starts;
+        this.ends = ends;
+        this.kinds = kinds;
+        this.integers = integers;
+    }
+
+    public static InsertValues parse(String sql) {
+        return new Tokenizer(sql).parse();
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * 语句中显式给出的列清单，未给出时为空列表。
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    byte kindAt(int cell) {
+        return kinds[cell];
+    }
+
+    int startAt(int cell) {
+        return starts[cell];
+    }
+
+    int endAt(int cell) {
+        return ends[cell];
+    }
+
+    long integerAt(int cell) {
+        return integers[cell];
+    }
+
+    private static final class Tokenizer {
+        private final String sql;
+        private final int length;
+        private int pos;
+
+        private int cells;
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private byte[] kinds = new byte[16];
+        private long[] integers = new long[16];
+
+        Tokenizer(String sql) {
+            this.sql = sql;
+            this.length = sql.length();
+        }
+
+        InsertValues parse() {
+            skipWhitespace();
+            if (!keyword("INSERT") || !requireWhitespace() || !keyword("INTO") || !requireWhitespace()) {
+                return null;
+            }
+            String tableName = qualifiedIdentifier();
+            if (tableName == null) {
+                return null;
+            }
+            skipWhitespace();
+            List<String> columns = Collections.emptyList();
+            if (peek() == '(') {
+                columns = columnList();
+                if (columns == null) {
+                    return null;
+                }
+                skipWhitespace();
+            }
+            if (!keyword("VALUES")) {
+                return null;
+            }
+            int width = -1;
+            int rows = 0;
+            while (true) {
+                skipWhitespace();
+                int rowWidth = row();
+                if (rowWidth <= 0 || (width >= 0 && rowWidth != width)) {
+                    return null;
+                }
+                width = rowWidth;
+                rows++;
+                skipWhitespace();
+                if (pos == length) {
+                    break;
+                }
+                if (sql.charAt(pos) != ',') {
+                    return null;
+                }
+                pos++;
+            }
+            // 单列 VALUES 在 JSQLParser 中被解析为括号表达式，交给 AST 路径保持输出一致
+            if (width < 2 || (!columns.isEmpty() && columns.size() != width)) {
+                return null;
+            }
+            return new InsertValues(sql, tableName, columns, width, rows, starts, ends, kinds, integers);
+        }
+
+        private List<String> columnList() {
+            pos++;
+            List<String> columns = new ArrayList<>();
+            while (true) {
+                skipWhitespace();
+                String column = identifier();
+                if (column == null) {
+                    return null;
+                }
+                columns.add(column);
+                skipWhitespace();
+                char next = peek();
+                pos++;
+                if (next == ')') {
+                    return Collections.unmodifiableList(columns);
+                }
+                if (next != ',') {
+                    return null;
+                }
+            }
+        }
+
+        private int row() {
+            if (peek() != '(') {
+                return -1;
+            }
+            pos++;
+            int count = 0;
+            while (true) {
+                skipWhitespace();
+                if (!value()) {
+                    return -1;
+                }
+                count++;
+                skipWhitespace();
+                char next = peek();
+                pos++;
+                if (next == ')') {
+                    return count;
+                }
+                if (next != ',') {
+                    return -1;
+                }
+            }
+        }
+
+        private boolean value() {
+            int start = pos;
+            char c = peek();
+            if (c == '\'') {
+                return quoted(start);
+            }
+            if (c == '-' || c == '+') {
+                pos++;
+                if (number() < 0) {
+                    return false;
+                }
+                return add(start, SIGNED, 0);
+            }
+            if ((c == 'x' || c == 'X') && pos + 1 < length && sql.charAt(pos + 1) == '\'') {
+                pos++;
+                return hexQuoted(start);
+            }
+            if (c == '0' && pos + 1 < length && (sql.charAt(pos + 1) == 'x' || sql.charAt(pos + 1) == 'X')) {
+                pos += 2;
+                int digitsStart = pos;
+                while (pos < length && isHexDigit(sql.charAt(pos))) {
+                    pos++;
+                }
+                return pos > digitsStart && !identifierPart(peek()) && add(start, HEX, 0);
+            }
+            if (isDigit(c) || c == '.') {
+                byte kind = number();
+                if (kind < 0) {
+                    return false;
+                }
+                long integer = 0;
+                if (kind == INTEGER) {
+                    try {
+                        integer = Long.parseLong(sql, start, pos, 10);
+                    } catch (NumberFormatException ex) {
+                        return false;
+                    }
+                }
+                return add(start, kind, integer);
+            }
+            if (keyword("NULL")) {
+                return add(start, NULL, 0);
+            }
+            return false;
+        }
+
+        private boolean quoted(int start) {
+            pos++;
+            while (pos < length) {
+                char c = sql.charAt(pos++);
+                if (c == '\\') {
+                    return false;
+                }
+                if (c == '\'') {
+                    if (pos < length && sql.charAt(pos) == '\'') {
+                        pos++;
+                        continue;
+                    }
+                    return add(start, STRING, 0);
+                }
+            }
+            return false;
+        }
+
+        private boolean hexQuoted(int start) {
+            pos++;
+            while (pos < length && isHexDigit(sql.charAt(pos))) {
+                pos++;
+            }
+            if (pos >= length || sql.charAt(pos) != '\'') {
+                return false;
+            }
+            pos++;
+            return add(start, HEX, 0);
+        }
+
+        /**
+         * 识别 123 / 1.5 / .5 / 1. / 1e3 形式的数字，返回 INTEGER、DECIMAL 或 -1。
+         */
+        private byte number() {
+            int digits = 0;
+            boolean decimal = false;
+            while (pos < length && isDigit(sql.charAt(pos))) {
+                pos++;
+                digits++;
+            }
+            if (pos < length && sql.charAt(pos) == '.') {
+                decimal = true;
+                pos++;
+                while (pos < length && isDigit(sql.charAt(pos))) {
+                    pos++;
+                    digits++;
+                }
+            }
+            if (digits == 0) {
+                return -1;
+            }
+            if (pos < length && (sql.charAt(pos) == 'e' || sql.charAt(pos) == 'E')) {
+                decimal = true;
+                pos++;
+                if (pos < length && (sql.charAt(pos) == '+' || sql.charAt(pos) == '-')) {
+                    pos++;
+                }
+                int exponentStart = pos;
+                while (pos < length && isDigit(sql.charAt(pos))) {
+                    pos++;
+                }
+                if (pos == exponentStart) {
+                    return -1;
+                }
+            }
+            if (identifierPart(peek()) || peek() == '.') {
+                return -1;
+            }
+            return decimal ? DECIMAL : INTEGER;
+        }
+
+        private boolean add(int start, byte kind, long integer) {
+            if (cells == kinds.length) {
+                int capacity = cells * 2;
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                kinds = Arrays.copyOf(kinds, capacity);
+                integers = Arrays.copyOf(integers, capacity);
+            }
+            starts[cells] = start;
+            ends[cells] = pos;
+            kinds[cells] = kind;
+            integers[cells] = integer;
+            cells++;
+            return true;
+        }
+
+        private String qualifiedIdentifier() {
+            int start = pos;
+            if (identifier() == null) {
+                return null;
+            }
+            while (peek() == '.') {
+                pos++;
+                if (identifier() == null) {
+                    return null;
+                }
+            }
+            return sql.substring(start, pos);
+        }
+
+        private String identifier() {
+            int start = pos;
+            while (identifierPart(peek())) {
+                pos++;
+            }
+            return pos == start ? null : sql.substring(start, pos);
+        }
+
+        private boolean keyword(String keyword) {
+            int end = pos + keyword.length();
+            if (end > length || !sql.regionMatches(true, pos, keyword, 0, keyword.length())) {
+                return false;
+            }
+            if (end < length && identifierPart(sql.charAt(end))) {
+                return false;
+            }
+            pos = end;
+            return true;
+        }
+
+        private boolean requireWhitespace() {
+            int start = pos;
+            skipWhitespace();
+            return pos > start;
+        }
+
+        private void skipWhitespace() {
+            while (pos < length && Character.isWhitespace(sql.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private char peek() {
+            return pos < length ? sql.charAt(pos) : '\0';
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        private static boolean isHexDigit(char c) {
+            return isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+        }
+
+        private static boolean identifierPart(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c) || c == '_' || c == '$';
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package org.example.pipeline.processor;
+
+import org.example.pipeline.ConversionContext;
+import org.example.pipeline.ConversionResult;
+import org.example.pipeline.RowPlan;
+import org.example.pipeline.TableMetadata;
+import org.example.pipeline.dialect.DatabaseDialect;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * 基于 {@link InsertValues} 直接输出 INSERT（或方言选项要求时输出 COPY 数据块/二进制 COPY 元组），值按原文透传，仅按列元数据做布尔/二进制改写。
+ * 输出与 {@link InsertStatementProcessor} 走 AST 时保持一致；列无法确定等情况返回 false，由调用方回退。
+ */
+public final class InsertValuesFastPath {
+
+    private InsertValuesFastPath() {
+    }
+
+    public static boolean tryConvert(InsertValues values, ConversionContext context, ConversionResult result) {
+        int width = values.getWidth();
+        Optional<TableMetadata> tableMetadata = context.getSchemaMetadata().find(values.getTableName());
+        RowPlan rowPlan;
+        if (values.getColumns().isEmpty()) {
+            if (tableMetadata.isEmpty()) {
+                return false;
+            }
+            rowPlan = tableMetadata.get().rowPlanForWidth(width);
+            if (rowPlan.width() != width) {
+                return false;
+            }
+        } else {
+            rowPlan = tableMetadata.isPresent()
+                    ? tableMetadata.get().rowPlan(values.getColumns())
+                    : RowPlan.withoutMetadata(values.getColumns());
+        }
+
+        boolean normalizeBoolean = context.getDialectProfile().supportsBooleanLiteralNormalization();
+        if (context.getDialectProfile().emitsBinaryCopyData() && result.acceptsBinaryRows()
+                && appendBinaryRows(values, rowPlan, normalizeBoolean, context, result)) {
+            return true;
+        }
+        if (context.getDialectProfile().emitsCopyData() && appendCopyRows(values, rowPlan, normalizeBoolean, context, result)) {
+            return true;
+        }
+        DatabaseDialect dialect = context.getTargetDialect();
+        RenderedRows rows = new RenderedRows(values.getSql().length() + values.getRowCount() * 8, values.getRowCount());
+        StringBuilder builder = rows.text();
+        int cell = 0;
+        for (int row = 0; row < values.getRowCount(); row++) {
+            builder.append("    (");
+            for (int i = 0; i < width; i++, cell++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                appendValue(builder, values, cell, normalizeBoolean && rowPlan.isBooleanLike(i),
+                        rowPlan.isBinaryLike(i), dialect);
+            }
+            builder.append(')');
+            rows.endRow();
+        }
+        InsertStatementProcessor.appendInsertRows(values.getTableName(), rowPlan, rows, context, result);
+        return true;
+    }
+
+    /**
+     * 以 COPY 文本格式输出；出现无法写入 COPY 的值（十六进制写入非二进制列）时返回 false，改为输出 INSERT。
+     */
+    private static boolean appendCopyRows(InsertValues values, RowPlan rowPlan, boolean normalizeBoolean,
+                                          ConversionContext context, ConversionResult result) {
+        int width = values.getWidth();
+        RenderedRows rows = new RenderedRows(values.getSql().length(), values.getRowCount());
+        StringBuilder builder = rows.text();
+        int cell = 0;
+        for (int row = 0; row < values.getRowCount(); row++) {
+            for (int i = 0; i < width; i++, cell++) {
+                if (i > 0) {
+                    builder.append('\t');
+                }
+                if (!appendCopyValue(builder, values, cell, normalizeBoolean && rowPlan.isBooleanLike(i),
+                        rowPlan.isBinaryLike(i))) {
+                    return false;
+                }
+            }
+            builder.append('\n');
+            rows.endRow();
+        }
+        rows.appendTo(result, CopyTextFormat.block(values.getTableName(), rowPlan.getColumnNames()));
+        rows.record(context, values.getTableName());
+        return true;
+    }
+
+    private static boolean appendCopyValue(StringBuilder builder, InsertValues values, int cell,
+                                           boolean booleanColumn, boolean binaryColumn) {
+        byte kind = values.kindAt(cell);
+        String sql = values.getSql();
+        int start = values.startAt(cell);
+        int end = values.endAt(cell);
+        switch (kind) {
+            case InsertValues.NULL:
+                builder.append(CopyTextFormat.NULL);
+                return true;
+            case InsertValues.STRING:
+                Boolean bool = booleanColumn ? stringBoolean(sql, start, end) : null;
+                if (bool != null) {
+                    builder.append(CopyTextFormat.formatBoolean(bool));
+                } else if (binaryColumn) {
+                    CopyTextFormat.appendBytea(builder, CopyTextFormat.unquote(sql, start, end));
+                } else {
+                    CopyTextFormat.appendQuoted(builder, sql, start, end);
+                }
+                return true;
+            case InsertValues.INTEGER:
+                long integer = values.integerAt(cell);
+                if (booleanColumn) {
+                    builder.append(CopyTextFormat.formatBoolean(integer != 0));
+                } else if (binaryColumn) {
+                    CopyTextFormat.appendBytea(builder, String.valueOf(integer));
+                } else {
+                    builder.append(integer);
+                }
+                return true;
+            case InsertValues.DECIMAL:
+                if (booleanColumn) {
+                    builder.append(CopyTextFormat.formatBoolean(Double.parseDouble(sql.substring(start, end)) != 0));
+                } else if (binaryColumn) {
+                    CopyTextFormat.appendBytea(builder, sql.substring(start, end));
+                } else {
+                    builder.append(sql, start, end);
+                }
+                return true;
+            case InsertValues.HEX:
+                if (!binaryColumn) {
+                    return false;
+                }
+                CopyTextFormat.appendHexBytea(builder, sql.substring(start, end));
+                return true;
+            default:
+                if (binaryColumn) {
+                    CopyTextFormat.appendBytea(builder, sql.substring(start, end));
+                } else {
+                    builder.append(sql, start, end);
+                }
+                return true;
+        }
+    }
+
+    /**
+     * 按目标列类型编码为二进制 COPY 元组；列类型未知或值无法精确编码时返回 false，改为输出 INSERT。
+     */
+    private static boolean appendBinaryRows(InsertValues values, RowPlan rowPlan, boolean normalizeBoolean,
+                                            ConversionContext context, ConversionResult result) {
+        BinaryCopyFormat.Type[] types = BinaryCopyFormat.types(rowPlan);
+        if (types == null) {
+            return false;
+        }
+        int width = values.getWidth();
+        BinaryCopyFormat.Encoder encoder = new BinaryCopyFormat.Encoder(values.getSql().length());
+        int cell = 0;
+        for (int row = 0; row < values.getRowCount(); row++) {
+            encoder.beginRow(width);
+            for (int i = 0; i < width; i++, cell++) {
+                if (!appendBinaryValue(encoder, values, cell, types[i], normalizeBoolean && rowPlan.isBooleanLike(i))) {
+                    return false;
+                }
+            }
+        }
+        byte[] tuples = encoder.toByteArray();
+        result.appendBinaryRows(values.getTableName(), rowPlan.getColumnNames(), tuples);
+        context.getLoadStatistics().record(values.getTableName(), values.getRowCount(), tuples.length);
+        return true;
+    }
+
+    private static boolean appendBinaryValue(BinaryCopyFormat.Encoder encoder, InsertValues values, int cell,
+                                             BinaryCopyFormat.Type type, boolean booleanColumn) {
+        String sql = values.getSql();
+        int start = values.startAt(cell);
+        int end = values.endAt(cell);
+        switch (values.kindAt(cell)) {
+            case InsertValues.NULL:
+                return encoder.putNull();
+            case InsertValues.STRING:
+                Boolean bool = booleanColumn ? stringBoolean(sql, start, end) : null;
+                return bool != null
+                        ? encoder.putBoolean(type, bool)
+                        : encoder.putString(type, CopyTextFormat.unquote(sql, start, end));
+            case InsertValues.INTEGER:
+                long integer = values.integerAt(cell);
+                return booleanColumn ? encoder.putBoolean(type, integer != 0) : encoder.putLong(type, integer);
+            case InsertValues.DECIMAL:
+                String decimal = sql.substring(start, end);
+                return booleanColumn
+                        ? encoder.putBoolean(type, Double.parseDouble(decimal) != 0)
+                        : encoder.putNumericLiteral(type, decimal);
+            case InsertValues.HEX:
+                return encoder.putHex(type, sql.substring(start, end));
+            default:
+                return encoder.putNumericLiteral(type, sql.substring(start, end));
+        }
+    }
+
+    /**
+     * 布尔列中的字符串值：'1'/'true' 与 '0'/'false'（忽略大小写与首尾空白），其余返回 null。
+     */
+    private static Boolean stringBoolean(String sql, int start, int end) {
+        String normalized = sql.substring(start + 1, end - 1).trim().toLowerCase(Locale.ROOT);
+        if ("1".equals(normalized) || "true".equals(normalized)) {
+            return true;
+        }
+        if ("0".equals(normalized) || "false".equals(normalized)) {
+            return false;
+        }
+        return null;
+    }
+
+    private static void appendValue(StringBuilder builder, InsertValues values, int cell,
+                                    boolean booleanColumn, boolean binaryColumn, DatabaseDialect dialect) {
+        byte kind = values.kindAt(cell);
+        if (kind == InsertValues.NULL) {
+            builder.append("NULL");
+            return;
+        }
+        if (booleanColumn || binaryColumn) {
+            builder.append(renderValue(values, cell, booleanColumn, binaryColumn, dialect));
+        } else if (kind == InsertValues.INTEGER) {
+            builder.append(values.integerAt(cell));
+        } else {
+            builder.append(values.getSql(), values.startAt(cell), values.endAt(cell));
+        }
+    }
+
+    private static String renderValue(InsertValues values, int cell, boolean booleanColumn, boolean binaryColumn,
+                                      DatabaseDialect dialect) {
+        byte kind = values.kindAt(cell);
+        String sql = values.getSql();
+        int start = values.startAt(cell);
+        int end = values.endAt(cell);
+        switch (kind) {
+            case InsertValues.STRING:
+                Boolean bool = booleanColumn ? stringBoolean(sql, start, end) : null;
+                if (bool != null) {
+                    return dialect.formatBoolean(bool);
+                }
+                return LiteralSanitizer.wrapBinaryLiteral(sql.substring(start, end), binaryColumn);
+            case InsertValues.INTEGER:
+                long integer = values.integerAt(cell);
+                if (booleanColumn) {
+                    return dialect.formatBoolean(integer != 0);
+                }
+                return LiteralSanitizer.wrapBinaryLiteral(String.valueOf(integer), binaryColumn);
+            case InsertValues.DECIMAL:
+                String decimal = sql.substring(start, end);
+                if (booleanColumn) {
+                    return dialect.formatBoolean(Double.parseDouble(decimal) != 0);
+                }
+                return LiteralSanitizer.wrapBinaryLiteral(decimal, binaryColumn);
+            default:
+                return LiteralSanitizer.wrapBinaryLiteral(sql.substring(start, end), binaryColumn);
+        }
+    }
+}
@@ -21,4 +21,36 @@ final class LiteralSanitizer {
         }
         return literal;
     }
+
+    /**
+     * bytea 列的值统一包成 convert_to(..., 'UTF8')。
+     */
+    static String wrapBinaryLiteral(String literal, boolean binaryColumn) {
+        if (!binaryColumn || literal == null) {
+            return literal;
+        }
+        String trimmed = literal.trim();
+        if (trimmed.equalsIgnoreCase("NULL")) {
+            return literal;
+        }
+        String lower = trimmed.toLowerCase(Locale.ROOT);
+        if (lower.startsWith("convert_to(")) {
+            return literal;
+        }
+        return "convert_to(" + literal + ", 'UTF8')";
+    }
+
+    /**
+     * 取出十六进制字面量（0xABCD / X'ABCD'）中的数字部分。
+     */
+    static String hexDigits(String literal) {
+        String trimmed = literal.trim();
+        if (trimmed.startsWith("0x") || trimmed.startsWith("0X")) {
+            return trimmed.substring(2);
+        }
+        if ((trimmed.startsWith("x'") || trimmed.startsWith("X'")) && trimmed.endsWith("'")) {
+            return trimmed.substring(2, trimmed.length() - 1);
+        }
+        throw new IllegalArgumentException("不是十六进制字面量: " + literal);
+    }
 }
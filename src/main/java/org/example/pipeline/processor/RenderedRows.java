@@ -0,0 +1,69 @@
+package org.example.pipeline.processor;
+
+import org.example.pipeline.ConversionContext;
+import org.example.pipeline.ConversionResult;
+import org.example.pipeline.RowBlock;
+
+import java.util.Arrays;
+
+/**
+ * 一条 INSERT 渲染出的数据行：连续存放并记录每行结束位置，全部渲染成功后再输出，回退时不会留下半条结果。
+ */
+final class RenderedRows {
+
+    private final StringBuilder text;
+    private int[] ends;
+    private int count;
+
+    RenderedRows(int capacity, int expectedRows) {
+        this.text = new StringBuilder(capacity);
+        this.ends = new int[Math.max(expectedRows, 1)];
+    }
+
+    StringBuilder text() {
+        return text;
+    }
+
+    /**
+     * 把行数与渲染后的文本长度计入表的导入统计。
+     */
+    void record(ConversionContext context, String tableName) {
+        context.getLoadStatistics().record(tableName, count, text.length());
+    }
+
+    void endRow() {
+        if (count == ends.length) {
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+        ends[count++] = text.length();
+    }
+
+    /**
+     * 逐行交给结果按块合并/拆分。
+     */
+    void appendTo(ConversionResult result, RowBlock block) {
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            result.appendRow(block, text, start, ends[i]);
+            start = ends[i];
+        }
+    }
+
+    /**
+     * 拼成单个完整块（不受块上限约束）。
+     */
+    String join(RowBlock block) {
+        StringBuilder builder = new StringBuilder(text.length() + count * block.getSeparator().length()
+                + block.getHeader().length() + block.getFooter().length());
+        builder.append(block.getHeader());
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append(block.getSeparator());
+            }
+            builder.append(text, start, ends[i]);
+            start = ends[i];
+        }
+        return builder.append(block.getFooter()).toString();
+    }
+}
@@ -14,6 +14,7 @@ import org.example.BooleanColumnRegistry;
 import org.example.pipeline.ColumnMetadata;
 import org.example.pipeline.ConversionContext;
 import org.example.pipeline.ConversionResult;
+import org.example.pipeline.OutputSection;
 import org.example.pipeline.SchemaMetadata;
 import org.example.pipeline.StatementProcessor;
 import org.example.pipeline.TableMetadata;
@@ -51,7 +52,7 @@ public class UpdateStatementProcessor implements StatementProcessor {
 
         String sql = update.toString();
         sql = normalize(sql, dialect, normalizeBoolean);
-        result.appendStatement(sql);
+        result.appendStatement(OutputSection.DATA, tableName, sql);
     }
 
     private String normalize(String sql, DatabaseDialect dialect, boolean normalizeBoolean) {
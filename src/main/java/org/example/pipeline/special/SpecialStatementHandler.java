@@ -2,21 +2,38 @@ package org.example.pipeline.special;
 
 import org.example.pipeline.ConversionContext;
 import org.example.pipeline.ConversionResult;
+import org.example.pipeline.OutputSection;
 
 import java.util.List;
+import java.util.regex.Pattern;
 
 /**
  * 处理 JSQLParser 暂不支持的语句，必要时绕过 AST 直接输出目标 SQL。
  */
 public final class SpecialStatementHandler {
 
+    /**
+     * ADD INDEX/KEY 的列带 ASC/DESC 排序，JSQLParser 无法解析。
+     */
+    private static final Pattern ORDERED_INDEX_COLUMN = Pattern.compile("(?i)\\b(?:ASC|DESC)\\s*[,)]");
+
     private SpecialStatementHandler() {
     }
 
+    /**
+     * 按开头关键字与少量特征判断是否属于已知 JSQLParser 无法解析、应先交给本类处理的语句，不做完整匹配；
+     * 其余无法解析的形状由 {@link org.example.pipeline.ParseFailureShapes} 在首次失败后记住。
+     */
+    public static boolean isCandidate(String rawSql) {
+        return startsWithIgnoreCase(rawSql, "ALTER")
+                && (containsIgnoreCase(rawSql, "INDEX") || containsIgnoreCase(rawSql, "KEY"))
+                && ORDERED_INDEX_COLUMN.matcher(rawSql).find();
+    }
+
     public static boolean handle(String rawSql, ConversionContext context, ConversionResult result) {
         List<String> converted = AlterAddIndexConverter.tryConvert(rawSql, context.getDialectProfile());
         if (!converted.isEmpty()) {
-            converted.forEach(result::appendStatement);
+            converted.forEach(sql -> result.appendStatement(OutputSection.INDEXES, sql));
             return true;
         }
         if (org.example.pipeline.processor.GeneratedUniqueKeyConverter.tryConvertRaw(rawSql, context, result)) {
@@ -24,4 +41,24 @@ public final class SpecialStatementHandler {
         }
         return false;
     }
+
+    private static boolean startsWithIgnoreCase(String text, String keyword) {
+        int start = 0;
+        while (start < text.length() && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        return text.regionMatches(true, start, keyword, 0, keyword.length());
+    }
+
+    private static boolean containsIgnoreCase(String text, String keyword) {
+        char first = keyword.charAt(0);
+        char lower = Character.toLowerCase(first);
+        for (int i = 0; i <= text.length() - keyword.length(); i++) {
+            char c = text.charAt(i);
+            if ((c == first || c == lower) && text.regionMatches(true, i, keyword, 0, keyword.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
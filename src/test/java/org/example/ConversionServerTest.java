@@ -0,0 +1,103 @@
+package org.example;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConversionServerTest {
+
+    private static final String SQL = "CREATE TABLE sys_user (id bigint, name varchar(10), PRIMARY KEY (id));\n"
+            + "INSERT INTO sys_user (id, name) VALUES (1, 'a'), (2, 'b');\n";
+
+    private ConversionServer server;
+
+    @Before
+    public void startServer() throws Exception {
+        server = ConversionServer.start(new InetSocketAddress("127.0.0.1", 0), 2, 1);
+    }
+
+    @After
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    public void shouldStreamConversionsForRequestedDialect() throws Exception {
+        HttpURLConnection connection = post("/convert?dialect=gauss&data.format=copy", SQL);
+        assertEquals(200, connection.getResponseCode());
+        assertEquals(SqlConverter.builder()
+                        .dialect("gauss")
+                        .options(ConversionServer.options(ConversionServer.parseQuery("data.format=copy")))
+                        .build()
+                        .convert(SQL),
+                read(connection.getInputStream()));
+
+        HttpURLConnection again = post("/convert", SQL);
+        assertEquals(SqlConverter.forDialect("postgresql").convert(SQL), read(again.getInputStream()));
+    }
+
+    @Test
+    public void shouldRejectInvalidOptions() throws Exception {
+        HttpURLConnection connection = post("/convert?data.format=binary", SQL);
+        assertEquals(400, connection.getResponseCode());
+        assertEquals(405, ((HttpURLConnection) url("/convert").openConnection()).getResponseCode());
+    }
+
+    @Test
+    public void shouldRejectUnknownDialectsAndShareConvertersAcrossAliases() throws Exception {
+        HttpURLConnection unknown = post("/convert?dialect=oracle", SQL);
+        assertEquals(400, unknown.getResponseCode());
+        assertTrue(read(unknown.getErrorStream()).contains("oracle"));
+
+        for (String dialect : List.of("postgres", "POSTGRESQL", "gauss-mysql", "Gauss")) {
+            assertEquals(dialect, 200, post("/convert?dialect=" + dialect, SQL).getResponseCode());
+        }
+        assertEquals(2, server.cachedConverters());
+    }
+
+    @Test
+    public void shouldAnswerTruncatedRequestBodyWithClientError() throws Exception {
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("POST /convert HTTP/1.1\r\nHost: localhost\r\nContent-Length: 1000\r\n\r\n" + SQL)
+                    .getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            socket.shutdownOutput();
+            String response = read(socket.getInputStream());
+            assertTrue(response, response.startsWith("HTTP/1.1 400 "));
+            assertTrue(response, response.contains("读取请求体失败"));
+        }
+    }
+
+    private HttpURLConnection post(String path, String body) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) url(path).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream outputStream = connection.getOutputStream()) {
+            outputStream.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return connection;
+    }
+
+    private URL url(String path) throws Exception {
+        return new URL("http://127.0.0.1:" + server.getPort() + path);
+    }
+
+    private static String read(InputStream inputStream) throws Exception {
+        try (InputStream in = inputStream) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MappedSqlFileTest {
+
+    private static final String SQL = ""
+            + "-- dump header\n"
+            + "/*!40101 SET NAMES utf8mb4 */;\n"
+            + "CREATE TABLE `t` (id int, name varchar(10) COMMENT '名称;');\r\n"
+            + "INSERT INTO t VALUES (1, 'a\\'b') /* tail */;\n"
+            + "   \n;"
+            + "DELETE FROM t WHERE name = \"x;y\"";
+
+    @Test
+    public void shouldMatchCharacterSplitterAcrossSegments() throws Exception {
+        Path file = write(SQL);
+        List<String> expected = new ArrayList<>();
+        for (String statement : SqlStatementSplitter.splitStatements(SQL)) {
+            if (!statement.isEmpty()) {
+                expected.add(statement);
+            }
+        }
+        for (int segmentSize = 1; segmentSize <= 16; segmentSize++) {
+            List<String> actual = new ArrayList<>();
+            try (MappedSqlFile mapped = MappedSqlFile.open(file, segmentSize)) {
+                mapped.slices().forEachRemaining(slice -> actual.add(slice.decode()));
+            }
+            assertEquals("segmentSize=" + segmentSize, expected, actual);
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    public void shouldExposeOffsetsWithoutDecoding() throws Exception {
+        Path file = write(SQL);
+        try (MappedSqlFile mapped = MappedSqlFile.open(file)) {
+            Iterator<StatementSlice> slices = mapped.slices();
+            StatementSlice create = slices.next();
+            assertTrue(create.startsWithKeyword("create table"));
+            assertFalse(create.requiresNormalization());
+            assertEquals(SQL.indexOf("CREATE"), create.getOffset());
+
+            StatementSlice insert = slices.next();
+            assertTrue(insert.startsWithKeyword("INSERT"));
+            assertTrue("夹带注释的语句需要规整", insert.requiresNormalization());
+            assertEquals("INSERT INTO t VALUES (1, 'a\\'b')", insert.decode());
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    public void shouldDecodeOnlyFilteredSlices() throws Exception {
+        String sql = "CREATE   TABLE a (id int);\n"
+                + "INSERT INTO a VALUES (1);\n"
+                + "create\ttable b (id int);\n"
+                + "CREATE TABLESPACE ts;\n"
+                + "ALTER TABLE a ADD COLUMN name varchar(10);\n"
+                + "UPDATE a SET id = 2;\n";
+        Path file = write(sql);
+        for (int segmentSize = 1; segmentSize <= 16; segmentSize++) {
+            List<String> actual = new ArrayList<>();
+            try (MappedSqlFile mapped = MappedSqlFile.open(file, segmentSize);
+                 StatementSource statements = mapped.statements(StatementSlice::mayMutateSchema)) {
+                statements.forEachRemaining(actual::add);
+            }
+            assertEquals("segmentSize=" + segmentSize, Arrays.asList(
+                    "CREATE   TABLE a (id int)",
+                    "create\ttable b (id int)",
+                    "ALTER TABLE a ADD COLUMN name varchar(10)"), actual);
+        }
+        Files.delete(file);
+    }
+
+    private Path write(String content) throws Exception {
+        Path file = Files.createTempFile("mapped", ".sql");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
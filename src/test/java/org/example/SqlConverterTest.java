@@ -0,0 +1,59 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+public class SqlConverterTest {
+
+    private static final String SCRIPT = "CREATE TABLE `demo` (`id` bigint, `name` varchar(10), PRIMARY KEY (`id`));\n"
+            + "INSERT INTO `demo` VALUES (1, 'a'), (2, 'it''s');\n";
+
+    private static final String EXPECTED = "CREATE TABLE demo (\n"
+            + "    id bigint,\n"
+            + "    name varchar(10),\n"
+            + "    PRIMARY KEY (id)\n"
+            + ");\n"
+            + "INSERT INTO demo (id, name) VALUES\n"
+            + "    (1, 'a'),\n"
+            + "    (2, 'it''s');\n";
+
+    @Test
+    public void shouldConvertStreamsAndKeepCallsIndependent() throws Exception {
+        SqlConverter converter = SqlConverter.forDialect("postgresql");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long statements = converter.convert(new ByteArrayInputStream(SCRIPT.getBytes(StandardCharsets.UTF_8)), output);
+
+        assertEquals(2, statements);
+        assertEquals(EXPECTED, new String(output.toByteArray(), StandardCharsets.UTF_8));
+        // 第二次调用看不到第一次登记的表结构，无列清单的 INSERT 原样输出
+        assertEquals("INSERT INTO demo VALUES (1, 'a');\n", converter.convert("INSERT INTO `demo` VALUES (1, 'a');"));
+    }
+
+    @Test
+    public void shouldConvertConcurrentlyWithSharedInstance() throws Exception {
+        SqlConverter converter = SqlConverter.builder().dialect("postgresql").workers(2).build();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(executor.submit(() -> converter.convert(SCRIPT)));
+            }
+            for (Future<String> result : results) {
+                assertEquals(EXPECTED, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+
+public class SqlStatementSplitterTest {
+
+    private static final String SQL = ""
+            + "-- header comment; with semicolon\r\n"
+            + "/*!40101 SET NAMES utf8mb4 */;\r\n"
+            + "CREATE TABLE demo (id int, name varchar(20) COMMENT 'a;b');\r\n"
+            + "# hash comment ;\n"
+            + "INSERT INTO demo VALUES (1, 'it\\'s; ok'), (2, \"x;y\");\n"
+            + "UPDATE demo SET name = `n;ame` /* inline ; comment */ WHERE id = 1;\n"
+            + "SELECT 1 - 2";
+
+    @Test
+    public void shouldSplitWholeText() {
+        List<String> statements = SqlStatementSplitter.splitStatements(SQL);
+        assertEquals(4, statements.size());
+        assertEquals("CREATE TABLE demo (id int, name varchar(20) COMMENT 'a;b')", statements.get(0));
+        assertEquals("INSERT INTO demo VALUES (1, 'it\\'s; ok'), (2, \"x;y\")", statements.get(1));
+        assertEquals("UPDATE demo SET name = n;ame  WHERE id = 1", statements.get(2));
+        assertEquals("SELECT 1 - 2", statements.get(3));
+    }
+
+    @Test
+    public void shouldUnquoteIdentifiersAndDropIntroducersOutsideLiterals() {
+        List<String> statements = SqlStatementSplitter.splitStatements(""
+                + "INSERT INTO `t` (`id`, `v`) VALUES (1, _binary 'a`b _binary'), (2, _BINARY x'6162'), "
+                + "(3, _binary 0x6162), (4, _utf8mb4'中`文'), (5, \"`q`\"), (6, my_binary);\n");
+        assertEquals("INSERT INTO t (id, v) VALUES (1, 'a`b _binary'), (2, x'6162'), "
+                + "(3, 0x6162), (4, '中`文'), (5, \"`q`\"), (6, my_binary)", statements.get(0));
+    }
+
+    @Test
+    public void shouldKeepStateAcrossBufferRefills() {
+        List<String> expected = SqlStatementSplitter.splitStatements(SQL);
+        for (int bufferSize = 1; bufferSize <= 8; bufferSize++) {
+            List<String> actual = new ArrayList<>();
+            new SqlStatementIterator(new StringReader(SQL), bufferSize).forEachRemaining(actual::add);
+            assertEquals("bufferSize=" + bufferSize, expected, actual);
+        }
+    }
+
+    @Test
+    public void shouldStreamStatements() {
+        try (Stream<String> stream = SqlStatementSplitter.stream(new StringReader("SELECT 1;SELECT 2;"))) {
+            assertEquals(List.of("SELECT 1", "SELECT 2"), stream.collect(Collectors.toList()));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.pipeline;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class IndexBuildPlannerTest {
+
+    private static final long MB = IndexBuildPlanner.MB;
+
+    @Test
+    public void shouldBalanceIndexesAcrossLanesByTableVolume() {
+        TableLoadStatistics statistics = new TableLoadStatistics();
+        statistics.record("orders", 1_000_000, 600 * MB);
+        statistics.record("\"Customer\"", 100_000, 40 * MB);
+        statistics.record("tag", 10, 1024);
+        Map<String, String> indexes = new LinkedHashMap<>();
+        indexes.put("CREATE INDEX idx_tag_name ON tag (name);\n", "tag");
+        indexes.put("CREATE INDEX idx_orders_customer ON orders (customer_id);\n", "orders");
+        indexes.put("CREATE INDEX idx_customer_name ON customer (name);\n", null);
+        indexes.put("CREATE INDEX idx_orders_created ON orders (created_at);\n", "orders");
+        indexes.put("CREATE UNIQUE INDEX uk_customer_code ON customer (code);\n", "customer");
+
+        List<IndexBuildLane> lanes = new IndexBuildPlanner(2, 1024, 8).plan(indexes, statistics);
+
+        assertEquals(2, lanes.size());
+        assertEquals(List.of("CREATE INDEX idx_orders_customer ON orders (customer_id);\n",
+                "CREATE INDEX idx_customer_name ON customer (name);\n",
+                "CREATE INDEX idx_tag_name ON tag (name);\n"), lanes.get(0).getStatements());
+        assertEquals(List.of("CREATE INDEX idx_orders_created ON orders (created_at);\n",
+                "CREATE UNIQUE INDEX uk_customer_code ON customer (code);\n"), lanes.get(1).getStatements());
+        assertEquals(List.of("SET maintenance_work_mem = '512MB'", "SET max_parallel_maintenance_workers = 3"),
+                lanes.get(0).getSessionSettings());
+    }
+
+    @Test
+    public void shouldNotSuggestParallelWorkersForSmallTables() {
+        TableLoadStatistics statistics = new TableLoadStatistics();
+        statistics.record("tag", 1000, MB);
+        Map<String, String> indexes = new LinkedHashMap<>();
+        indexes.put("CREATE INDEX idx_tag_name ON tag (name);\n", "tag");
+
+        List<IndexBuildLane> lanes = new IndexBuildPlanner(4, 2048, 16).plan(indexes, statistics);
+
+        assertEquals(1, lanes.size());
+        assertEquals(64, lanes.get(0).getMaintenanceWorkMemMb());
+        assertEquals(0, lanes.get(0).getMaxParallelMaintenanceWorkers());
+    }
+}
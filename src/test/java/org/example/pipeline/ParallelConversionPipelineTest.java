@@ -0,0 +1,66 @@
+package org.example.pipeline;
+
+import org.example.pipeline.dialect.DialectOptions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelConversionPipelineTest {
+
+    @Test
+    public void shouldMatchSerialOutputInInputOrder() {
+        List<String> statements = statements();
+
+        String serial = convert(statements, 1, DialectOptions.defaults());
+        String parallel = convert(statements, 4, DialectOptions.defaults());
+
+        assertEquals(serial, parallel);
+        assertTrue("依赖建表元数据的 INSERT 应转成布尔值", parallel.contains("(4, TRUE)"));
+    }
+
+    @Test
+    public void shouldMergeCopyBlocksAcrossWorkers() {
+        DialectOptions copy = DialectOptions.builder().dataFormat(DialectOptions.DataFormat.COPY).build();
+        List<String> statements = statements();
+
+        String serial = convert(statements, 1, copy);
+        String parallel = convert(statements, 4, copy);
+
+        assertEquals(serial, parallel);
+        assertTrue(parallel, parallel.contains("COPY demo_7 (id, is_force_update_password) FROM STDIN;\n"
+                + "0\tt\n1\tt\n2\tt\n3\tt\n4\tt\n\\.\nUPDATE demo_7"));
+    }
+
+    private static List<String> statements() {
+        List<String> statements = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            statements.add("CREATE TABLE demo_" + i + " (\n"
+                    + "  id int NOT NULL AUTO_INCREMENT,\n"
+                    + "  is_force_update_password tinyint(1) NOT NULL,\n"
+                    + "  PRIMARY KEY (id)\n"
+                    + ")");
+            for (int j = 0; j < 5; j++) {
+                statements.add("INSERT INTO demo_" + i + " (id, is_force_update_password) VALUES (" + j + ", 1)");
+            }
+            statements.add("UPDATE demo_" + i + " SET is_force_update_password = 0 WHERE id = 1");
+            statements.add("not a statement " + i);
+        }
+        return statements;
+    }
+
+    private static String convert(List<String> statements, int workers, DialectOptions options) {
+        RawStatementConverter converter = new RawStatementConverter(StatementConversionRegistry.defaultRegistry());
+        ConversionContext context = new ConversionContext(DialectFactory.fromName("postgresql", options));
+        ConversionResult result = new ConversionResult();
+        if (workers == 1) {
+            statements.forEach(sql -> converter.convert(sql, context, result));
+        } else {
+            new ParallelConversionPipeline(converter, context, workers, workers).run(statements.iterator(), result);
+        }
+        return result.asSql();
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.pipeline;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParseBudgetTest {
+
+    private static final String NESTED_CASE = "UPDATE sys_user SET a = "
+            + "CASE WHEN (a = 1 AND (b = 2 OR ".repeat(8) + "1" + ") THEN 1 ELSE 0 END)".repeat(8) + " WHERE id = 1";
+
+    @Test
+    public void shouldCancelSlowParsesAndPassThrough() {
+        RawStatementConverter converter = new RawStatementConverter(StatementConversionRegistry.defaultRegistry(), true,
+                new ParseBudget(200, 0, 0));
+        ConversionContext context = new ConversionContext(DialectFactory.fromName("postgresql"));
+        ConversionResult result = new ConversionResult();
+
+        long start = System.nanoTime();
+        converter.convert(NESTED_CASE, context, result);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+
+        assertTrue("elapsed " + elapsedMillis, elapsedMillis < 5000);
+        assertEquals(NESTED_CASE + ";\n", result.asSql());
+        ParseOutliers outliers = converter.getParseOutliers();
+        assertEquals(1, outliers.count("sys_user", ParseOutliers.Kind.TIMEOUT));
+        assertEquals(0, converter.getFailedShapes().size());
+    }
+
+    @Test
+    public void shouldSkipOversizedStatementsButKeepInsertFastPath() {
+        RawStatementConverter converter = new RawStatementConverter(StatementConversionRegistry.defaultRegistry(), true,
+                new ParseBudget(6000, 40, 0));
+        ConversionContext context = new ConversionContext(DialectFactory.fromName("postgresql"));
+        ConversionResult result = new ConversionResult();
+
+        converter.convert("UPDATE sys_user SET name = 'a long value' WHERE id = 1", context, result);
+        converter.convert("INSERT INTO sys_user (id, name) VALUES (1, 'a long value')", context, result);
+
+        assertEquals("UPDATE sys_user SET name = 'a long value' WHERE id = 1;\n"
+                + "INSERT INTO sys_user (id, name) VALUES\n    (1, 'a long value');\n", result.asSql());
+        assertEquals(1, converter.getParseOutliers().count("sys_user", ParseOutliers.Kind.OVERSIZE));
+        List<String> report = converter.getParseOutliers().report();
+        assertEquals(List.of("sys_user 超长未解析: 1 条，累计 0 ms，最长 0 ms，最大 54 字符"), report);
+    }
+
+    @Test
+    public void shouldBatchParseAndIsolateBadStatements() {
+        List<String> statements = Arrays.asList(
+                "UPDATE sys_user SET name = 'a;b' WHERE id = 1",
+                "DELETE FROM sys_user WHERE id = 2",
+                "UPDATE sys_user SET name = = 'c' WHERE id = 3",
+                "CREATE TABLE t (id int)",
+                "UPDATE sys_user SET name = 'd' WHERE id = 4");
+        ParseBudget budget = new ParseBudget(6000, 0, 0).withBatching(8, 512);
+        assertTrue(budget.isBatchable(statements.get(0)));
+        assertTrue(!budget.isBatchable(statements.get(3)));
+
+        String expected = convertAll(new ParseBudget(6000, 0, 0), statements);
+        assertEquals(expected, convertAll(budget, statements));
+        assertTrue(expected.contains("UPDATE sys_user SET name = = 'c' WHERE id = 3;\n"));
+        assertEquals(2, budget.parseBatch(Arrays.asList(statements.get(0), statements.get(1))).size());
+        assertEquals(null, budget.parseBatch(statements.subList(0, 3)));
+    }
+
+    private static String convertAll(ParseBudget budget, List<String> statements) {
+        RawStatementConverter converter = new RawStatementConverter(StatementConversionRegistry.defaultRegistry(), true,
+                budget);
+        ConversionResult result = new ConversionResult();
+        converter.convertAll(statements.iterator(), new ConversionContext(DialectFactory.fromName("postgresql")), result);
+        return result.asSql();
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.pipeline;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParseFailureShapesTest {
+
+    @Test
+    public void shouldIgnoreLiteralsButKeepIdentifiers() {
+        assertEquals(ParseFailureShapes.shapeOf("UPDATE t SET a = 'x' WHERE id = 1"),
+                ParseFailureShapes.shapeOf("update t  SET a = 'it''s; ok'\nWHERE id = 20.5"));
+        assertNotEquals(ParseFailureShapes.shapeOf("UPDATE t SET a = 'x' WHERE id = 1"),
+                ParseFailureShapes.shapeOf("UPDATE t SET a = 'it\\'s' WHERE id = 1"));
+        assertNotEquals(ParseFailureShapes.shapeOf("UPDATE t SET a = 1e5"),
+                ParseFailureShapes.shapeOf("UPDATE t SET a = 1x5"));
+        assertNotEquals(ParseFailureShapes.shapeOf("UPDATE t SET a = 'x' WHERE id = 1"),
+                ParseFailureShapes.shapeOf("UPDATE t SET a = \"x\" WHERE id = 1"));
+        assertNotEquals(ParseFailureShapes.shapeOf("UPDATE t SET a = 1"),
+                ParseFailureShapes.shapeOf("UPDATE t SET key = 1"));
+        assertNotEquals(ParseFailureShapes.shapeOf("UPDATE t1 SET a = 1"),
+                ParseFailureShapes.shapeOf("UPDATE t2 SET a = 1"));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedShapeWhenFull() {
+        ParseFailureShapes shapes = new ParseFailureShapes(2);
+        shapes.recordFailure("UPDATE t1 SET a = 1");
+        shapes.recordFailure("UPDATE t2 SET a = 1");
+        assertTrue(shapes.isKnownFailure("UPDATE t1 SET a = 2"));
+
+        shapes.recordFailure("UPDATE t3 SET a = 1");
+        assertEquals(2, shapes.size());
+        assertTrue(shapes.isKnownFailure("UPDATE t3 SET a = 3"));
+        assertTrue(shapes.isKnownFailure("UPDATE t1 SET a = 3"));
+        assertFalse(shapes.isKnownFailure("UPDATE t2 SET a = 3"));
+    }
+
+    @Test
+    public void shouldRouteKnownUnparseableStatementsWithoutParsing() {
+        RawStatementConverter converter = new RawStatementConverter(StatementConversionRegistry.defaultRegistry());
+        ConversionContext context = new ConversionContext(DialectFactory.fromName("postgresql"));
+        ConversionResult result = new ConversionResult();
+
+        RawStatementConverter.ParsedStatement alter = converter.prepare("ALTER TABLE demo ADD INDEX idx_demo (a, b DESC)");
+        assertTrue(alter.isParseSkipped());
+        converter.convert(alter, context, result);
+
+        converter.convert("UPDATE t SET a = 'x' WHERE id = 1 LOCK IN SHARE MODE", context, result);
+        assertEquals(1, converter.getFailedShapes().size());
+        RawStatementConverter.ParsedStatement again = converter.prepare("UPDATE t SET a = 'y' WHERE id = 2 LOCK IN SHARE MODE");
+        assertTrue(again.isParseSkipped());
+        converter.convert(again, context, result);
+        assertFalse(converter.prepare("UPDATE t SET a = 'y' WHERE id = 2").isParseSkipped());
+
+        assertEquals("CREATE INDEX idx_demo ON demo (a, b DESC);\n"
+                + "UPDATE t SET a = 'x' WHERE id = 1 LOCK IN SHARE MODE;\n"
+                + "UPDATE t SET a = 'y' WHERE id = 2 LOCK IN SHARE MODE;\n", result.asSql());
+    }
+}
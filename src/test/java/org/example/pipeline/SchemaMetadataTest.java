@@ -0,0 +1,99 @@
+package org.example.pipeline;
+
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.statement.alter.Alter;
+import net.sf.jsqlparser.statement.create.table.CreateTable;
+import org.example.DataTypeMapping;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SchemaMetadataTest {
+
+    @Test
+    public void shouldPublishNewTableMetadataOnAlter() throws Exception {
+        SchemaMetadata schemaMetadata = new SchemaMetadata();
+        schemaMetadata.register(TableMetadata.from(
+                (CreateTable) CCJSqlParserUtil.parse("CREATE TABLE demo (id int, name varchar(10))")));
+        TableMetadata before = schemaMetadata.find("demo").orElseThrow();
+
+        schemaMetadata.registerAddedColumns((Alter) CCJSqlParserUtil.parse("ALTER TABLE demo ADD COLUMN flag bit(1) AFTER id"));
+        TableMetadata after = schemaMetadata.find("demo").orElseThrow();
+
+        assertNotSame(before, after);
+        assertEquals(2, before.getColumnsInDeclarationOrder().size());
+        assertEquals("flag", after.getColumnsInDeclarationOrder().get(1).getColumnName());
+    }
+
+    @Test
+    public void shouldGroupTablesIntoForeignKeyLoadWaves() throws Exception {
+        SchemaMetadata schemaMetadata = new SchemaMetadata();
+        for (String sql : List.of(
+                "CREATE TABLE order_item (id int, order_id int, FOREIGN KEY (order_id) REFERENCES orders (id))",
+                "CREATE TABLE orders (id int, customer_id int, CONSTRAINT fk_customer FOREIGN KEY (customer_id) REFERENCES customer (id))",
+                "CREATE TABLE customer (id int, last_order_id int)",
+                "CREATE TABLE tree (id int, parent_id int, FOREIGN KEY (parent_id) REFERENCES tree (id))",
+                "CREATE TABLE audit (id int, FOREIGN KEY (id) REFERENCES missing (id))")) {
+            schemaMetadata.register(TableMetadata.from((CreateTable) CCJSqlParserUtil.parse(sql)));
+        }
+        schemaMetadata.registerAddedForeignKeys((Alter) CCJSqlParserUtil.parse(
+                "ALTER TABLE customer ADD CONSTRAINT fk_last_order FOREIGN KEY (last_order_id) REFERENCES orders (id)"));
+
+        List<LoadWave> waves = schemaMetadata.loadWaves();
+
+        assertEquals(2, waves.size());
+        assertEquals(List.of("audit", "customer", "orders", "tree"), waves.get(0).getTables());
+        assertEquals(List.of(List.of("customer", "orders")), waves.get(0).getCyclicGroups());
+        assertEquals(List.of("order_item"), waves.get(1).getTables());
+        assertTrue(waves.get(1).getCyclicGroups().isEmpty());
+    }
+
+    @Test
+    public void shouldAllowConcurrentRegistrationAndLookup() throws Exception {
+        SchemaMetadata schemaMetadata = new SchemaMetadata();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t * 1000;
+            threads.add(new Thread(() -> {
+                for (int i = offset; i < offset + 1000; i++) {
+                    schemaMetadata.register(new TableMetadata("t_" + i));
+                    schemaMetadata.find("t_" + (i - offset));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(4000, schemaMetadata.size());
+    }
+
+    @Test
+    public void shouldCompileAndCacheRowPlan() throws Exception {
+        TableMetadata table = TableMetadata.from((CreateTable) CCJSqlParserUtil.parse(
+                "CREATE TABLE sys_user (id int, is_force_update_password tinyint(1), avatar longblob)"));
+
+        RowPlan plan = table.rowPlan(List.of("AVATAR", "is_force_update_password", "missing"));
+
+        assertSame(plan, table.rowPlan(new ArrayList<>(List.of("AVATAR", "is_force_update_password", "missing"))));
+        assertTrue(plan.isBinaryLike(0));
+        assertTrue(plan.isBooleanLike(1));
+        assertFalse(plan.isBooleanLike(2) || plan.isBinaryLike(2));
+        assertEquals(List.of("id", "is_force_update_password", "avatar"), table.rowPlanForWidth(3).getColumnNames());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldExposeReadOnlyTypeMapping() {
+        assertTrue(DataTypeMapping.MYSQL_TYPE_TO_POSTGRE_TYPE.containsKey("int"));
+        DataTypeMapping.MYSQL_TYPE_TO_POSTGRE_TYPE.put("int", "bigint");
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.pipeline;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SchemaPrescannerTest {
+
+    private static final List<String> SCRIPT = List.of(
+            "INSERT INTO demo VALUES (1, 1)",
+            "CREATE TABLE `demo` (\n"
+                    + "  id int NOT NULL,\n"
+                    + "  is_force_update_password tinyint(1) NOT NULL,\n"
+                    + "  PRIMARY KEY (id)\n"
+                    + ")",
+            "INSERT INTO demo VALUES (2, 0)",
+            "ALTER TABLE demo ADD COLUMN name varchar(10) DEFAULT NULL AFTER id",
+            "INSERT INTO demo VALUES (3, 'x', 1)");
+
+    @Test
+    public void shouldBuildFrozenSnapshotFromDdl() {
+        SchemaMetadata schemaMetadata = SchemaPrescanner.scan(SCRIPT.iterator());
+
+        assertTrue(schemaMetadata.isFrozen());
+        TableMetadata demo = schemaMetadata.find("DEMO").orElseThrow();
+        assertEquals(List.of("id", "name", "is_force_update_password"), names(demo.getColumnsInDeclarationOrder()));
+        assertEquals(List.of("id", "is_force_update_password"), names(demo.getColumnsForWidth(2)));
+
+        schemaMetadata.register(new TableMetadata("other"));
+        assertFalse(schemaMetadata.find("other").isPresent());
+    }
+
+    @Test
+    public void shouldConvertDmlInParallelAgainstSnapshot() {
+        RawStatementConverter converter = new RawStatementConverter(StatementConversionRegistry.defaultRegistry());
+        ConversionContext context = new ConversionContext(DialectFactory.fromName("postgresql"),
+                SchemaPrescanner.scan(SCRIPT.iterator()));
+        ConversionResult result = new ConversionResult();
+
+        new ParallelConversionPipeline(converter, context, 3, 3).run(SCRIPT.iterator(), result);
+
+        String output = result.asSql();
+        assertTrue("建表前的 INSERT 也能使用快照", output.contains("(1, TRUE)"));
+        assertTrue(output.contains("INSERT INTO demo (id, is_force_update_password) VALUES\n    (2, FALSE)"));
+        assertTrue(output.contains("INSERT INTO demo (id, name, is_force_update_password) VALUES\n    (3, 'x', TRUE)"));
+    }
+
+    private static List<String> names(List<ColumnMetadata> columns) {
+        return columns.stream().map(ColumnMetadata::getColumnName).collect(Collectors.toList());
+    }
+}
@@ -19,4 +19,12 @@ public class SqlPreprocessorTest {
         String sanitized = SqlPreprocessor.sanitize(sql);
         assertEquals("INSERT INTO t VALUES (x'6162');", sanitized);
     }
+
+    @Test
+    public void shouldKeepBackticksAndIntroducersInsideLiterals() {
+        String sql = "INSERT INTO `t` VALUES (_utf8mb4 'a`b', '_binary''x', `c`);";
+        assertEquals("INSERT INTO t VALUES ('a`b', '_binary''x', c);", SqlPreprocessor.sanitize(sql));
+        assertEquals("INSERT INTO t VALUES ('a`b', '_binary''x', c);",
+                SqlPreprocessor.sanitize("INSERT INTO t VALUES ('a`b', '_binary''x', c);"));
+    }
 }
@@ -0,0 +1,81 @@
+package org.example.pipeline;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class StatementShapeCacheTest {
+
+    @Test
+    public void shouldSubstituteLiteralsAndHonorBooleanColumns() {
+        List<String> statements = Arrays.asList(
+                "CREATE TABLE flags (id int PRIMARY KEY, on_off boolean, name varchar(20))",
+                "UPDATE flags SET on_off = 1, name = 'a' WHERE id = 1",
+                "UPDATE flags SET on_off = 0, name = '1' WHERE id = 2",
+                "UPDATE flags SET on_off = 'false', name = 'it''s' WHERE id = 3",
+                "UPDATE flags SET on_off = 'abc', name = 'c' WHERE id = 4",
+                "UPDATE sys_user SET is_force_update_password = 'x' WHERE id = 5",
+                "UPDATE sys_user SET is_force_update_password = '1' WHERE id = 6",
+                "UPDATE flags SET on_off = 1, name = 'it\\'s' WHERE id = 7",
+                "DELETE FROM flags WHERE id = 8",
+                "DELETE FROM flags WHERE id = 9");
+        StatementShapeCache cache = new StatementShapeCache(16);
+
+        String cached = convertAll(cache, statements);
+
+        assertEquals(convertAll(new StatementShapeCache(0), statements), cached);
+        assertEquals("UPDATE flags SET on_off = TRUE, name = 'a' WHERE id = 1;\n"
+                + "UPDATE flags SET on_off = FALSE, name = '1' WHERE id = 2;\n"
+                + "UPDATE flags SET on_off = FALSE, name = 'it''s' WHERE id = 3;\n"
+                + "UPDATE flags SET on_off = 'abc', name = 'c' WHERE id = 4;\n"
+                + "UPDATE sys_user SET is_force_update_password = 'x' WHERE id = 5;\n"
+                + "UPDATE sys_user SET is_force_update_password = TRUE WHERE id = 6;\n"
+                + "UPDATE flags SET on_off = 1, name = 'it\\'s' WHERE id = 7;\n"
+                + "DELETE FROM flags WHERE id = 8;\n"
+                + "DELETE FROM flags WHERE id = 9;\n", dataStatements(cached));
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getFallbacks());
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void shouldNotReuseTemplatesAcrossSchemaChanges() {
+        List<String> statements = Arrays.asList(
+                "CREATE TABLE plain (id int PRIMARY KEY, name varchar(20))",
+                "UPDATE plain SET active = 1 WHERE id = 1",
+                "UPDATE plain SET active = 0 WHERE id = 2",
+                "ALTER TABLE plain ADD COLUMN active boolean",
+                "UPDATE plain SET active = 0 WHERE id = 3");
+        StatementShapeCache cache = new StatementShapeCache(16);
+
+        String cached = convertAll(cache, statements);
+
+        assertEquals(convertAll(new StatementShapeCache(0), statements), cached);
+        assertEquals("UPDATE plain SET active = 1 WHERE id = 1;\n"
+                + "UPDATE plain SET active = 0 WHERE id = 2;\n"
+                + "UPDATE plain SET active = FALSE WHERE id = 3;\n", dataStatements(cached));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getFallbacks());
+    }
+
+    private static String convertAll(StatementShapeCache cache, List<String> statements) {
+        RawStatementConverter converter = new RawStatementConverter(StatementConversionRegistry.defaultRegistry(), true,
+                ParseBudget.defaults(), cache);
+        ConversionResult result = new ConversionResult();
+        converter.convertAll(statements.iterator(), new ConversionContext(DialectFactory.fromName("postgresql")), result);
+        return result.asSql();
+    }
+
+    private static String dataStatements(String sql) {
+        StringBuilder statements = new StringBuilder();
+        for (String line : sql.split("\n")) {
+            if (line.startsWith("UPDATE") || line.startsWith("DELETE")) {
+                statements.append(line).append('\n');
+            }
+        }
+        return statements.toString();
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.pipeline.dialect;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class DialectOptionsTest {
+
+    @Test
+    public void shouldParseNamesIgnoringCase() {
+        assertEquals(DialectOptions.DataFormat.COPY, DialectOptions.parseDataFormat("data.format", " Copy "));
+        assertEquals(DialectOptions.Layout.BULK_LOAD, DialectOptions.parseLayout("output.layout", "Bulk-Load"));
+        assertEquals(DialectOptions.Layout.BULK_LOAD, DialectOptions.parseLayout("output.layout", "bulk_load"));
+    }
+
+    @Test
+    public void shouldNamePropertyAndAcceptedValuesOnBadInput() {
+        try {
+            DialectOptions.parseLayout("output.layout", "bulk");
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals("output.layout 取值无效: bulk，可选值: script, bulk-load", ex.getMessage());
+        }
+        try {
+            DialectOptions.parseDataFormat("data.format", "csv");
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals("data.format 取值无效: csv，可选值: insert, copy, binary", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.example.pipeline.output;
+
+import org.example.pipeline.ConversionContext;
+import org.example.pipeline.ConversionResult;
+import org.example.pipeline.DialectFactory;
+import org.example.pipeline.RawStatementConverter;
+import org.example.pipeline.StatementConversionRegistry;
+import org.example.pipeline.dialect.DialectOptions;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JdbcOutputSinkTest {
+
+    @Test
+    public void shouldBatchStatementsAndCopyConvertedRowsThroughConversionResult() throws Exception {
+        FakeDatabase database = new FakeDatabase();
+        DialectOptions options = DialectOptions.builder().dataFormat(DialectOptions.DataFormat.COPY).build();
+        RawStatementConverter converter = new RawStatementConverter(StatementConversionRegistry.defaultRegistry(), true);
+        ConversionContext context = new ConversionContext(DialectFactory.fromName("postgresql", options));
+        try (ConversionResult result = new ConversionResult(new JdbcOutputSink(database::connect, database, 2, 100, 1))) {
+            result.beginLoadTransaction(List.of("SET synchronous_commit = off"));
+            for (String sql : List.of(
+                    "CREATE TABLE sys_user (id bigint, name varchar(10), PRIMARY KEY (id))",
+                    "INSERT INTO sys_user (id, name) VALUES (1, 'a;b'), (2, 'it''s')",
+                    "UPDATE sys_user SET name = 'x' WHERE id = 1",
+                    "DELETE FROM sys_user WHERE id = 2",
+                    "CREATE INDEX idx_name ON sys_user (name)")) {
+                converter.convert(sql, context, result);
+            }
+        }
+
+        assertEquals(List.of(
+                "0: EXECUTE SET synchronous_commit = off",
+                "0: COMMIT",
+                "0: BATCH [CREATE TABLE sys_user (\n    id bigint,\n    name varchar(10),\n    PRIMARY KEY (id)\n)]",
+                "0: COMMIT",
+                "0: COPY sys_user (id, name) FROM STDIN <- 1\ta;b\n2\tit's\n",
+                "0: BATCH [UPDATE sys_user SET name = 'x' WHERE id = 1, DELETE FROM sys_user WHERE id = 2]",
+                "0: COMMIT",
+                "0: BATCH [CREATE INDEX idx_name ON sys_user (name)]",
+                "0: COMMIT"), database.log);
+    }
+
+    @Test
+    public void shouldSplitDollarQuotedBodiesAndSpreadTablesOverConnections() throws Exception {
+        FakeDatabase database = new FakeDatabase();
+        try (JdbcOutputSink sink = new JdbcOutputSink(database::connect, database, 10, 2, 2)) {
+            sink.write("CREATE FUNCTION f() RETURNS TRIGGER AS $$\nBEGIN\n    RETURN NEW;\nEND;\n$$ LANGUAGE plpgsql;\n");
+            sink.write("INSERT INTO a VALUES\n    (1),\n    (2);\nINSERT INTO b VALUES (1);\n");
+            sink.write("INSERT INTO a VALUES (3);\nINSERT INTO a VALUES (4);\n-- done\n");
+            sink.write("ALTER TABLE b ADD CONSTRAINT fk FOREIGN KEY (id) REFERENCES a (id);\n");
+        }
+
+        List<String> log = new ArrayList<>(database.log);
+        assertEquals("0: BATCH [CREATE FUNCTION f() RETURNS TRIGGER AS $$\nBEGIN\n    RETURN NEW;\nEND;\n$$ LANGUAGE plpgsql]",
+                log.get(0));
+        List<String> laneA = lane(log, "INSERT INTO a");
+        List<String> laneB = lane(log, "INSERT INTO b");
+        assertEquals(1, laneA.size());
+        assertEquals(1, laneB.size());
+        assertTrue(log.toString(), !laneA.get(0).substring(0, 1).equals(laneB.get(0).substring(0, 1)));
+        assertTrue(laneA.get(0).endsWith("[INSERT INTO a VALUES\n    (1),\n    (2), INSERT INTO a VALUES (3), INSERT INTO a VALUES (4)]"));
+        int foreignKey = log.indexOf("0: BATCH [ALTER TABLE b ADD CONSTRAINT fk FOREIGN KEY (id) REFERENCES a (id)]");
+        assertTrue(log.toString(), foreignKey > log.indexOf(laneA.get(0)) && foreignKey > log.indexOf(laneB.get(0)));
+        assertEquals("0: COMMIT", log.get(log.size() - 1));
+    }
+
+    @Test
+    public void shouldSkipBlockCommentsAndRejectPsqlMetaCommands() throws Exception {
+        FakeDatabase database = new FakeDatabase();
+        try (JdbcOutputSink sink = new JdbcOutputSink(database::connect, database, 10, 100, 1)) {
+            sink.write("/* header; /* nested; */\n still comment; */ CREATE TABLE a (id int);\n");
+            sink.write("INSERT INTO a VALUES (1) /* ; */;\nINSERT INTO a VALUES ('/* not a comment; */');\n");
+            try {
+                sink.write("\\copy a (id) FROM '/tmp/a.bin' WITH (FORMAT binary)\n");
+                fail();
+            } catch (IOException ex) {
+                assertTrue(ex.getMessage(), ex.getMessage().contains("psql 元命令"));
+            }
+        }
+
+        assertEquals(List.of(
+                "0: BATCH [CREATE TABLE a (id int)]",
+                "0: COMMIT",
+                "0: BATCH [INSERT INTO a VALUES (1), INSERT INTO a VALUES ('/* not a comment; */')]",
+                "0: COMMIT"), database.log);
+    }
+
+    private static List<String> lane(List<String> log, String prefix) {
+        return log.stream().filter(entry -> entry.contains("[" + prefix)).collect(Collectors.toList());
+    }
+
+    /**
+     * 以动态代理模拟的目标库，记录每个连接上执行的批次、COPY 与提交。
+     */
+    private static final class FakeDatabase implements JdbcOutputSink.CopyIn {
+        private final List<String> log = Collections.synchronizedList(new ArrayList<>());
+        private final Map<Connection, Integer> ids = Collections.synchronizedMap(new IdentityHashMap<>());
+
+        Connection connect() {
+            int id = ids.size();
+            Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "createStatement":
+                                return statement(id);
+                            case "commit":
+                                log.add(id + ": COMMIT");
+                                return null;
+                            default:
+                                return defaultValue(method.getReturnType());
+                        }
+                    });
+            ids.put(connection, id);
+            return connection;
+        }
+
+        private Statement statement(int id) {
+            List<String> batch = new ArrayList<>();
+            return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Statement.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "addBatch":
+                                batch.add((String) args[0]);
+                                return null;
+                            case "executeBatch":
+                                log.add(id + ": BATCH " + batch);
+                                int[] counts = new int[batch.size()];
+                                batch.clear();
+                                return counts;
+                            case "execute":
+                                log.add(id + ": EXECUTE " + args[0]);
+                                return false;
+                            default:
+                                return defaultValue(method.getReturnType());
+                        }
+                    });
+        }
+
+        @Override
+        public long copyIn(Connection connection, String copySql, Reader rows) throws java.io.IOException {
+            StringBuilder text = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(rows)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    text.append(line).append('\n');
+                }
+            }
+            log.add(ids.get(connection) + ": " + copySql + " <- " + text);
+            return text.chars().filter(c -> c == '\n').count();
+        }
+
+        private static Object defaultValue(Class<?> type) {
+            if (type == boolean.class) {
+                return false;
+            }
+            if (type == int.class) {
+                return 0;
+            }
+            return null;
+        }
+    }
+}
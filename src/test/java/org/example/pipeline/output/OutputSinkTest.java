@@ -0,0 +1,124 @@
+package org.example.pipeline.output;
+
+import org.example.pipeline.ConversionResult;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InterruptedIOException;
+import java.io.StringWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class OutputSinkTest {
+
+    @Test
+    public void shouldEncodeAcrossSmallChannelBuffer() throws Exception {
+        Path file = Files.createTempFile("sink", ".sql");
+        String emoji = "😀";
+        try (FileChannelOutputSink sink = new FileChannelOutputSink(
+                FileChannel.open(file, StandardOpenOption.WRITE), 5)) {
+            sink.write("COMMENT ON TABLE t IS '中文");
+            sink.write(emoji.substring(0, 1));
+            sink.write(emoji.substring(1) + "';\n");
+        }
+        assertEquals("COMMENT ON TABLE t IS '中文" + emoji + "';\n",
+                new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        Files.delete(file);
+    }
+
+    @Test
+    public void shouldFlushStreamOnlyAtLineBoundaries() throws Exception {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (StreamOutputSink sink = new StreamOutputSink(stream, 8)) {
+            sink.write("INSERT INTO t VALUES\n");
+            assertEquals("INSERT INTO t VALUES\n", stream.toString("UTF-8"));
+            sink.write("    (1, '中文'),\n    (2");
+            assertEquals("INSERT INTO t VALUES\n", stream.toString("UTF-8"));
+            sink.write(", 'b');\n");
+            assertEquals("INSERT INTO t VALUES\n    (1, '中文'),\n    (2, 'b');\n", stream.toString("UTF-8"));
+            sink.write("-- end");
+        }
+        assertEquals("INSERT INTO t VALUES\n    (1, '中文'),\n    (2, 'b');\n-- end", stream.toString("UTF-8"));
+    }
+
+    @Test
+    public void shouldKeepOrderWithAsyncDoubleBuffering() throws Exception {
+        InMemoryOutputSink target = new InMemoryOutputSink();
+        StringBuilder expected = new StringBuilder();
+        try (AsyncOutputSink sink = new AsyncOutputSink(target, 16)) {
+            for (int i = 0; i < 1000; i++) {
+                String line = "INSERT INTO t VALUES (" + i + ");\n";
+                sink.write(line);
+                expected.append(line);
+            }
+        }
+        assertEquals(expected.toString(), target.asString());
+    }
+
+    @Test
+    public void shouldFailWritesAfterWriterThreadIsInterrupted() throws Exception {
+        AsyncOutputSink sink = new AsyncOutputSink(new InMemoryOutputSink(), 16);
+        sink.writerThread().interrupt();
+        sink.writerThread().join(5000);
+
+        try {
+            sink.write("INSERT INTO t VALUES (1);\n");
+            sink.flush();
+            fail("expected InterruptedIOException");
+        } catch (InterruptedIOException expected) {
+            assertFalse(sink.writerThread().isAlive());
+        }
+    }
+
+    @Test
+    public void shouldSpillToTempFileAndTransferInOrder() throws Exception {
+        InMemoryOutputSink target = new InMemoryOutputSink();
+        StringBuilder expected = new StringBuilder();
+        try (SpillingOutputSink spill = new SpillingOutputSink(64)) {
+            for (int i = 0; i < 100; i++) {
+                String line = "INSERT INTO t VALUES (" + i + ", '中文');\n";
+                spill.write(line);
+                expected.append(line);
+            }
+            spill.transferTo(target);
+        }
+        assertEquals(expected.toString(), target.asString());
+    }
+
+    @Test
+    public void shouldStreamConversionResultToWriter() throws Exception {
+        StringWriter writer = new StringWriter();
+        try (ConversionResult result = new ConversionResult(new WriterOutputSink(writer))) {
+            result.appendStatement("DELETE FROM t");
+            result.flush();
+            assertEquals("DELETE FROM t;\n", writer.toString());
+            result.appendRaw("SELECT 1;\n");
+        }
+        assertEquals("DELETE FROM t;\nSELECT 1;\n", writer.toString());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectReadBackFromExternalSink() {
+        new ConversionResult(new WriterOutputSink(new StringWriter())).asSql();
+    }
+
+    @Test
+    public void shouldRejectUnknownSinkMode() throws Exception {
+        Path file = Files.createTempFile("sink", ".sql");
+        try {
+            OutputSinks.forFile(file, "asnyc");
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals("output.sink 取值无效: asnyc，可选值: writer, channel, async", ex.getMessage());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
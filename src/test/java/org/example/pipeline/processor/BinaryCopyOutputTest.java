@@ -0,0 +1,183 @@
+package org.example.pipeline.processor;
+
+import org.example.pipeline.ConversionContext;
+import org.example.pipeline.ConversionResult;
+import org.example.pipeline.DialectFactory;
+import org.example.pipeline.RawStatementConverter;
+import org.example.pipeline.StatementConversionRegistry;
+import org.example.pipeline.dialect.DialectOptions;
+import org.example.pipeline.output.BinaryCopyFiles;
+import org.example.pipeline.output.InMemoryOutputSink;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryCopyOutputTest {
+
+    private static final String DDL = "CREATE TABLE sys_user (id bigint, is_force_update_password tinyint(1), "
+            + "avatar blob, name varchar(10), score decimal(5,2), created_at datetime, PRIMARY KEY (id))";
+
+    private static final DialectOptions BINARY = DialectOptions.builder()
+            .dataFormat(DialectOptions.DataFormat.BINARY)
+            .build();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldWriteSameTuplesOnBothPaths() throws Exception {
+        List<String> statements = List.of(
+                "INSERT INTO sys_user VALUES (1, '1', 'png', 'a''b', 1.50, '2000-01-02 00:00:01'), "
+                        + "(2, 0, X'0F', NULL, -3, '1999-12-31')",
+                "UPDATE sys_user SET name = 'x' WHERE id = 1");
+
+        Path fast = folder.newFolder("fast").toPath();
+        Path parsed = folder.newFolder("parsed").toPath();
+        String sql = convert(statements, fast, true);
+        assertEquals(sql.replace(fast.toString(), parsed.toString()), convert(statements, parsed, false));
+        assertEquals("\\copy sys_user (id, is_force_update_password, avatar, name, score, created_at) "
+                + "FROM '" + fast.resolve("sys_user.bin") + "' WITH (FORMAT binary)\n"
+                + "UPDATE sys_user SET name = 'x' WHERE id = 1;\n", sql);
+
+        byte[] data = Files.readAllBytes(fast.resolve("sys_user.bin"));
+        assertArrayEquals(data, Files.readAllBytes(parsed.resolve("sys_user.bin")));
+        assertEquals("PGCOPY\nÿ\r\n\u0000", new String(data, 0, 11, StandardCharsets.ISO_8859_1));
+        assertEquals(-1, ByteBuffer.wrap(data, data.length - 2, 2).getShort());
+
+        ByteBuffer tuple = ByteBuffer.wrap(data, 19, data.length - 21);
+        assertEquals(6, tuple.getShort());
+        assertEquals(8, tuple.getInt());
+        assertEquals(1L, tuple.getLong());
+        assertEquals(1, tuple.getInt());
+        assertEquals(1, tuple.get());
+        assertEquals("png", text(tuple));
+        assertEquals("a'b", text(tuple));
+        assertArrayEquals("1.50 保留两位小数", new short[]{2, 0, 0, 2, 1, 5000}, numeric(tuple));
+        assertEquals(8, tuple.getInt());
+        assertEquals(86_401_000_000L, tuple.getLong());
+    }
+
+    @Test
+    public void shouldLoadEachRunOfRowsWhereItAppearsInTheScript() throws Exception {
+        Path dir = folder.newFolder().toPath();
+        String sql = convert(List.of(
+                "INSERT INTO sys_user (id, name) VALUES (1, 'a')",
+                "INSERT INTO sys_user (id, name) VALUES (2, 'b')",
+                "UPDATE sys_user SET name = 'x' WHERE id = 1",
+                "INSERT INTO sys_user (id, name) VALUES (3, 'c')",
+                "INSERT INTO sys_user (id, score) VALUES (4, 1.5)"), dir, true);
+
+        assertEquals("\\copy sys_user (id, name) FROM '" + dir.resolve("sys_user.bin") + "' WITH (FORMAT binary)\n"
+                + "UPDATE sys_user SET name = 'x' WHERE id = 1;\n"
+                + "\\copy sys_user (id, name) FROM '" + dir.resolve("sys_user.2.bin") + "' WITH (FORMAT binary)\n"
+                + "\\copy sys_user (id, score) FROM '" + dir.resolve("sys_user.3.bin") + "' WITH (FORMAT binary)\n", sql);
+        assertEquals(2, tupleCount(Files.readAllBytes(dir.resolve("sys_user.bin"))));
+        assertEquals(1, tupleCount(Files.readAllBytes(dir.resolve("sys_user.2.bin"))));
+        assertEquals(1, tupleCount(Files.readAllBytes(dir.resolve("sys_user.3.bin"))));
+    }
+
+    @Test
+    public void shouldKeepDecimalLiteralsExact() throws Exception {
+        List<String> statements = List.of(
+                "INSERT INTO sys_user (id, name, score) VALUES (3, 1.50, 12345678901234567.89), (4, -0.10, -1.50)");
+
+        Path fast = folder.newFolder("fast").toPath();
+        Path parsed = folder.newFolder("parsed").toPath();
+        convert(statements, fast, true);
+        convert(statements, parsed, false);
+        byte[] data = Files.readAllBytes(fast.resolve("sys_user.bin"));
+        assertArrayEquals(data, Files.readAllBytes(parsed.resolve("sys_user.bin")));
+
+        ByteBuffer tuple = ByteBuffer.wrap(data, 19, data.length - 21);
+        assertEquals(3, tuple.getShort());
+        assertEquals(8, tuple.getInt());
+        assertEquals(3L, tuple.getLong());
+        assertEquals("1.50", text(tuple));
+        assertArrayEquals(new short[]{6, 4, 0, 2, 1, 2345, 6789, 123, 4567, 8900}, numeric(tuple));
+        assertEquals(3, tuple.getShort());
+        assertEquals(8, tuple.getInt());
+        assertEquals(4L, tuple.getLong());
+        assertEquals("-0.10", text(tuple));
+        assertArrayEquals(new short[]{2, 0, 0x4000, 2, 1, 5000}, numeric(tuple));
+    }
+
+    @Test
+    public void shouldFallBackToInsertWhenValueCannotBeEncoded() throws Exception {
+        Path dir = folder.newFolder().toPath();
+        String sql = convert(List.of(
+                "INSERT INTO sys_user (id, created_at) VALUES (1, '0000-00-00 00:00:00'), (2, NULL)",
+                "INSERT INTO unknown_table (id, name) VALUES (1, 'a'), (2, 'b')"), dir, true);
+
+        assertTrue(sql, sql.startsWith("INSERT INTO sys_user (id, created_at) VALUES"));
+        assertTrue(sql, sql.contains("INSERT INTO unknown_table (id, name) VALUES"));
+        assertFalse(Files.exists(dir.resolve("sys_user.bin")));
+    }
+
+    @Test
+    public void shouldEncodeNumericInBase10000Groups() {
+        BinaryCopyFormat.Encoder encoder = new BinaryCopyFormat.Encoder(0);
+        encoder.putString(BinaryCopyFormat.Type.NUMERIC, "-12345.678");
+        encoder.putString(BinaryCopyFormat.Type.NUMERIC, "0.0005");
+        encoder.putString(BinaryCopyFormat.Type.NUMERIC, "100000");
+
+        ByteBuffer buffer = ByteBuffer.wrap(encoder.toByteArray());
+        assertArrayEquals(new short[]{3, 1, 0x4000, 3, 1, 2345, 6780}, numeric(buffer));
+        assertArrayEquals(new short[]{1, -1, 0, 4, 5}, numeric(buffer));
+        assertArrayEquals(new short[]{1, 1, 0, 0, 10}, numeric(buffer));
+    }
+
+    /**
+     * 逐个跳过元组，返回文件中的元组数量。
+     */
+    private static int tupleCount(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data, 19, data.length - 19);
+        int count = 0;
+        for (short width = buffer.getShort(); width != -1; width = buffer.getShort()) {
+            for (int i = 0; i < width; i++) {
+                int length = buffer.getInt();
+                buffer.position(buffer.position() + Math.max(length, 0));
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private static short[] numeric(ByteBuffer buffer) {
+        short[] values = new short[buffer.getInt() / 2];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buffer.getShort();
+        }
+        return values;
+    }
+
+    private static String text(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String convert(List<String> statements, Path directory, boolean fastPath) throws Exception {
+        RawStatementConverter converter = new RawStatementConverter(StatementConversionRegistry.defaultRegistry(), fastPath);
+        ConversionContext context = new ConversionContext(DialectFactory.fromName("postgresql", BINARY));
+        converter.convert(DDL, context, new ConversionResult());
+        InMemoryOutputSink sink = new InMemoryOutputSink();
+        try (ConversionResult result = new ConversionResult(sink, BinaryCopyFiles.open(directory))) {
+            for (String sql : statements) {
+                converter.convert(sql, context, result);
+            }
+        }
+        return sink.asString();
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.pipeline.processor;
+
+import org.example.pipeline.ConversionContext;
+import org.example.pipeline.ConversionResult;
+import org.example.pipeline.DialectFactory;
+import org.example.pipeline.RawStatementConverter;
+import org.example.pipeline.StatementConversionRegistry;
+import org.example.pipeline.dialect.DialectOptions;
+import org.example.pipeline.dialect.DialectProfile;
+import org.example.pipeline.output.InMemoryOutputSink;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BulkLoadLayoutTest {
+
+    private static final List<String> STATEMENTS = List.of(
+            "CREATE TABLE sys_user (id bigint, name varchar(10), PRIMARY KEY (id), KEY idx_name (name))",
+            "INSERT INTO sys_user (id, name) VALUES (1, 'a'), (2, 'b')",
+            "CREATE TABLE child (id bigint, user_id bigint, PRIMARY KEY (id),"
+                    + " CONSTRAINT fk_child_user FOREIGN KEY (user_id) REFERENCES sys_user (id))",
+            "INSERT INTO child (id, user_id) VALUES (1, 1)",
+            "ALTER TABLE child ADD CONSTRAINT fk_child_owner FOREIGN KEY (user_id) REFERENCES sys_user (id) ON DELETE CASCADE",
+            "CREATE INDEX idx_child_user ON child (user_id)",
+            "INSERT INTO child (id, user_id) VALUES (2, 2)");
+
+    private static final String EXPECTED = "CREATE TABLE sys_user (\n"
+            + "    id bigint,\n"
+            + "    name varchar(10),\n"
+            + "    PRIMARY KEY (id)\n"
+            + ");\n"
+            + "CREATE TABLE child (\n"
+            + "    id bigint,\n"
+            + "    user_id bigint,\n"
+            + "    PRIMARY KEY (id)\n"
+            + ");\n"
+            + "INSERT INTO sys_user (id, name) VALUES\n"
+            + "    (1, 'a'),\n"
+            + "    (2, 'b');\n"
+            + "INSERT INTO child (id, user_id) VALUES\n"
+            + "    (1, 1);\n"
+            + "INSERT INTO child (id, user_id) VALUES\n"
+            + "    (2, 2);\n"
+            + "CREATE INDEX idx_name ON sys_user (name);\n"
+            + "CREATE INDEX idx_child_user ON child (user_id);\n"
+            + "ALTER TABLE child\n"
+            + "    ADD CONSTRAINT fk_child_user FOREIGN KEY (user_id) REFERENCES sys_user (id) NOT VALID;\n"
+            + "ALTER TABLE child\n"
+            + "    ADD CONSTRAINT fk_child_owner FOREIGN KEY (user_id) REFERENCES sys_user(id) ON DELETE CASCADE NOT VALID;\n"
+            + "ALTER TABLE child VALIDATE CONSTRAINT fk_child_user;\n"
+            + "ALTER TABLE child VALIDATE CONSTRAINT fk_child_owner;\n"
+            + "ANALYZE sys_user;\n"
+            + "ANALYZE child;\n";
+
+    @Test
+    public void shouldDeferIndexesForeignKeysAndAnalyzeUntilAfterData() {
+        assertEquals(EXPECTED, convert(false));
+    }
+
+    @Test
+    public void shouldKeepSectionsWhenReplayingCapturedResults() {
+        assertEquals(EXPECTED, convert(true));
+    }
+
+    @Test
+    public void shouldLoadIntoUnloggedTablesInOneTransaction() {
+        DialectOptions options = DialectOptions.builder().unloggedLoad(true).build();
+        DialectProfile profile = DialectFactory.fromName("postgresql", options);
+        RawStatementConverter converter = new RawStatementConverter(StatementConversionRegistry.defaultRegistry(), true);
+        ConversionContext context = new ConversionContext(profile);
+        ConversionResult result = new ConversionResult(new InMemoryOutputSink(), null, options.getLayout());
+        result.beginLoadTransaction(profile.loadSessionSettings());
+        for (String sql : STATEMENTS.subList(0, 4)) {
+            converter.convert(sql, context, result);
+        }
+
+        String expected = "SET synchronous_commit = off;\n"
+                + "BEGIN;\n"
+                + "CREATE UNLOGGED TABLE sys_user (\n"
+                + "    id bigint,\n"
+                + "    name varchar(10),\n"
+                + "    PRIMARY KEY (id)\n"
+                + ");\n"
+                + "\n"
+                + "CREATE INDEX idx_name ON sys_user (name);\n"
+                + "INSERT INTO sys_user (id, name) VALUES\n"
+                + "    (1, 'a'),\n"
+                + "    (2, 'b');\n"
+                + "CREATE UNLOGGED TABLE child (\n"
+                + "    id bigint,\n"
+                + "    user_id bigint,\n"
+                + "    PRIMARY KEY (id)\n"
+                + ");\n"
+                + "\n"
+                + "ALTER TABLE child\n"
+                + "    ADD CONSTRAINT fk_child_user FOREIGN KEY (user_id) REFERENCES sys_user (id);\n"
+                + "INSERT INTO child (id, user_id) VALUES\n"
+                + "    (1, 1);\n"
+                + "COMMIT;\n"
+                + "ALTER TABLE IF EXISTS sys_user SET LOGGED;\n"
+                + "ALTER TABLE IF EXISTS child SET LOGGED;\n";
+        assertEquals(expected, result.asSql());
+    }
+
+    @Test
+    public void shouldCreateReferencedTablesFirstInDependencyOrder() {
+        DialectOptions options = DialectOptions.builder().layout(DialectOptions.Layout.BULK_LOAD).build();
+        RawStatementConverter converter = new RawStatementConverter(StatementConversionRegistry.defaultRegistry(), true);
+        ConversionContext context = new ConversionContext(DialectFactory.fromName("gauss", options));
+        ConversionResult result = new ConversionResult(new InMemoryOutputSink(), null, options.getLayout());
+        result.orderSchemaByDependencies(context.getSchemaMetadata());
+        for (String sql : List.of(
+                "DROP TABLE IF EXISTS child",
+                "CREATE TABLE child (id bigint, user_id bigint, PRIMARY KEY (id),"
+                        + " CONSTRAINT fk_child_user FOREIGN KEY (user_id) REFERENCES sys_user (id))",
+                "INSERT INTO child (id, user_id) VALUES (1, 1)",
+                "DROP TABLE IF EXISTS sys_user",
+                "CREATE TABLE sys_user (id bigint, name varchar(10), PRIMARY KEY (id))",
+                "ALTER TABLE sys_user ADD COLUMN flag int",
+                "INSERT INTO sys_user (id, name, flag) VALUES (1, 'a', 0)")) {
+            converter.convert(sql, context, result);
+        }
+
+        String sql = result.asSql();
+        int dropSysUser = sql.indexOf("DROP TABLE IF EXISTS sys_user");
+        int createSysUser = sql.indexOf("CREATE TABLE sys_user");
+        int addFlag = sql.indexOf("ALTER TABLE sys_user ADD COLUMN flag");
+        int createChild = sql.indexOf("CREATE TABLE child");
+        int firstInsert = sql.indexOf("INSERT INTO");
+        assertTrue(sql, sql.indexOf("DROP TABLE IF EXISTS child") < dropSysUser && dropSysUser < createSysUser);
+        assertTrue(sql, createSysUser < addFlag && addFlag < createChild && createChild < firstInsert);
+        assertTrue(sql, sql.indexOf("INSERT INTO child") < sql.indexOf("INSERT INTO sys_user"));
+    }
+
+    private static String convert(boolean capturing) {
+        DialectOptions options = DialectOptions.builder().layout(DialectOptions.Layout.BULK_LOAD).build();
+        RawStatementConverter converter = new RawStatementConverter(StatementConversionRegistry.defaultRegistry(), true);
+        ConversionContext context = new ConversionContext(DialectFactory.fromName("postgresql", options));
+        ConversionResult result = new ConversionResult(new InMemoryOutputSink(), null, options.getLayout());
+        for (String sql : STATEMENTS) {
+            if (capturing) {
+                ConversionResult captured = ConversionResult.capturing();
+                converter.convert(sql, context, captured);
+                captured.replayInto(result);
+            } else {
+                converter.convert(sql, context, result);
+            }
+        }
+        return result.asSql();
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.pipeline.processor;
+
+import org.example.pipeline.ConversionContext;
+import org.example.pipeline.ConversionResult;
+import org.example.pipeline.DialectFactory;
+import org.example.pipeline.RawStatementConverter;
+import org.example.pipeline.StatementConversionRegistry;
+import org.example.pipeline.dialect.DialectOptions;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CopyOutputTest {
+
+    private static final String DDL = "CREATE TABLE sys_user (id bigint, is_force_update_password tinyint(1), "
+            + "avatar blob, name varchar(10), score decimal(5,2), PRIMARY KEY (id))";
+
+    private static final DialectOptions COPY = DialectOptions.builder()
+            .dataFormat(DialectOptions.DataFormat.COPY)
+            .build();
+
+    @Test
+    public void shouldEscapeValuesAndMergeConsecutiveInserts() {
+        List<String> statements = List.of(
+                "INSERT INTO sys_user VALUES (1, '1', 'png', 'a\tb', 1.50), (2, 0, X'0F', NULL, -3)",
+                "INSERT INTO sys_user VALUES (3, ' TRUE ', NULL, 'it''s c:\\dir', 1e3)",
+                "UPDATE sys_user SET name = 'x' WHERE id = 1",
+                "INSERT INTO sys_user (id, name) VALUES (4, '中文'), (5, ''), (6, 1.50)",
+                "INSERT INTO sys_user (id, score) VALUES (7, 12345678901234567.89)");
+        String expected = "COPY sys_user (id, is_force_update_password, avatar, name, score) FROM STDIN;\n"
+                + "1\tt\t\\\\x706e67\ta\\tb\t1.50\n"
+                + "2\tf\t\\\\x0f\t\\N\t-3\n"
+                + "3\tt\t\\N\tit's c:\\\\dir\t1e3\n"
+                + "\\.\n"
+                + "UPDATE sys_user SET name = 'x' WHERE id = 1;\n"
+                + "COPY sys_user (id, name) FROM STDIN;\n"
+                + "4\t中文\n"
+                + "5\t\n"
+                + "6\t1.50\n"
+                + "\\.\n"
+                + "COPY sys_user (id, score) FROM STDIN;\n"
+                + "7\t12345678901234567.89\n"
+                + "\\.\n";
+        assertEquals(expected, convert("postgresql", COPY, statements, true));
+        assertEquals(expected, convert("postgresql", COPY, statements, false));
+    }
+
+    @Test
+    public void shouldFallBackToInsertWhenValueCannotBeCopied() {
+        String sql = "INSERT INTO sys_user (id, name) VALUES (1, 0x41), (2, 'b')";
+        String copied = convert("postgresql", COPY, List.of(sql), true);
+        assertTrue(copied, copied.startsWith("INSERT INTO sys_user (id, name) VALUES"));
+        assertEquals(convert("postgresql", DialectOptions.defaults(), List.of(sql), true), copied);
+    }
+
+    @Test
+    public void shouldIgnoreCopyForDialectsWithoutSupport() {
+        List<String> statements = List.of("INSERT INTO sys_user VALUES (1, 1, 'png', 'x', 2), (2, 0, NULL, NULL, 3)");
+        assertEquals(convert("gauss", DialectOptions.defaults(), statements, true),
+                convert("gauss", COPY, statements, true));
+    }
+
+    private static String convert(String dialect, DialectOptions options, List<String> statements, boolean fastPath) {
+        RawStatementConverter converter = new RawStatementConverter(StatementConversionRegistry.defaultRegistry(), fastPath);
+        ConversionContext context = new ConversionContext(DialectFactory.fromName(dialect, options));
+        converter.convert(DDL, context, new ConversionResult());
+        ConversionResult result = new ConversionResult();
+        for (String sql : statements) {
+            converter.convert(sql, context, result);
+        }
+        return result.asSql();
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.pipeline.processor;
+
+import org.example.pipeline.ConversionContext;
+import org.example.pipeline.ConversionResult;
+import org.example.pipeline.DialectFactory;
+import org.example.pipeline.RawStatementConverter;
+import org.example.pipeline.StatementConversionRegistry;
+import org.example.pipeline.dialect.DialectOptions;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class InsertBatchingTest {
+
+    private static final String DDL = "CREATE TABLE sys_user (id bigint, name varchar(10), PRIMARY KEY (id))";
+
+    @Test
+    public void shouldMergeConsecutiveInsertsAndSplitByRows() {
+        List<String> statements = List.of(
+                "INSERT INTO sys_user (id, name) VALUES (1, 'a'), (2, 'b')",
+                "INSERT INTO sys_user (id, name) VALUES (3, 'c')",
+                "INSERT INTO sys_user (id, name) VALUES (4, 'd'), (5, NOW())",
+                "UPDATE sys_user SET name = 'x' WHERE id = 1",
+                "INSERT INTO sys_user (name, id) VALUES ('f', 6), ('g', 7)");
+        DialectOptions options = DialectOptions.builder().insertBatchRows(3).build();
+        String expected = "INSERT INTO sys_user (id, name) VALUES\n"
+                + "    (1, 'a'),\n"
+                + "    (2, 'b'),\n"
+                + "    (3, 'c');\n"
+                + "INSERT INTO sys_user (id, name) VALUES\n"
+                + "    (4, 'd'),\n"
+                + "    (5, NOW());\n"
+                + "UPDATE sys_user SET name = 'x' WHERE id = 1;\n"
+                + "INSERT INTO sys_user (name, id) VALUES\n"
+                + "    ('f', 6),\n"
+                + "    ('g', 7);\n";
+        assertEquals(expected, convert(options, statements, true));
+        assertEquals(expected, convert(options, statements, false));
+    }
+
+    @Test
+    public void shouldSplitByUtf8Bytes() {
+        StringBuilder sql = new StringBuilder("INSERT INTO sys_user (id, name) VALUES ");
+        for (int i = 0; i < 100; i++) {
+            sql.append(i == 0 ? "" : ", ").append('(').append(i).append(", '中文名称')");
+        }
+        String converted = convert(DialectOptions.builder().insertBatchBytes(512).build(), List.of(sql.toString()), true);
+
+        int statements = 0;
+        int rows = 0;
+        for (String statement : converted.split("(?<=;\n)")) {
+            statements++;
+            rows += statement.split("\n").length - 1;
+            assertTrue(statement, statement.getBytes(StandardCharsets.UTF_8).length <= 512);
+        }
+        assertEquals(100, rows);
+        assertTrue(String.valueOf(statements), statements > 1);
+    }
+
+    private static String convert(DialectOptions options, List<String> statements, boolean fastPath) {
+        RawStatementConverter converter = new RawStatementConverter(StatementConversionRegistry.defaultRegistry(), fastPath);
+        ConversionContext context = new ConversionContext(DialectFactory.fromName("postgresql", options));
+        converter.convert(DDL, context, new ConversionResult());
+        ConversionResult result = new ConversionResult();
+        for (String sql : statements) {
+            converter.convert(sql, context, result);
+        }
+        return result.asSql();
+    }
+}
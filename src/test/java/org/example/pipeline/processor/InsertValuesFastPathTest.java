@@ -0,0 +1,66 @@
+package org.example.pipeline.processor;
+
+import org.example.pipeline.ConversionContext;
+import org.example.pipeline.ConversionResult;
+import org.example.pipeline.DialectFactory;
+import org.example.pipeline.RawStatementConverter;
+import org.example.pipeline.StatementConversionRegistry;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class InsertValuesFastPathTest {
+
+    private static final String DDL = "CREATE TABLE sys_user (id bigint, is_force_update_password tinyint(1), "
+            + "avatar blob, name varchar(10), score decimal(5,2), PRIMARY KEY (id))";
+
+    @Test
+    public void shouldTokenizeExtendedInsert() {
+        InsertValues values = InsertValues.parse("insert into db.sys_user(id, name) values (1,'a''b'),( -2 , NULL )");
+
+        assertNotNull(values);
+        assertEquals("db.sys_user", values.getTableName());
+        assertEquals(List.of("id", "name"), values.getColumns());
+        assertEquals(2, values.getRowCount());
+        assertEquals(InsertValues.SIGNED, values.kindAt(2));
+        assertEquals(InsertValues.NULL, values.kindAt(3));
+    }
+
+    @Test
+    public void shouldLeaveUnsupportedShapesToParser() {
+        assertNull(InsertValues.parse("INSERT INTO t (a, b) VALUES (1, NOW())"));
+        assertNull(InsertValues.parse("INSERT INTO t (a, b) VALUES (1, 'it\\'s')"));
+        assertNull(InsertValues.parse("INSERT INTO t (a, b) VALUES (1, 2) ON DUPLICATE KEY UPDATE b = 2"));
+        assertNull(InsertValues.parse("INSERT INTO t (a, b) SELECT a, b FROM s"));
+        assertNull(InsertValues.parse("INSERT INTO t (a) VALUES (1)"));
+        assertNull(InsertValues.parse("INSERT INTO t (a, b) VALUES (99999999999999999999, 1)"));
+    }
+
+    @Test
+    public void shouldMatchParserOutput() {
+        String sql = "INSERT INTO sys_user VALUES (1, '1', 'png', 'x', 1.50), (007, 0, X'0f', NULL, -3), "
+                + "(3, ' TRUE ', NULL, 'y''z', 1e3), (4, 0.0, NULL, NULL, 12345678901234567.89)";
+        for (String dialect : List.of("postgresql", "gauss")) {
+            assertEquals(dialect, convert(dialect, sql, false), convert(dialect, sql, true));
+        }
+        assertEquals("INSERT INTO sys_user (id, is_force_update_password, avatar, name, score) VALUES\n"
+                        + "    (1, TRUE, convert_to('png', 'UTF8'), 'x', 1.50),\n"
+                        + "    (7, FALSE, convert_to(X'0f', 'UTF8'), NULL, -3),\n"
+                        + "    (3, TRUE, NULL, 'y''z', 1e3),\n"
+                        + "    (4, FALSE, NULL, NULL, 12345678901234567.89);\n",
+                convert("postgresql", sql, true));
+    }
+
+    private static String convert(String dialect, String sql, boolean fastPath) {
+        RawStatementConverter converter = new RawStatementConverter(StatementConversionRegistry.defaultRegistry(), fastPath);
+        ConversionContext context = new ConversionContext(DialectFactory.fromName(dialect));
+        converter.convert(DDL, context, new ConversionResult());
+        ConversionResult result = new ConversionResult();
+        converter.convert(sql, context, result);
+        return result.asSql();
+    }
+}
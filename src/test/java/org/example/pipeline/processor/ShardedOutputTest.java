@@ -0,0 +1,128 @@
+package org.example.pipeline.processor;
+
+import org.example.pipeline.ConversionContext;
+import org.example.pipeline.ConversionResult;
+import org.example.pipeline.DialectFactory;
+import org.example.pipeline.IndexBuildPlanner;
+import org.example.pipeline.RawStatementConverter;
+import org.example.pipeline.StatementConversionRegistry;
+import org.example.pipeline.dialect.DialectOptions;
+import org.example.pipeline.output.ShardedOutputFiles;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ShardedOutputTest {
+
+    private static final List<String> STATEMENTS = List.of(
+            "CREATE TABLE sys_user (id bigint, name varchar(10), PRIMARY KEY (id), KEY idx_name (name))",
+            "CREATE TABLE child (id bigint, user_id bigint, PRIMARY KEY (id),"
+                    + " CONSTRAINT fk_child_user FOREIGN KEY (user_id) REFERENCES sys_user (id))",
+            "INSERT INTO sys_user (id, name) VALUES (1, 'a'), (2, 'b')",
+            "INSERT INTO child (id, user_id) VALUES (1, 1)",
+            "INSERT INTO sys_user (id, name) VALUES (3, 'c')",
+            "UPDATE sys_user SET name = 'x' WHERE id = 1");
+
+    private static final DialectOptions COPY_BULK = DialectOptions.builder()
+            .dataFormat(DialectOptions.DataFormat.COPY)
+            .layout(DialectOptions.Layout.BULK_LOAD)
+            .build();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldWriteSchemaDataPerTableAndPostDataWithManifest() throws Exception {
+        Path directory = convert(folder.newFolder("serial").toPath(), 0, false);
+
+        assertEquals("CREATE TABLE sys_user (\n    id bigint,\n    name varchar(10),\n    PRIMARY KEY (id)\n);\n"
+                        + "CREATE TABLE child (\n    id bigint,\n    user_id bigint,\n    PRIMARY KEY (id)\n);\n",
+                read(directory, "schema.sql"));
+        assertEquals("COPY sys_user (id, name) FROM STDIN;\n1\ta\n2\tb\n\\.\n"
+                        + "COPY sys_user (id, name) FROM STDIN;\n3\tc\n\\.\n"
+                        + "UPDATE sys_user SET name = 'x' WHERE id = 1;\n",
+                read(directory, "data/sys_user.sql"));
+        assertEquals("COPY child (id, user_id) FROM STDIN;\n1\t1\n\\.\n", read(directory, "data/child.sql"));
+        assertTrue(read(directory, "post-data.sql").startsWith("CREATE INDEX idx_name ON sys_user (name);\n"
+                + "ALTER TABLE child\n    ADD CONSTRAINT fk_child_user"));
+
+        String manifest = read(directory, ShardedOutputFiles.MANIFEST);
+        assertTrue(manifest, manifest.contains("{\"path\": \"data/child.sql\", \"kind\": \"data\", \"table\": \"child\", "
+                + "\"bytes\": 44, \"dependsOn\": [\"schema.sql\"]}"));
+        assertTrue(manifest, manifest.contains("{\"path\": \"post-data.sql\", \"kind\": \"post-data\", \"bytes\": "));
+        assertTrue(manifest, manifest.contains("\"dependsOn\": [\"data/sys_user.sql\", \"data/child.sql\"]}"));
+    }
+
+    @Test
+    public void shouldSplitTableDataBySizeAndMatchParallelReplay() throws Exception {
+        Path serial = convert(folder.newFolder("split").toPath(), 48, false);
+        Path replayed = convert(folder.newFolder("replayed").toPath(), 48, true);
+
+        assertEquals("COPY sys_user (id, name) FROM STDIN;\n1\ta\n2\tb\n\\.\n", read(serial, "data/sys_user.sql"));
+        assertEquals("COPY sys_user (id, name) FROM STDIN;\n3\tc\n\\.\n"
+                + "UPDATE sys_user SET name = 'x' WHERE id = 1;\n", read(serial, "data/sys_user.2.sql"));
+        for (String file : List.of("schema.sql", "data/sys_user.sql", "data/sys_user.2.sql", "data/child.sql",
+                "post-data.sql", ShardedOutputFiles.MANIFEST)) {
+            assertEquals(file, read(serial, file), read(replayed, file));
+        }
+        String manifest = read(serial, ShardedOutputFiles.MANIFEST);
+        assertTrue(manifest, manifest.contains("{\"path\": \"data/sys_user.sql\", \"kind\": \"data\", "
+                + "\"table\": \"sys_user\", \"bytes\": 48, \"dependsOn\": [\"schema.sql\"]}"));
+        assertTrue(manifest, manifest.contains("{\"path\": \"data/sys_user.2.sql\", \"kind\": \"data\", "
+                + "\"table\": \"sys_user\", \"bytes\": 89, \"dependsOn\": [\"schema.sql\", \"data/sys_user.sql\"]}"));
+    }
+
+    @Test
+    public void shouldWriteIndexesIntoBuildLanesBeforePostData() throws Exception {
+        Path directory = folder.newFolder("lanes").toPath();
+        RawStatementConverter converter = new RawStatementConverter(StatementConversionRegistry.defaultRegistry(), true);
+        ConversionContext context = new ConversionContext(DialectFactory.fromName("postgresql", COPY_BULK));
+        try (ConversionResult result = new ConversionResult(ShardedOutputFiles.open(directory, 0, List.of(), false), null)) {
+            result.planIndexBuilds(new IndexBuildPlanner(2, 1024, 4), context.getLoadStatistics());
+            for (String sql : STATEMENTS) {
+                converter.convert(sql, context, result);
+            }
+            converter.convert("CREATE INDEX idx_child_user ON child (user_id)", context, result);
+        }
+
+        assertEquals(3, context.getLoadStatistics().getRows("sys_user"));
+        assertEquals("SET maintenance_work_mem = '64MB';\nSET max_parallel_maintenance_workers = 0;\n"
+                + "CREATE INDEX idx_name ON sys_user (name);\n", read(directory, "indexes/lane-1.sql"));
+        assertEquals("SET maintenance_work_mem = '64MB';\nSET max_parallel_maintenance_workers = 0;\n"
+                + "CREATE INDEX idx_child_user ON child (user_id);\n", read(directory, "indexes/lane-2.sql"));
+        assertTrue(read(directory, "post-data.sql").startsWith("ALTER TABLE child\n    ADD CONSTRAINT fk_child_user"));
+        String manifest = read(directory, ShardedOutputFiles.MANIFEST);
+        assertTrue(manifest, manifest.contains("\"dependsOn\": [\"data/sys_user.sql\", \"data/child.sql\", "
+                + "\"indexes/lane-1.sql\", \"indexes/lane-2.sql\"]}"));
+    }
+
+    private static Path convert(Path directory, long maxShardBytes, boolean capturing) throws Exception {
+        RawStatementConverter converter = new RawStatementConverter(StatementConversionRegistry.defaultRegistry(), true);
+        ConversionContext context = new ConversionContext(DialectFactory.fromName("postgresql", COPY_BULK));
+        ShardedOutputFiles shards = ShardedOutputFiles.open(directory, maxShardBytes, List.of(), false);
+        try (ConversionResult result = new ConversionResult(shards, null)) {
+            for (String sql : STATEMENTS) {
+                if (capturing) {
+                    ConversionResult captured = ConversionResult.capturing();
+                    converter.convert(sql, context, captured);
+                    captured.replayInto(result);
+                } else {
+                    converter.convert(sql, context, result);
+                }
+            }
+        }
+        return directory;
+    }
+
+    private static String read(Path directory, String file) throws Exception {
+        return new String(Files.readAllBytes(directory.resolve(file)), StandardCharsets.UTF_8);
+    }
+}